@@ -0,0 +1,49 @@
+package com.chess.bench;
+
+import com.chess.engine.board.Board;
+import com.chess.pgn.FenUtils;
+
+/**
+ * The curated positions every benchmark runs on, from the opening through a crowded middlegame
+ * to a sparse endgame, so a change is not judged on the starting position alone.
+ */
+public final class BenchmarkPositions {
+
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    public static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    public static final String MIDDLEGAME = "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+    public static final String ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+
+    private BenchmarkPositions() {
+        throw new RuntimeException("You cannot instantiate BenchmarkPositions!");
+    }
+
+    /**
+     * Gets the fen string of a curated position
+     * @param name the name of the position as used by the benchmark parameters
+     * @return the fen string of the position
+     */
+    public static String getFen(final String name) {
+        switch (name) {
+            case "START":
+                return START;
+            case "KIWIPETE":
+                return KIWIPETE;
+            case "MIDDLEGAME":
+                return MIDDLEGAME;
+            case "ENDGAME":
+                return ENDGAME;
+            default:
+                throw new RuntimeException("Unknown benchmark position " + name);
+        }
+    }
+
+    /**
+     * Creates the board of a curated position
+     * @param name the name of the position as used by the benchmark parameters
+     * @return the board of the position
+     */
+    public static Board createBoard(final String name) {
+        return FenUtils.createBoardFromFen(getFen(name));
+    }
+}
@@ -0,0 +1,56 @@
+package com.chess.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.SearchPosition;
+import com.chess.engine.player.ai.BoardEvaluator;
+import com.chess.engine.player.ai.StandardBoardEvauluator;
+
+/**
+ * Measures the static evaluation, on a board as the GUI sees it and on the search position the
+ * search evaluates
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluationBenchmark {
+
+    @Param({"START", "KIWIPETE", "MIDDLEGAME", "ENDGAME"})
+    private String position;
+
+    private final BoardEvaluator evaluator = new StandardBoardEvauluator();
+    private Board board;
+    private SearchPosition searchPosition;
+
+    @Setup
+    public void setUp() {
+        this.board = BenchmarkPositions.createBoard(this.position);
+        this.searchPosition = new SearchPosition(this.board);
+    }
+
+    @Benchmark
+    public int evaluateBoard() {
+        return this.evaluator.evaluate(this.board, 0);
+    }
+
+    @Benchmark
+    public int evaluateSearchPosition() {
+        return this.evaluator.evaluate(this.searchPosition, 0);
+    }
+}
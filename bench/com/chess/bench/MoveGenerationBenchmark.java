@@ -0,0 +1,84 @@
+package com.chess.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.player.Player;
+
+/**
+ * Measures generating the legal moves of every piece of one type, and making moves both on
+ * their own and through the player, which also checks that they are legal. Piece.calcLegalMoves
+ * only picks moves out of the player's cached legal moves, so the generation is measured on
+ * calcPseudoLegalMoves and the player's legality filter instead.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveGenerationBenchmark {
+
+    @Param({"START", "KIWIPETE", "MIDDLEGAME", "ENDGAME"})
+    private String position;
+
+    @Param({"PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING"})
+    private PieceType pieceType;
+
+    private Board board;
+    private Player player;
+    private List<Piece> pieces;
+    private List<Move> moves;
+
+    @Setup
+    public void setUp() {
+        this.board = BenchmarkPositions.createBoard(this.position);
+        this.player = this.board.getCurrPlayer();
+        this.pieces = new ArrayList<>();
+        for (final Piece piece : this.player.getActivePieces()) {
+            if (piece.getPieceType() == this.pieceType) {
+                this.pieces.add(piece);
+            }
+        }
+        this.moves = new ArrayList<>(this.player.getLegalMoves());
+    }
+
+    @Benchmark
+    public void generateLegalMoves(final Blackhole blackhole) {
+        for (final Piece piece : this.pieces) {
+            blackhole.consume(this.player.filterLegalMoves(piece.calcPseudoLegalMoves(this.board)));
+        }
+    }
+
+    @Benchmark
+    public void executeMoves(final Blackhole blackhole) {
+        for (final Move move : this.moves) {
+            blackhole.consume(move.execute());
+        }
+    }
+
+    @Benchmark
+    public void makeMoves(final Blackhole blackhole) {
+        for (final Move move : this.moves) {
+            blackhole.consume(this.player.makeMove(move));
+        }
+    }
+}
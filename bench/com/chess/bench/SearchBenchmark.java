@@ -0,0 +1,61 @@
+package com.chess.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.ai.MiniMax;
+import com.chess.engine.player.ai.TranspositionTable;
+
+/**
+ * Measures fixed depth searches. The transposition table is emptied before every search so
+ * each one does the same work.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+    @Param({"START", "KIWIPETE", "MIDDLEGAME", "ENDGAME"})
+    private String position;
+
+    @Param({"4", "6"})
+    private int depth;
+
+    private Board board;
+    private TranspositionTable transpositionTable;
+    private MiniMax miniMax;
+
+    @Setup
+    public void setUp() {
+        this.board = BenchmarkPositions.createBoard(this.position);
+        this.transpositionTable = new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearSearch() {
+        this.transpositionTable.clear();
+        this.miniMax = new MiniMax(this.depth, this.transpositionTable);
+    }
+
+    @Benchmark
+    public Move execute() {
+        return this.miniMax.execute(this.board);
+    }
+}
@@ -1,9 +1,40 @@
 package com.chess;
 
+import java.io.IOException;
+
 import com.chess.gui.Table;
+import com.chess.uci.UciEngine;
 
 public class ChessEngine {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--uci")) {
+            UciEngine.main(args);
+            return;
+        }
+        int hashSizeMB = -1;
+        int searchThreads = -1;
+        int evalCacheSizeMB = -1;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--hash") && i + 1 < args.length) {
+                hashSizeMB = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--threads") && i + 1 < args.length) {
+                searchThreads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--evalcache") && i + 1 < args.length) {
+                evalCacheSizeMB = Integer.parseInt(args[++i]);
+            } else {
+                throw new RuntimeException("Unknown argument " + args[i] +
+                        ", usage: ChessEngine [--uci | [--hash <MB>] [--evalcache <MB>] [--threads <N>]]");
+            }
+        }
+        if (hashSizeMB != -1) {
+            Table.get().setHashSizeMB(hashSizeMB);
+        }
+        if (evalCacheSizeMB != -1) {
+            Table.get().setEvalCacheSizeMB(evalCacheSizeMB);
+        }
+        if (searchThreads != -1) {
+            Table.get().setSearchThreads(searchThreads);
+        }
         Table.get().show();
     }
 }
@@ -48,6 +48,15 @@ public enum Alliance {
             return whitePlayer;
         }
 
+        /**
+         * Gets the alliance of the opposing player
+         * @return the black alliance
+         */
+        @Override
+        public Alliance getOpposite() {
+            return BLACK;
+        }
+
         /**
          * Given a position says whether the passed tile is used for pawn promotion for the white player
          * @param position the position of the tile we are checking
@@ -100,6 +109,15 @@ public enum Alliance {
             return blackPlayer;
         }
 
+        /**
+         * Gets the alliance of the opposing player
+         * @return the white alliance
+         */
+        @Override
+        public Alliance getOpposite() {
+            return WHITE;
+        }
+
         /**
          * Given a position says whether the passed tile is used for pawn promotion for the black player
          * @param position the position of the tile we are checking
@@ -116,6 +134,7 @@ public enum Alliance {
     public abstract boolean isWhite();
     public abstract boolean isBlack();
     public abstract Player choosePlayer(WhitePlayer whitePlayer, BlackPlayer blackPlayer);
+    public abstract Alliance getOpposite();
     public abstract boolean isPawnPromotionSquare(int position);
     
 }
@@ -0,0 +1,305 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Utility class for bitboard constants and methods. A bitboard is a long where bit i is set
+ * when tile coordinate i is part of the set, so a8 is bit 0 and h1 is bit 63.
+ */
+public final class BitboardUtils {
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_B = FILE_A << 1;
+    public static final long FILE_G = FILE_A << 6;
+    public static final long FILE_H = FILE_A << 7;
+
+    public static final long RANK_8 = 0xFFL;
+    public static final long RANK_7 = RANK_8 << 8;
+    public static final long RANK_2 = RANK_8 << 48;
+    public static final long RANK_1 = RANK_8 << 56;
+
+    public static final int NUM_PIECE_TYPES = 6;
+    public static final int NUM_PIECE_INDICES = 2 * NUM_PIECE_TYPES;
+
+    public static final long[] KNIGHT_ATTACKS = initLeaperAttacks(new int[][] {
+            { -2, -1 }, { -2, 1 }, { -1, -2 }, { -1, 2 }, { 1, -2 }, { 1, 2 }, { 2, -1 }, { 2, 1 } });
+    public static final long[] KING_ATTACKS = initLeaperAttacks(new int[][] {
+            { -1, -1 }, { -1, 0 }, { -1, 1 }, { 0, -1 }, { 0, 1 }, { 1, -1 }, { 1, 0 }, { 1, 1 } });
+    // indexed by alliance ordinal then tile coordinate
+    public static final long[][] PAWN_ATTACKS = {
+            initLeaperAttacks(new int[][] { { -1, -1 }, { -1, 1 } }),
+            initLeaperAttacks(new int[][] { { 1, -1 }, { 1, 1 } }) };
+
+    // indexed by from * NUM_TILES + to, empty when the two tiles do not share a rank, file or diagonal
+    private static final long[] BETWEEN = new long[BoardUtils.NUM_TILES * BoardUtils.NUM_TILES];
+    private static final long[] LINE = new long[BoardUtils.NUM_TILES * BoardUtils.NUM_TILES];
+    static {
+        initLines();
+    }
+
+    // chosen once at startup, see SliderAttacksBenchmark.select
+    public static final SliderAttacks SLIDER_ATTACKS = SliderAttacksBenchmark.select();
+
+    /**
+     * Constructor to prevent instantiation of this utility class.
+     * @throws a RuntimeException if an attempt is made to instantiate.
+     */
+    private BitboardUtils() {
+        throw new RuntimeException("You cannot instantiate BitboardUtils!");
+    }
+
+    /**
+     * Builds the attack table of a piece that jumps by fixed row and column steps
+     * @param steps the row and column deltas the piece can jump by
+     * @return a table of the tiles attacked from each tile coordinate
+     */
+    private static long[] initLeaperAttacks(final int[][] steps) {
+        final long[] attacks = new long[BoardUtils.NUM_TILES];
+        for (int coord = 0; coord < BoardUtils.NUM_TILES; coord++) {
+            final int row = coord / BoardUtils.NUM_TILES_PER_ROW;
+            final int col = coord % BoardUtils.NUM_TILES_PER_ROW;
+            for (final int[] step : steps) {
+                final int destRow = row + step[0];
+                final int destCol = col + step[1];
+                if (isOnBoard(destRow, destCol)) {
+                    attacks[coord] |= tileBit(destRow * BoardUtils.NUM_TILES_PER_ROW + destCol);
+                }
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Fills the between and line tables by walking the eight directions out of every tile
+     */
+    private static void initLines() {
+        final int[][] directions = { { -1, -1 }, { -1, 0 }, { -1, 1 }, { 0, -1 }, { 0, 1 }, { 1, -1 }, { 1, 0 }, { 1, 1 } };
+        for (int coord = 0; coord < BoardUtils.NUM_TILES; coord++) {
+            for (final int[] direction : directions) {
+                final long line = walkRay(coord, 0L, direction[0], direction[1]) |
+                        walkRay(coord, 0L, -direction[0], -direction[1]) | tileBit(coord);
+                long between = 0L;
+                int row = coord / BoardUtils.NUM_TILES_PER_ROW + direction[0];
+                int col = coord % BoardUtils.NUM_TILES_PER_ROW + direction[1];
+                while (isOnBoard(row, col)) {
+                    final int destCoord = row * BoardUtils.NUM_TILES_PER_ROW + col;
+                    BETWEEN[coord * BoardUtils.NUM_TILES + destCoord] = between;
+                    LINE[coord * BoardUtils.NUM_TILES + destCoord] = line;
+                    between |= tileBit(destCoord);
+                    row += direction[0];
+                    col += direction[1];
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if a row and column pair lies on the chessboard
+     * @param row the row, 0 being the eighth rank
+     * @param col the column, 0 being the a file
+     * @return true if the pair lies on the board and false otherwise
+     */
+    static boolean isOnBoard(final int row, final int col) {
+        return row >= 0 && row < BoardUtils.NUM_TILES_PER_ROW && col >= 0 && col < BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    /**
+     * Gets the bitboard with only the passed tile set
+     * @param coord the tile coordinate
+     * @return the bitboard with only the passed tile set
+     */
+    public static long tileBit(final int coord) {
+        return 1L << coord;
+    }
+
+    /**
+     * Gets the index of a piece's bitboard in a board's bitboard array
+     * @param alliance the alliance of the piece
+     * @param pieceType the type of the piece
+     * @return the index of the piece's bitboard
+     */
+    public static int pieceIndex(final Alliance alliance, final PieceType pieceType) {
+        return alliance.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal();
+    }
+
+    /**
+     * Gets the tiles strictly between two tiles on the same rank, file or diagonal
+     * @param fromCoord the first tile coordinate
+     * @param toCoord the second tile coordinate
+     * @return the tiles between them or 0 if they are not aligned
+     */
+    public static long between(final int fromCoord, final int toCoord) {
+        return BETWEEN[fromCoord * BoardUtils.NUM_TILES + toCoord];
+    }
+
+    /**
+     * Gets the whole rank, file or diagonal running through two tiles
+     * @param fromCoord the first tile coordinate
+     * @param toCoord the second tile coordinate
+     * @return the tiles of the line, edge to edge, or 0 if the tiles are not aligned
+     */
+    public static long line(final int fromCoord, final int toCoord) {
+        return LINE[fromCoord * BoardUtils.NUM_TILES + toCoord];
+    }
+
+    /**
+     * Gets the tiles attacked by a pawn
+     * @param alliance the alliance of the pawn
+     * @param coord the tile coordinate of the pawn
+     * @return the tiles the pawn attacks
+     */
+    public static long pawnAttacks(final Alliance alliance, final int coord) {
+        return PAWN_ATTACKS[alliance.ordinal()][coord];
+    }
+
+    /**
+     * Gets the tiles attacked by a set of pawns, shifting all of them at once
+     * @param alliance the alliance of the pawns
+     * @param pawns the tiles of the pawns
+     * @return the tiles attacked by any of the pawns
+     */
+    public static long pawnAttackSet(final Alliance alliance, final long pawns) {
+        // white pawns attack towards a8, i.e. lower coordinates; pawns on an edge file only attack inwards
+        return alliance.isWhite()
+                ? ((pawns & ~FILE_A) >>> 9) | ((pawns & ~FILE_H) >>> 7)
+                : ((pawns & ~FILE_H) << 9) | ((pawns & ~FILE_A) << 7);
+    }
+
+    /**
+     * Gets the tiles attacked by a rook
+     * @param coord the tile coordinate of the rook
+     * @param occupancy all occupied tiles on the board
+     * @return the tiles the rook attacks, including the first blocker in each direction
+     */
+    public static long rookAttacks(final int coord, final long occupancy) {
+        return SLIDER_ATTACKS.rookAttacks(coord, occupancy);
+    }
+
+    /**
+     * Gets the tiles attacked by a bishop
+     * @param coord the tile coordinate of the bishop
+     * @param occupancy all occupied tiles on the board
+     * @return the tiles the bishop attacks, including the first blocker in each direction
+     */
+    public static long bishopAttacks(final int coord, final long occupancy) {
+        return SLIDER_ATTACKS.bishopAttacks(coord, occupancy);
+    }
+
+    /**
+     * Gets the tiles attacked by a queen
+     * @param coord the tile coordinate of the queen
+     * @param occupancy all occupied tiles on the board
+     * @return the tiles the queen attacks, including the first blocker in each direction
+     */
+    public static long queenAttacks(final int coord, final long occupancy) {
+        return SLIDER_ATTACKS.rookAttacks(coord, occupancy) | SLIDER_ATTACKS.bishopAttacks(coord, occupancy);
+    }
+
+    /**
+     * Gets the tiles attacked by a knight, bishop, rook, queen or king
+     * @param pieceType the type of the piece, which must not be a pawn
+     * @param coord the tile coordinate of the piece
+     * @param occupancy all occupied tiles on the board
+     * @return the tiles the piece attacks
+     */
+    public static long pieceAttacks(final PieceType pieceType, final int coord, final long occupancy) {
+        switch (pieceType) {
+            case KNIGHT:
+                return KNIGHT_ATTACKS[coord];
+            case BISHOP:
+                return bishopAttacks(coord, occupancy);
+            case ROOK:
+                return rookAttacks(coord, occupancy);
+            case QUEEN:
+                return queenAttacks(coord, occupancy);
+            case KING:
+                return KING_ATTACKS[coord];
+            default:
+                throw new RuntimeException("Pawn attacks depend on alliance, use pawnAttacks");
+        }
+    }
+
+    /**
+     * Gets the tiles attacked by a rook by walking each direction one tile at a time. This is
+     * the slow reference the slider attack tables are built from and tested against.
+     * @param coord the tile coordinate of the rook
+     * @param occupancy all occupied tiles on the board
+     * @return the tiles the rook attacks, including the first blocker in each direction
+     */
+    static long walkRookAttacks(final int coord, final long occupancy) {
+        return walkRay(coord, occupancy, -1, 0) | walkRay(coord, occupancy, 1, 0) |
+                walkRay(coord, occupancy, 0, -1) | walkRay(coord, occupancy, 0, 1);
+    }
+
+    /**
+     * Gets the tiles attacked by a bishop by walking each direction one tile at a time. This is
+     * the slow reference the slider attack tables are built from and tested against.
+     * @param coord the tile coordinate of the bishop
+     * @param occupancy all occupied tiles on the board
+     * @return the tiles the bishop attacks, including the first blocker in each direction
+     */
+    static long walkBishopAttacks(final int coord, final long occupancy) {
+        return walkRay(coord, occupancy, -1, -1) | walkRay(coord, occupancy, -1, 1) |
+                walkRay(coord, occupancy, 1, -1) | walkRay(coord, occupancy, 1, 1);
+    }
+
+    /**
+     * Walks one direction from a tile until a piece or the edge of the board is reached
+     * @param coord the starting tile coordinate
+     * @param occupancy all occupied tiles on the board
+     * @param rowStep the row delta of each step
+     * @param colStep the column delta of each step
+     * @return the tiles reached, including the first blocker
+     */
+    private static long walkRay(final int coord, final long occupancy, final int rowStep, final int colStep) {
+        long attacks = 0L;
+        int row = coord / BoardUtils.NUM_TILES_PER_ROW + rowStep;
+        int col = coord % BoardUtils.NUM_TILES_PER_ROW + colStep;
+        while (isOnBoard(row, col)) {
+            final long bit = tileBit(row * BoardUtils.NUM_TILES_PER_ROW + col);
+            attacks |= bit;
+            if ((occupancy & bit) != 0L) {
+                break;
+            }
+            row += rowStep;
+            col += colStep;
+        }
+        return attacks;
+    }
+
+    /**
+     * Gets the tiles whose occupancy can change a rook's attacks. The last tile of each ray
+     * never blocks anything behind it, so it is left out.
+     * @param coord the tile coordinate of the rook
+     * @return the relevant occupancy mask of the rook
+     */
+    static long rookMask(final int coord) {
+        return walkRookAttacks(coord, 0L) & ~rookEdges(coord);
+    }
+
+    /**
+     * Gets the tiles whose occupancy can change a bishop's attacks. The outer ring of the board
+     * never blocks anything, so it is left out.
+     * @param coord the tile coordinate of the bishop
+     * @return the relevant occupancy mask of the bishop
+     */
+    static long bishopMask(final int coord) {
+        return walkBishopAttacks(coord, 0L) & ~(RANK_1 | RANK_8 | FILE_A | FILE_H);
+    }
+
+    /**
+     * Gets the board edges a rook's rays end on, not counting the edges the rook stands on
+     * @param coord the tile coordinate of the rook
+     * @return the edge tiles at the end of the rook's rays
+     */
+    private static long rookEdges(final int coord) {
+        final long rookBit = tileBit(coord);
+        long edges = 0L;
+        if ((RANK_1 & rookBit) == 0L) edges |= RANK_1;
+        if ((RANK_8 & rookBit) == 0L) edges |= RANK_8;
+        if ((FILE_A & rookBit) == 0L) edges |= FILE_A;
+        if ((FILE_H & rookBit) == 0L) edges |= FILE_H;
+        return edges;
+    }
+}
@@ -1,11 +1,10 @@
 package com.chess.engine.board;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.pieces.Bishop;
@@ -13,6 +12,7 @@ import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Knight;
 import com.chess.engine.pieces.Pawn;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.chess.engine.pieces.Queen;
 import com.chess.engine.pieces.Rook;
 import com.chess.engine.player.BlackPlayer;
@@ -20,17 +20,23 @@ import com.chess.engine.player.Player;
 import com.chess.engine.player.WhitePlayer;
 
 /**
- * This class represents a chess board
+ * This class represents a chess board. The position is stored as one bitboard per piece type
+ * and alliance plus occupancy masks, with a piece array kept alongside for the tile views.
  */
-public class Board {
+public class Board implements Position {
 
-    private final List<Tile> gameBoard;
+    private final Piece[] gameBoard;
+    private final long[] pieceBitboards;
+    private final long whiteOccupancy;
+    private final long blackOccupancy;
     private final Collection<Piece> whitePieces;
     private final Collection<Piece> blackPieces;
-    private final WhitePlayer whitePlayer;
-    private final BlackPlayer blackPlayer;
-    private final Player currPlayer;
+    private final Alliance currPlayerAlliance;
     private final Pawn enPassantPawn;
+    private final int castlingRights;
+    private final long zobristKey;
+    // built on first use, see getPlayers
+    private volatile Players players;
 
 
 
@@ -39,23 +45,58 @@ public class Board {
      * @param builder
      */
     private Board(final Builder builder) {
-        this.gameBoard = createGameBoard(builder);
+        this.gameBoard = builder.boardConfig.clone();
+        this.pieceBitboards = createPieceBitboards(this.gameBoard);
+        this.whiteOccupancy = calcOccupancy(this.pieceBitboards, Alliance.WHITE);
+        this.blackOccupancy = calcOccupancy(this.pieceBitboards, Alliance.BLACK);
         this.whitePieces = calcActivePieces(this.gameBoard, Alliance.WHITE);
         this.blackPieces = calcActivePieces(this.gameBoard, Alliance.BLACK);
 
         this.enPassantPawn = builder.enPassantPawn;
+        this.currPlayerAlliance = builder.currPlayerAlliance;
+        this.castlingRights = calcCastlingRights(this.gameBoard);
+        // the players and their moves are lazy, so check the kings here
+        if (getPieces(Alliance.WHITE, PieceType.KING) == 0L || getPieces(Alliance.BLACK, PieceType.KING) == 0L) {
+            throw new RuntimeException("King must be present on board!");
+        }
+        // moves pass in the key they updated, anything else is hashed once here
+        this.zobristKey = builder.zobristKey != null ? builder.zobristKey : Zobrist.calcKey(this);
+    }
 
-        Collection<Move> whiteMoves = calcMoves(this.whitePieces);
-        Collection<Move> blackMoves = calcMoves(this.blackPieces);
-
-        this.whitePlayer = new WhitePlayer(this, whiteMoves, blackMoves);
-        this.blackPlayer = new BlackPlayer(this, whiteMoves, blackMoves);
+    /**
+     * Holds both players so they can be published together
+     */
+    private static final class Players {
+        private final WhitePlayer whitePlayer;
+        private final BlackPlayer blackPlayer;
 
-        // update all moves to get castle moves 
-        whiteMoves = this.whitePlayer.getLegalMoves();
-        blackMoves = this.blackPlayer.getLegalMoves();
+        /**
+         * Constructor that generates the moves of both sides and builds their players
+         * @param board the board the players play on
+         */
+        private Players(final Board board) {
+            this.whitePlayer = new WhitePlayer(board, board.calcMoves(board.whitePieces));
+            this.blackPlayer = new BlackPlayer(board, board.calcMoves(board.blackPieces));
+        }
+    }
 
-        this.currPlayer = builder.currPlayerAlliance.choosePlayer(this.whitePlayer, this.blackPlayer);
+    /**
+     * Gets the players of this board, generating their moves the first time they are asked for.
+     * Boards that are only read, evaluated or converted never pay for move generation.
+     * @return the players of this board
+     */
+    private Players getPlayers() {
+        Players result = this.players;
+        if (result == null) {
+            synchronized (this) {
+                result = this.players;
+                if (result == null) {
+                    result = new Players(this);
+                    this.players = result;
+                }
+            }
+        }
+        return result;
     }
     
     /**
@@ -74,6 +115,15 @@ public class Board {
         return this.blackPieces;
     }
 
+    /**
+     * Gets the pieces of one alliance without building the players
+     * @param alliance the alliance whose pieces are returned
+     * @return all pieces of the alliance currently on the board
+     */
+    public Collection<Piece> getActivePieces(final Alliance alliance) {
+        return alliance.isWhite() ? this.whitePieces : this.blackPieces;
+    }
+
     /**
      * Gets all pieces currently on the board
      * @return all pieces currently on the board
@@ -90,7 +140,7 @@ public class Board {
      * @return the white player 
      */
     public Player getWhitePlayer() {
-        return this.whitePlayer;
+        return getPlayers().whitePlayer;
     }
 
     /**
@@ -98,7 +148,7 @@ public class Board {
      * @return the black player
      */
     public Player getBlackPlayer() {
-        return this.blackPlayer;
+        return getPlayers().blackPlayer;
     }
 
     /**
@@ -106,7 +156,8 @@ public class Board {
      * @return the current player
      */
     public Player getCurrPlayer() {
-        return this.currPlayer;
+        final Players players = getPlayers();
+        return this.currPlayerAlliance.choosePlayer(players.whitePlayer, players.blackPlayer);
     }
 
     /**
@@ -118,14 +169,14 @@ public class Board {
     }
 
     /**
-     * Finds all legal moves for a collection of pieces
-     * @param pieces the pieces we are finding legal moves for
-     * @return all legal moves for all the pieces
+     * Finds all pseudo-legal moves for a collection of pieces
+     * @param pieces the pieces we are finding moves for
+     * @return all pseudo-legal moves for all the pieces
      */
     public Collection<Move> calcMoves(final Collection<Piece> pieces) {
         final List<Move> legalMoves = new ArrayList<>();
         for (final Piece p : pieces) {
-            legalMoves.addAll(p.calcLegalMoves(this));
+            legalMoves.addAll(p.calcPseudoLegalMoves(this));
         }
         return legalMoves;
     }
@@ -136,19 +187,156 @@ public class Board {
      * @param alliance the type of pieces we are looking for
      * @return a list of all the active pieces that match the alliance
      */
-    private static Collection<Piece> calcActivePieces(final List<Tile> gameBoard, final Alliance alliance) {
-        final List<Piece> activePieces = new ArrayList<>();
-        for (final Tile tile : gameBoard) {
-            if (tile.isOccupied()) {
-                Piece piece = tile.getPiece();
-                if (piece.getAlliance() == alliance) {
-                    activePieces.add(piece);
-                }
+    private static Collection<Piece> calcActivePieces(final Piece[] gameBoard, final Alliance alliance) {
+        final List<Piece> activePieces = new ArrayList<>(16);
+        for (final Piece piece : gameBoard) {
+            if (piece != null && piece.getAlliance() == alliance) {
+                activePieces.add(piece);
             }
         }
         return Collections.unmodifiableList(activePieces);
     }
-    
+
+    /**
+     * Creates one bitboard for every piece type and alliance
+     * @param gameBoard the pieces on the board indexed by tile coordinate
+     * @return the bitboards indexed by BitboardUtils.pieceIndex
+     */
+    private static long[] createPieceBitboards(final Piece[] gameBoard) {
+        final long[] bitboards = new long[BitboardUtils.NUM_PIECE_INDICES];
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final Piece piece = gameBoard[i];
+            if (piece != null) {
+                bitboards[BitboardUtils.pieceIndex(piece.getAlliance(), piece.getPieceType())] |= BitboardUtils.tileBit(i);
+            }
+        }
+        return bitboards;
+    }
+
+    /**
+     * Combines the piece bitboards of one alliance into its occupancy mask
+     * @param pieceBitboards the bitboards of every piece type and alliance
+     * @param alliance the alliance whose pieces are combined
+     * @return the tiles occupied by the alliance
+     */
+    private static long calcOccupancy(final long[] pieceBitboards, final Alliance alliance) {
+        final int offset = BitboardUtils.pieceIndex(alliance, PieceType.PAWN);
+        long occupancy = 0L;
+        for (int i = 0; i < BitboardUtils.NUM_PIECE_TYPES; i++) {
+            occupancy |= pieceBitboards[offset + i];
+        }
+        return occupancy;
+    }
+
+    /**
+     * Finds the castles still allowed by the unmoved kings and rooks on the board
+     * @param gameBoard the pieces on the board indexed by tile coordinate
+     * @return the castling rights bits
+     */
+    private static int calcCastlingRights(final Piece[] gameBoard) {
+        int rights = 0;
+        if (isUnmoved(gameBoard[60], PieceType.KING, Alliance.WHITE)) {
+            if (isUnmoved(gameBoard[63], PieceType.ROOK, Alliance.WHITE)) rights |= WHITE_KING_SIDE_CASTLE;
+            if (isUnmoved(gameBoard[56], PieceType.ROOK, Alliance.WHITE)) rights |= WHITE_QUEEN_SIDE_CASTLE;
+        }
+        if (isUnmoved(gameBoard[4], PieceType.KING, Alliance.BLACK)) {
+            if (isUnmoved(gameBoard[7], PieceType.ROOK, Alliance.BLACK)) rights |= BLACK_KING_SIDE_CASTLE;
+            if (isUnmoved(gameBoard[0], PieceType.ROOK, Alliance.BLACK)) rights |= BLACK_QUEEN_SIDE_CASTLE;
+        }
+        return rights;
+    }
+
+    /**
+     * Checks that a tile holds a piece of the passed type and alliance that has not moved
+     * @param piece the piece on the tile or null
+     * @param pieceType the expected piece type
+     * @param alliance the expected alliance
+     * @return true if the piece matches and has not moved and false otherwise
+     */
+    private static boolean isUnmoved(final Piece piece, final PieceType pieceType, final Alliance alliance) {
+        return piece != null && piece.getPieceType() == pieceType && piece.getAlliance() == alliance && !piece.hasMoved();
+    }
+
+    /**
+     * Gets the bitboard of one piece type for one alliance
+     * @param alliance the alliance of the pieces
+     * @param pieceType the type of the pieces
+     * @return the tiles occupied by those pieces
+     */
+    @Override
+    public long getPieces(final Alliance alliance, final PieceType pieceType) {
+        return this.pieceBitboards[BitboardUtils.pieceIndex(alliance, pieceType)];
+    }
+
+    /**
+     * Gets the tiles occupied by one alliance
+     * @param alliance the alliance of the pieces
+     * @return the tiles occupied by the alliance
+     */
+    @Override
+    public long getOccupancy(final Alliance alliance) {
+        return alliance.isWhite() ? this.whiteOccupancy : this.blackOccupancy;
+    }
+
+    /**
+     * Gets all occupied tiles
+     * @return the tiles occupied by either alliance
+     */
+    @Override
+    public long getOccupancy() {
+        return this.whiteOccupancy | this.blackOccupancy;
+    }
+
+    /**
+     * Gets the alliance whose turn it is
+     * @return the alliance of the current player
+     */
+    @Override
+    public Alliance getCurrPlayerAlliance() {
+        return this.currPlayerAlliance;
+    }
+
+    /**
+     * Gets the castles that are still possible on this board
+     * @return the castling rights bits that are set
+     */
+    @Override
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    /**
+     * Gets the tile the en passant pawn jumped over
+     * @return the tile behind the en passant pawn or NO_EN_PASSANT
+     */
+    @Override
+    public int getEnPassantCoord() {
+        if (this.enPassantPawn == null) {
+            return NO_EN_PASSANT;
+        }
+        return this.enPassantPawn.getPosition() +
+                BoardUtils.NUM_TILES_PER_ROW * this.enPassantPawn.getAlliance().getOppositePawnDirection();
+    }
+
+    /**
+     * Says whether an alliance has castled
+     * @param alliance the alliance being checked
+     * @return true if the alliance's king has castled and false otherwise
+     */
+    @Override
+    public boolean hasCastled(final Alliance alliance) {
+        return ((King) this.gameBoard[getKingCoord(alliance)]).hasCastled();
+    }
+
+    /**
+     * Checks if the current player is in checkmate
+     * @return true if the current player is checkmated and false otherwise
+     */
+    @Override
+    public boolean isCheckmate() {
+        return getCurrPlayer().isInCheckmate();
+    }
+
     /**
      * Converts the gameboard to a string representation
      * @return the string representation of the gameboard
@@ -157,7 +345,7 @@ public class Board {
     public String toString() {
         final StringBuilder builder = new StringBuilder();
         for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
-            final String tileText = this.gameBoard.get(i).toString();
+            final String tileText = this.getTile(i).toString();
             builder.append(String.format("%3s", tileText));
             if ((i + 1) % BoardUtils.NUM_TILES_PER_ROW == 0) {
                 builder.append("\n");
@@ -166,17 +354,35 @@ public class Board {
         return builder.toString();
     }
         
+    @Override
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.zobristKey);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
         if (obj == null || !(obj instanceof Board)) return false;
         Board otherBoard = (Board) obj;
 
-        // Compare each tile on the board
-        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
-            if (!this.getTile(i).equals(otherBoard.getTile(i))) {
-                return false;
-            }
+        // Boards with different keys can never be equal
+        if (this.zobristKey != otherBoard.zobristKey) {
+            return false;
+        }
+
+        // Compare the bitboards first since they differ cheaply
+        if (!Arrays.equals(this.pieceBitboards, otherBoard.pieceBitboards)) {
+            return false;
+        }
+
+        // Compare each piece on the board
+        if (!Arrays.equals(this.gameBoard, otherBoard.gameBoard)) {
+            return false;
         }
 
         // Compare en passant pawn
@@ -187,27 +393,13 @@ public class Board {
         }
 
         // Compare current player
-        if (!this.currPlayer.getAlliance().equals(otherBoard.currPlayer.getAlliance())) {
+        if (this.currPlayerAlliance != otherBoard.currPlayerAlliance) {
             return false;
         }
         return true;
 }
 
             
-    /**
-     * Creates a chess board using the provided builder configuration.
-     * 
-     * @param builder the builder containing the board configuration
-     * @return a list of tiles representing the game board
-     */
-    private static List<Tile> createGameBoard(final Builder builder) {
-        final List<Tile> tiles = new ArrayList<>();
-        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
-            tiles.add(Tile.createTile(i, builder.boardConfig.get(i)));
-        }
-        return Collections.unmodifiableList(tiles);
-    }
-
     public static Board createStandardBoard() {
         final Builder builder = new Builder();
         // black layout
@@ -267,18 +459,38 @@ public class Board {
      */
     public Iterable<Move> getAllLegalMoves() {
         List<Move> allLegalMoves = new ArrayList<>();
-        allLegalMoves.addAll(this.whitePlayer.getLegalMoves());
-        allLegalMoves.addAll(this.blackPlayer.getLegalMoves());
+        allLegalMoves.addAll(getWhitePlayer().getLegalMoves());
+        allLegalMoves.addAll(getBlackPlayer().getLegalMoves());
         return Collections.unmodifiableList(allLegalMoves);
     }
 
+    /**
+     * Gets all moves on the board, including the ones that would leave a king attacked
+     * @return all pseudo-legal moves on the board
+     */
+    public Iterable<Move> getAllPseudoLegalMoves() {
+        List<Move> allMoves = new ArrayList<>();
+        allMoves.addAll(getWhitePlayer().getPseudoLegalMoves());
+        allMoves.addAll(getBlackPlayer().getPseudoLegalMoves());
+        return Collections.unmodifiableList(allMoves);
+    }
+
     /**
      * Gets the tile associated with the passed coordinate
      * @param coord the coordinate on the chess board
      * @return the tile associated with the passed coordinate
      */
     public Tile getTile(final int coord) {
-        return gameBoard.get(coord);
+        return Tile.createTile(coord, this.gameBoard[coord]);
+    }
+
+    /**
+     * Gets the piece on the tile associated with the passed coordinate
+     * @param coord the coordinate on the chess board
+     * @return the piece on the tile if it is occupied otherwise null
+     */
+    public Piece getPiece(final int coord) {
+        return this.gameBoard[coord];
     }
 
 
@@ -286,12 +498,13 @@ public class Board {
      * Builder class for constructing a Board instance.
      */
     public static class Builder {
-        Map<Integer, Piece> boardConfig;
+        final Piece[] boardConfig;
         Alliance currPlayerAlliance;
         Pawn enPassantPawn;
+        Long zobristKey;
         
         public Builder() {
-            this.boardConfig = new HashMap<>();
+            this.boardConfig = new Piece[BoardUtils.NUM_TILES];
         }
         
         /**
@@ -301,7 +514,7 @@ public class Board {
          * @return the updated Builder instance
          */
         public Builder setPiece(final Piece piece) {
-            this.boardConfig.put(piece.getPosition(), piece);
+            this.boardConfig[piece.getPosition()] = piece;
             return this;
         }
 
@@ -328,5 +541,16 @@ public class Board {
         public void setEnPassantPawn(Pawn enPassantPawn) {
             this.enPassantPawn = enPassantPawn;
         }
+
+        /**
+         * Sets the Zobrist key of the board being built, so it is not hashed from scratch.
+         * 
+         * @param zobristKey the key a move updated from the key of its board
+         * @return the updated Builder instance
+         */
+        public Builder setZobristKey(final long zobristKey) {
+            this.zobristKey = zobristKey;
+            return this;
+        }
     }
 }
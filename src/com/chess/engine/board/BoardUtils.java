@@ -1,5 +1,6 @@
 package com.chess.engine.board;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -30,6 +31,9 @@ public class BoardUtils {
     public static final int NUM_TILES = 64;
     public static final int NUM_TILES_PER_ROW = 8;
 
+    // ANDed into the castling rights for the tiles a move leaves and lands on
+    private static final int[] CASTLING_RIGHTS_MASKS = initCastlingRightsMasks();
+
     /**
      * Initializes a boolean array representing a specific column on the chessboard.
      * 
@@ -55,6 +59,35 @@ public class BoardUtils {
         return row;
     }
 
+    /**
+     * Builds the masks that clear castling rights when a king or rook tile is touched
+     * @return the castling rights mask of each tile coordinate
+     */
+    private static int[] initCastlingRightsMasks() {
+        final int[] masks = new int[NUM_TILES];
+        Arrays.fill(masks, Position.WHITE_KING_SIDE_CASTLE | Position.WHITE_QUEEN_SIDE_CASTLE |
+                Position.BLACK_KING_SIDE_CASTLE | Position.BLACK_QUEEN_SIDE_CASTLE);
+        masks[60] &= ~(Position.WHITE_KING_SIDE_CASTLE | Position.WHITE_QUEEN_SIDE_CASTLE);
+        masks[63] &= ~Position.WHITE_KING_SIDE_CASTLE;
+        masks[56] &= ~Position.WHITE_QUEEN_SIDE_CASTLE;
+        masks[4] &= ~(Position.BLACK_KING_SIDE_CASTLE | Position.BLACK_QUEEN_SIDE_CASTLE);
+        masks[7] &= ~Position.BLACK_KING_SIDE_CASTLE;
+        masks[0] &= ~Position.BLACK_QUEEN_SIDE_CASTLE;
+        return masks;
+    }
+
+    /**
+     * Gets the castling rights left after a move. Moving a king or rook off its starting tile,
+     * or capturing a rook on it, gives up the castles it was needed for.
+     * @param castlingRights the castling rights before the move
+     * @param startingCoord the tile the move leaves
+     * @param destCoord the tile the move lands on
+     * @return the castling rights after the move
+     */
+    public static int updateCastlingRights(final int castlingRights, final int startingCoord, final int destCoord) {
+        return castlingRights & CASTLING_RIGHTS_MASKS[startingCoord] & CASTLING_RIGHTS_MASKS[destCoord];
+    }
+
     /**
      * Constructor to prevent instantiation of this utility class.
      * @throws a RuntimeException if an attempt is made to instantiate.
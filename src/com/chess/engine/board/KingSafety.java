@@ -0,0 +1,120 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Move.PawnEnPassantAttackMove;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * This class decides whether pseudo-legal moves leave their own king attacked. The checkers and
+ * pinned pieces of one alliance are found once, after which each move is answered with a few
+ * bitboard tests instead of executing it on a new board.
+ */
+public final class KingSafety {
+
+    private final Board board;
+    private final Alliance alliance;
+    private final int kingCoord;
+    private final long checkers;
+    private final long checkMask;
+    private final long pinned;
+
+    /**
+     * Constructor that finds the checkers and pinned pieces of one alliance
+     * @param board the board the moves are played on
+     * @param alliance the alliance whose king is being kept safe
+     */
+    public KingSafety(final Board board, final Alliance alliance) {
+        this.board = board;
+        this.alliance = alliance;
+        this.kingCoord = board.getKingCoord(alliance);
+        this.checkers = board.calcAttackersOnTile(this.kingCoord, alliance.getOpposite(), board.getOccupancy());
+        this.checkMask = calcCheckMask();
+        this.pinned = calcPinned();
+    }
+
+    /**
+     * Gets the tiles a non-king move must land on to deal with the current check
+     * @return every tile when not in check, the checker and the tiles between it and the king
+     *         in single check and no tiles in double check
+     */
+    private long calcCheckMask() {
+        if (this.checkers == 0L) {
+            return -1L;
+        }
+        if (Long.bitCount(this.checkers) > 1) {
+            return 0L;
+        }
+        final int checkerCoord = Long.numberOfTrailingZeros(this.checkers);
+        return this.checkers | BitboardUtils.between(this.kingCoord, checkerCoord);
+    }
+
+    /**
+     * Finds the pieces that are the only blocker between their king and an enemy slider
+     * @return the tiles of the pinned pieces
+     */
+    private long calcPinned() {
+        final Alliance opponent = this.alliance.getOpposite();
+        final long queens = this.board.getPieces(opponent, PieceType.QUEEN);
+        long snipers = (BitboardUtils.rookAttacks(this.kingCoord, 0L) & (this.board.getPieces(opponent, PieceType.ROOK) | queens)) |
+                (BitboardUtils.bishopAttacks(this.kingCoord, 0L) & (this.board.getPieces(opponent, PieceType.BISHOP) | queens));
+        final long occupancy = this.board.getOccupancy();
+        long pinnedPieces = 0L;
+        while (snipers != 0L) {
+            final int sniperCoord = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            final long blockers = BitboardUtils.between(this.kingCoord, sniperCoord) & occupancy;
+            if (Long.bitCount(blockers) == 1) {
+                pinnedPieces |= blockers & this.board.getOccupancy(this.alliance);
+            }
+        }
+        return pinnedPieces;
+    }
+
+    /**
+     * Says whether the alliance's king is currently attacked
+     * @return true if the king is in check and false otherwise
+     */
+    public boolean isInCheck() {
+        return this.checkers != 0L;
+    }
+
+    /**
+     * Checks if a pseudo-legal move of this alliance keeps its king safe
+     * @param move the move being checked
+     * @return true if the king is not attacked after the move and false otherwise
+     */
+    public boolean isLegal(final Move move) {
+        final int startingCoord = move.getStartingCoord();
+        final long destBit = BitboardUtils.tileBit(move.getDestCoord());
+        if (startingCoord == this.kingCoord) {
+            // castle moves are only generated when the king passes no attacked tile
+            if (move.isCastlingMove()) {
+                return true;
+            }
+            // take the king off the board so sliders see through the tile it leaves
+            final long occupancy = this.board.getOccupancy() ^ BitboardUtils.tileBit(startingCoord);
+            return (this.board.calcAttackersOnTile(move.getDestCoord(), this.alliance.getOpposite(), occupancy) & ~destBit) == 0L;
+        }
+        if (move instanceof PawnEnPassantAttackMove) {
+            return isEnPassantLegal(move);
+        }
+        if ((this.checkMask & destBit) == 0L) {
+            return false;
+        }
+        return (this.pinned & BitboardUtils.tileBit(startingCoord)) == 0L ||
+                (BitboardUtils.line(this.kingCoord, startingCoord) & destBit) != 0L;
+    }
+
+    /**
+     * Checks an en passant capture by replaying its occupancy change, since it removes two pieces
+     * from a rank and can uncover an attack no pin covers
+     * @param move the en passant move
+     * @return true if the king is not attacked after the move and false otherwise
+     */
+    private boolean isEnPassantLegal(final Move move) {
+        final long capturedBit = BitboardUtils.tileBit(move.getCapturedPiece().getPosition());
+        final long occupancy = this.board.getOccupancy() ^ BitboardUtils.tileBit(move.getStartingCoord()) ^
+                BitboardUtils.tileBit(move.getDestCoord()) ^ capturedBit;
+        return (this.board.calcAttackersOnTile(this.kingCoord, this.alliance.getOpposite(), occupancy) & ~capturedBit) == 0L;
+    }
+}
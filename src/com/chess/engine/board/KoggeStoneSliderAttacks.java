@@ -0,0 +1,77 @@
+package com.chess.engine.board;
+
+/**
+ * Slider attacks computed with Kogge-Stone occluded fills. Each direction is flooded from the
+ * slider through empty tiles in three shift steps, so no tables are needed and the cost does not
+ * depend on the position.
+ */
+public final class KoggeStoneSliderAttacks implements SliderAttacks {
+
+    private static final long NOT_FILE_A = ~BitboardUtils.FILE_A;
+    private static final long NOT_FILE_H = ~BitboardUtils.FILE_H;
+    private static final long ALL_TILES = -1L;
+
+    @Override
+    public long rookAttacks(final int coord, final long occupancy) {
+        final long slider = BitboardUtils.tileBit(coord);
+        final long empty = ~occupancy;
+        // north is towards rank 8, which lowers the coordinate
+        return fillDown(slider, empty, 8, ALL_TILES) |
+                fillUp(slider, empty, 8, ALL_TILES) |
+                fillUp(slider, empty, 1, NOT_FILE_A) |
+                fillDown(slider, empty, 1, NOT_FILE_H);
+    }
+
+    @Override
+    public long bishopAttacks(final int coord, final long occupancy) {
+        final long slider = BitboardUtils.tileBit(coord);
+        final long empty = ~occupancy;
+        return fillDown(slider, empty, 7, NOT_FILE_A) |
+                fillDown(slider, empty, 9, NOT_FILE_H) |
+                fillUp(slider, empty, 9, NOT_FILE_A) |
+                fillUp(slider, empty, 7, NOT_FILE_H);
+    }
+
+    @Override
+    public String toString() {
+        return "Kogge-Stone";
+    }
+
+    /**
+     * Floods towards higher coordinates through empty tiles and shifts once more to take in
+     * the blockers
+     * @param slider the tile of the slider
+     * @param empty the unoccupied tiles
+     * @param shift the coordinate step of the direction
+     * @param wrapMask the tiles a step may land on without wrapping around the board
+     * @return the tiles attacked in this direction
+     */
+    private static long fillUp(long slider, long empty, final int shift, final long wrapMask) {
+        empty &= wrapMask;
+        slider |= empty & (slider << shift);
+        empty &= empty << shift;
+        slider |= empty & (slider << (2 * shift));
+        empty &= empty << (2 * shift);
+        slider |= empty & (slider << (4 * shift));
+        return (slider << shift) & wrapMask;
+    }
+
+    /**
+     * Floods towards lower coordinates through empty tiles and shifts once more to take in
+     * the blockers
+     * @param slider the tile of the slider
+     * @param empty the unoccupied tiles
+     * @param shift the coordinate step of the direction
+     * @param wrapMask the tiles a step may land on without wrapping around the board
+     * @return the tiles attacked in this direction
+     */
+    private static long fillDown(long slider, long empty, final int shift, final long wrapMask) {
+        empty &= wrapMask;
+        slider |= empty & (slider >>> shift);
+        empty &= empty >>> shift;
+        slider |= empty & (slider >>> (2 * shift));
+        empty &= empty >>> (2 * shift);
+        slider |= empty & (slider >>> (4 * shift));
+        return (slider >>> shift) & wrapMask;
+    }
+}
@@ -0,0 +1,122 @@
+package com.chess.engine.board;
+
+/**
+ * Slider attacks looked up in tables indexed by magic multiplication. The relevant occupancy of
+ * a tile is multiplied by a precomputed magic number whose top bits form a perfect hash of every
+ * distinct attack set.
+ */
+public final class MagicSliderAttacks implements SliderAttacks {
+
+    // found by a seeded random search for the a8 = 0 tile layout used by the board
+    private static final long[] ROOK_MAGICS = {
+            0x008008816090C000L, 0x0040004010002000L, 0x1200084200208010L, 0x0880100008000580L,
+            0x0100040800100300L, 0x4A00143810020001L, 0x0C00100221408408L, 0x0100008026114100L,
+            0x18028002A081C000L, 0x0040401000200040L, 0x8010801000802000L, 0x8200808010000800L,
+            0x0090800400800800L, 0x8000800200040080L, 0x0044000102088410L, 0x8030800100006080L,
+            0x2214208004400080L, 0x000021004001008AL, 0x8005120022418200L, 0x1008010100201000L,
+            0x8002020020081004L, 0x0000808004000200L, 0x4306040008011042L, 0x0000020000804104L,
+            0x0040800080204000L, 0x0030200080400080L, 0xC000200880100080L, 0x0083030900201000L,
+            0x0118041100080100L, 0x0000020080800400L, 0x0010010400024810L, 0x0051800080204100L,
+            0x0C00400221800080L, 0x4240401000402000L, 0x1144284202001180L, 0x4200100009002102L,
+            0x0426002006001008L, 0x0000800200800400L, 0x00C051508C000208L, 0x1482800060801100L,
+            0x248B400025808000L, 0x0110002000404009L, 0x0600200041010010L, 0x0050100008008080L,
+            0xA080080004008080L, 0x0C00020004008080L, 0x0050010002008080L, 0x06C0040282420019L,
+            0x000541012A108200L, 0x0520008020400180L, 0x0802004820108200L, 0x0410220012094200L,
+            0x00080101A80C3100L, 0x012DA04010444801L, 0x0101000200040100L, 0x0008040041208200L,
+            0x0040800104201643L, 0x0640018125041241L, 0x000242001022800AL, 0x0002882085001001L,
+            0x4081001048000205L, 0x8041000400080203L, 0x0082011800821044L, 0x1010008064004312L };
+
+    private static final long[] BISHOP_MAGICS = {
+            0x1010048084004200L, 0x0050250852828000L, 0x1008089411800021L, 0x0C24440080000111L,
+            0x0404042000001001L, 0x804A084404400040L, 0x010E020202410000L, 0x40050400849410A0L,
+            0x2001200901080080L, 0x0180080808008820L, 0x4044448404004010L, 0x8004841042000000L,
+            0x01010C03080402C4L, 0x0020108821080100L, 0x9000008811882048L, 0x0000108880B01000L,
+            0x1110910420021400L, 0x2950000922008401L, 0x2028901004001020L, 0x9004004802400990L,
+            0x000C002088A0000AL, 0x0401000201010168L, 0xA022000422010400L, 0x8000208044141410L,
+            0x8894840052101028L, 0x1001100058304500L, 0x0110300102140041L, 0x00C600600E008200L,
+            0x3000848044002000L, 0x0801020000405000L, 0x8404010080980114L, 0x2101004206006400L,
+            0x0009344002111002L, 0x04041008802D0100L, 0x0600220800110800L, 0x08001008200C0400L,
+            0x0040004010410100L, 0x0010500940428042L, 0x0008080040010140L, 0x0000A10844A20200L,
+            0x200208A008020411L, 0x0004008884004808L, 0x8012101808080400L, 0x200C0A2011000801L,
+            0x2002213024004880L, 0x006040910A000040L, 0x2020410C02804300L, 0x9401020400420118L,
+            0x080090A410C00002L, 0x00C8484808080000L, 0x0048804200908160L, 0x0300000420880080L,
+            0x00800C0410440202L, 0x0000040488120C00L, 0x8422221421040001L, 0x8020081901003080L,
+            0x0000208400884008L, 0x8000902088280820L, 0x1400080200940408L, 0xC400080980208820L,
+            0x9400140006B04400L, 0x0D00404130020482L, 0x0190229202420C00L, 0x5042140904040082L };
+
+    private final MagicTable rookTable;
+    private final MagicTable bishopTable;
+
+    public MagicSliderAttacks() {
+        this.rookTable = new MagicTable(ROOK_MAGICS, true);
+        this.bishopTable = new MagicTable(BISHOP_MAGICS, false);
+    }
+
+    @Override
+    public long rookAttacks(final int coord, final long occupancy) {
+        return this.rookTable.attacks(coord, occupancy);
+    }
+
+    @Override
+    public long bishopAttacks(final int coord, final long occupancy) {
+        return this.bishopTable.attacks(coord, occupancy);
+    }
+
+    @Override
+    public String toString() {
+        return "Magic";
+    }
+
+    /**
+     * The attack table of one slider type. All tiles share one flat array and each tile owns
+     * a slice of it starting at its offset.
+     */
+    private static final class MagicTable {
+        private final long[] masks = new long[BoardUtils.NUM_TILES];
+        private final long[] magics;
+        private final int[] shifts = new int[BoardUtils.NUM_TILES];
+        private final int[] offsets = new int[BoardUtils.NUM_TILES];
+        private final long[] attacks;
+
+        /**
+         * Builds the table by enumerating every subset of each tile's relevant occupancy
+         * @param magics the magic number of every tile
+         * @param isRook true to build the rook table and false for the bishop table
+         */
+        private MagicTable(final long[] magics, final boolean isRook) {
+            this.magics = magics;
+            int size = 0;
+            for (int coord = 0; coord < BoardUtils.NUM_TILES; coord++) {
+                this.masks[coord] = isRook ? BitboardUtils.rookMask(coord) : BitboardUtils.bishopMask(coord);
+                this.shifts[coord] = 64 - Long.bitCount(this.masks[coord]);
+                this.offsets[coord] = size;
+                size += 1 << Long.bitCount(this.masks[coord]);
+            }
+            this.attacks = new long[size];
+            for (int coord = 0; coord < BoardUtils.NUM_TILES; coord++) {
+                final long mask = this.masks[coord];
+                long subset = 0L;
+                do {
+                    this.attacks[index(coord, subset)] = isRook ?
+                            BitboardUtils.walkRookAttacks(coord, subset) :
+                            BitboardUtils.walkBishopAttacks(coord, subset);
+                    subset = (subset - mask) & mask;
+                } while (subset != 0L);
+            }
+        }
+
+        /**
+         * Gets the slot in the flat table holding the attacks for an occupancy
+         * @param coord the tile coordinate of the slider
+         * @param occupancy all occupied tiles on the board
+         * @return the index into the attack table
+         */
+        private int index(final int coord, final long occupancy) {
+            return this.offsets[coord] + (int) (((occupancy & this.masks[coord]) * this.magics[coord]) >>> this.shifts[coord]);
+        }
+
+        private long attacks(final int coord, final long occupancy) {
+            return this.attacks[index(coord, occupancy)];
+        }
+    }
+}
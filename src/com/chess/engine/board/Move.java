@@ -2,6 +2,7 @@ package com.chess.engine.board;
 
 import com.chess.engine.pieces.Pawn;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.chess.engine.pieces.Rook;
 
 /**
@@ -145,13 +146,13 @@ public abstract class Move {
     public Board execute() {
         final Board.Builder builder = new Board.Builder();
         // set curr player's pieces except for moved piece
-        for (final Piece piece : this.board.getCurrPlayer().getActivePieces()) {
+        for (final Piece piece : this.board.getActivePieces(this.board.getCurrPlayerAlliance())) {
             if (!piece.equals(this.movedPiece)) {
                 builder.setPiece(piece);
             }
         }
         // set opponents pieces
-        for (final Piece piece : this.board.getCurrPlayer().getOpponent().getActivePieces()) {
+        for (final Piece piece : this.board.getActivePieces(this.board.getCurrPlayerAlliance().getOpposite())) {
             if (!piece.equals(this.movedPiece)) {
                 builder.setPiece(piece);
             }
@@ -159,10 +160,32 @@ public abstract class Move {
         // set movedPiece
         builder.setPiece(this.movedPiece.movePiece(this));
         // switch active player
-        builder.setCurrPlayerAlliance(this.board.getCurrPlayer().getOpponent().getAlliance());
+        builder.setCurrPlayerAlliance(this.board.getCurrPlayerAlliance().getOpposite());
+        builder.setZobristKey(calcZobristKey());
         return builder.build();
     }
 
+    /**
+     * Updates the Zobrist key of the board for this move instead of hashing the new board from
+     * scratch. Subclasses that move or create more pieces add their own keys on top.
+     * @return the Zobrist key of the board after the move
+     */
+    protected long calcZobristKey() {
+        final int startingCoord = getStartingCoord();
+        final int castlingRights = this.board.getCastlingRights();
+        long key = this.board.getZobristKey() ^ Zobrist.BLACK_TO_MOVE ^
+                Zobrist.pieceKey(this.movedPiece, startingCoord) ^
+                Zobrist.pieceKey(this.movedPiece, this.destCoord) ^
+                Zobrist.castlingKey(castlingRights) ^
+                Zobrist.castlingKey(BoardUtils.updateCastlingRights(castlingRights, startingCoord, this.destCoord)) ^
+                Zobrist.enPassantKey(this.board.getEnPassantCoord());
+        final Piece capturedPiece = getCapturedPiece();
+        if (capturedPiece != null) {
+            key ^= Zobrist.pieceKey(capturedPiece, capturedPiece.getPosition());
+        }
+        return key;
+    }
+
     /**
      * This class represents an invalid move on a chessboard
      */
@@ -294,13 +317,13 @@ public abstract class Move {
         public Board execute() {
             final Board.Builder builder = new Board.Builder();
             // set curr player's pieces except for moved piece
-            for (final Piece piece : this.board.getCurrPlayer().getActivePieces()) {
+            for (final Piece piece : this.board.getActivePieces(this.board.getCurrPlayerAlliance())) {
                 if (!piece.equals(this.movedPiece)) {
                     builder.setPiece(piece);
                 }
             }
             // set opponents pieces
-            for (final Piece piece : this.board.getCurrPlayer().getOpponent().getActivePieces()) {
+            for (final Piece piece : this.board.getActivePieces(this.board.getCurrPlayerAlliance().getOpposite())) {
                 if (!piece.equals(this.capturedPiece)) {
                     builder.setPiece(piece);
                 }
@@ -308,7 +331,8 @@ public abstract class Move {
             // set movedPiece
             builder.setPiece(this.movedPiece.movePiece(this));
             // switch active player
-            builder.setCurrPlayerAlliance(this.board.getCurrPlayer().getOpponent().getAlliance());
+            builder.setCurrPlayerAlliance(this.board.getCurrPlayerAlliance().getOpposite());
+            builder.setZobristKey(calcZobristKey());
             return builder.build();
         }
     }
@@ -381,18 +405,20 @@ public abstract class Move {
             public Board execute() {
                 final Board pawnMovedBoard = this.decoratedMove.execute();
                 final Board.Builder builder = new Board.Builder();
-                for (final Piece piece : pawnMovedBoard.getCurrPlayer().getActivePieces()) {
+                // the pieces are read straight from the board so the throwaway board never builds its players
+                for (final Piece piece : pawnMovedBoard.getAllPieces()) {
                     if (!this.promotedPawn.equals(piece)) {
                         builder.setPiece(piece);
                     }
                 }
 
-                for (final Piece piece : pawnMovedBoard.getCurrPlayer().getOpponent().getActivePieces()) {
-                    builder.setPiece(piece);
-                }
-
-                builder.setPiece(this.promotedPawn.getPromotionPiece().movePiece(this));
-                builder.setCurrPlayerAlliance(pawnMovedBoard.getCurrPlayer().getAlliance());
+                final Piece promotionPiece = this.promotedPawn.getPromotionPiece().movePiece(this);
+                builder.setPiece(promotionPiece);
+                builder.setCurrPlayerAlliance(pawnMovedBoard.getCurrPlayerAlliance());
+                // swap the pawn for the promotion piece in the key of the pawn moved board
+                builder.setZobristKey(pawnMovedBoard.getZobristKey() ^
+                        Zobrist.pieceKey(this.promotedPawn, this.destCoord) ^
+                        Zobrist.pieceKey(promotionPiece, this.destCoord));
                 return builder.build();
             }
 
@@ -448,13 +474,13 @@ public abstract class Move {
         public Board execute() {
             final Board.Builder builder = new Board.Builder();
             // set curr player's pieces except for moved piece
-            for (final Piece piece : this.board.getCurrPlayer().getActivePieces()) {
+            for (final Piece piece : this.board.getActivePieces(this.board.getCurrPlayerAlliance())) {
                 if (!piece.equals(this.movedPiece)) {
                     builder.setPiece(piece);
                 }
             }
             // set opponents pieces
-            for (final Piece piece : this.board.getCurrPlayer().getOpponent().getActivePieces()) {
+            for (final Piece piece : this.board.getActivePieces(this.board.getCurrPlayerAlliance().getOpposite())) {
                 if (!piece.equals(this.movedPiece)) {
                     builder.setPiece(piece);
                 }
@@ -463,9 +489,19 @@ public abstract class Move {
             Pawn movedPawn = (Pawn) this.movedPiece.movePiece(this);
             builder.setPiece(movedPawn);
             builder.setEnPassantPawn(movedPawn);
-            builder.setCurrPlayerAlliance(board.getCurrPlayer().getOpponent().getAlliance());
+            builder.setCurrPlayerAlliance(this.board.getCurrPlayerAlliance().getOpposite());
+            builder.setZobristKey(calcZobristKey());
             return builder.build();
         }
+
+        /**
+         * Adds the en passant file the jump opens to the key of the move
+         * @return the Zobrist key of the board after the pawn jump
+         */
+        @Override
+        protected long calcZobristKey() {
+            return super.calcZobristKey() ^ Zobrist.enPassantKey((getStartingCoord() + this.destCoord) / 2);
+        }
     }
 
     /**
@@ -530,13 +566,13 @@ public abstract class Move {
         public Board execute() {
             final Board.Builder builder = new Board.Builder();
             // set curr player's pieces except for moved piece
-            for (final Piece piece : this.board.getCurrPlayer().getActivePieces()) {
+            for (final Piece piece : this.board.getActivePieces(this.board.getCurrPlayerAlliance())) {
                 if (!piece.equals(this.movedPiece)) {
                     builder.setPiece(piece);
                 }
             }
             // set opponents pieces
-            for (final Piece piece : this.board.getCurrPlayer().getOpponent().getActivePieces()) {
+            for (final Piece piece : this.board.getActivePieces(this.board.getCurrPlayerAlliance().getOpposite())) {
                 if (!piece.equals(this.capturedPiece)) {
                     builder.setPiece(piece);
                 }
@@ -544,7 +580,8 @@ public abstract class Move {
             // set movedPiece
             builder.setPiece(this.movedPiece.movePiece(this));
             // switch active player
-            builder.setCurrPlayerAlliance(this.board.getCurrPlayer().getOpponent().getAlliance());
+            builder.setCurrPlayerAlliance(this.board.getCurrPlayerAlliance().getOpposite());
+            builder.setZobristKey(calcZobristKey());
             return builder.build();
         }
     }
@@ -597,13 +634,13 @@ public abstract class Move {
         public Board execute() {
             final Board.Builder builder = new Board.Builder();
             // set curr player's pieces except for moved piece
-            for (final Piece piece : this.board.getCurrPlayer().getActivePieces()) {
+            for (final Piece piece : this.board.getActivePieces(this.board.getCurrPlayerAlliance())) {
                 if (!piece.equals(this.movedPiece) && !piece.equals(this.castleRook)) {
                     builder.setPiece(piece);
                 }
             }
             // set opponents pieces
-            for (final Piece piece : this.board.getCurrPlayer().getOpponent().getActivePieces()) {
+            for (final Piece piece : this.board.getActivePieces(this.board.getCurrPlayerAlliance().getOpposite())) {
                 if (!piece.equals(this.movedPiece)) {
                     builder.setPiece(piece);
                 }
@@ -611,11 +648,23 @@ public abstract class Move {
             // set king and rook
             builder.setPiece(this.movedPiece.movePiece(this));
             builder.setPiece(
-                    new Rook(this.castleRook.getAlliance(), this.castleRookDestCoord));
+                    new Rook(this.castleRook.getAlliance(), this.castleRookDestCoord, true));
             // switch active player
-            builder.setCurrPlayerAlliance(this.board.getCurrPlayer().getOpponent().getAlliance());
+            builder.setCurrPlayerAlliance(this.board.getCurrPlayerAlliance().getOpposite());
+            builder.setZobristKey(calcZobristKey());
             return builder.build();
         }
+
+        /**
+         * Adds the rook's move to the key of the king's move
+         * @return the Zobrist key of the board after the castle
+         */
+        @Override
+        protected long calcZobristKey() {
+            return super.calcZobristKey() ^
+                    Zobrist.pieceKey(this.castleRook, this.castleRookStartCoord) ^
+                    Zobrist.pieceKey(this.castleRook, this.castleRookDestCoord);
+        }
         
         /**
          * Makes the hashcode for the castle move
@@ -729,13 +778,34 @@ public abstract class Move {
         }
 
         public static Move createMove(final Board board, final int currCoord, final int destCoord) {
-            for (final Move move : board.getAllLegalMoves()) {
+            // search the pseudo-legal moves so makeMove can report moves that leave the king in check
+            for (final Move move : board.getAllPseudoLegalMoves()) {
                 if (move.getStartingCoord() == currCoord && move.getDestCoord() == destCoord) {
                     return move;
                 }
             }
             return NULL_MOVE;
         }
+
+        /**
+         * Materializes a packed search move as a move on the passed board
+         * @param board the board the move is played on
+         * @param packedMove the packed move, see PackedMove
+         * @return the matching legal move, or the null move if the board has none. Boards only
+         *         promote to queens, so other promotions have no matching move.
+         */
+        public static Move createMove(final Board board, final int packedMove) {
+            if (PackedMove.isPromotion(packedMove) && PackedMove.getPromotionType(packedMove) != PieceType.QUEEN) {
+                return NULL_MOVE;
+            }
+            for (final Move move : board.getCurrPlayer().getLegalMoves()) {
+                if (move.getStartingCoord() == PackedMove.getStartingCoord(packedMove) &&
+                    move.getDestCoord() == PackedMove.getDestCoord(packedMove)) {
+                    return move;
+                }
+            }
+            return NULL_MOVE;
+        }
     }
 }
 
@@ -0,0 +1,90 @@
+package com.chess.engine.board;
+
+/**
+ * A reusable list of packed moves backed by a plain int array. The search keeps one per ply so
+ * generating moves allocates nothing once the lists exist.
+ */
+public final class MoveList {
+
+    private final int[] moves = new int[SearchPosition.MAX_MOVES];
+    private int size;
+
+    /**
+     * Empties the list so it can be filled again
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Appends a packed move to the list
+     * @param move the packed move
+     */
+    public void add(final int move) {
+        this.moves[this.size++] = move;
+    }
+
+    /**
+     * Gets the packed move at an index
+     * @param index the index of the move
+     * @return the packed move
+     */
+    public int get(final int index) {
+        return this.moves[index];
+    }
+
+    /**
+     * Swaps two moves of the list
+     * @param i the index of the first move
+     * @param j the index of the second move
+     */
+    public void swap(final int i, final int j) {
+        final int move = this.moves[i];
+        this.moves[i] = this.moves[j];
+        this.moves[j] = move;
+    }
+
+    /**
+     * Sorts the moves from the highest score to the lowest. Insertion sort is used since the
+     * lists are short and often nearly sorted.
+     * @param scores the score of each move by index, which is sorted along with the moves
+     */
+    public void sortByScore(final int[] scores) {
+        for (int i = 1; i < this.size; i++) {
+            final int move = this.moves[i];
+            final int score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                this.moves[j + 1] = this.moves[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            this.moves[j + 1] = move;
+            scores[j + 1] = score;
+        }
+    }
+
+    /**
+     * Gets the number of moves in the list
+     * @return the number of moves
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Converts the list to coordinate notation
+     * @return the moves of the list separated by spaces
+     */
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < this.size; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(PackedMove.toString(this.moves[i]));
+        }
+        return builder.toString();
+    }
+}
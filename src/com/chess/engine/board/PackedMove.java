@@ -0,0 +1,143 @@
+package com.chess.engine.board;
+
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Utility class for moves packed into a single int, used by the search so that no Move objects
+ * are created per node. The low 6 bits hold the starting tile, the next 6 bits the destination
+ * tile and the 4 bits above them a flag saying what kind of move it is. Promotion flags carry the
+ * promotion piece in their low 2 bits.
+ */
+public final class PackedMove {
+
+    public static final int NO_MOVE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int KING_SIDE_CASTLE = 2;
+    public static final int QUEEN_SIDE_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8;
+    public static final int PROMOTION_CAPTURE = 12;
+
+    private static final int COORD_MASK = 0x3F;
+    private static final int DEST_SHIFT = 6;
+    private static final int FLAG_SHIFT = 12;
+    private static final int FLAG_MASK = 0xF;
+
+    // indexed by the low 2 bits of a promotion flag
+    private static final PieceType[] PROMOTION_TYPES = {
+            PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN };
+
+    /**
+     * Constructor to prevent instantiation of this utility class.
+     * @throws a RuntimeException if an attempt is made to instantiate.
+     */
+    private PackedMove() {
+        throw new RuntimeException("You cannot instantiate PackedMove!");
+    }
+
+    /**
+     * Packs a move into an int
+     * @param startingCoord the tile the piece moves from
+     * @param destCoord the tile the piece moves to
+     * @param flag the kind of move
+     * @return the packed move
+     */
+    public static int create(final int startingCoord, final int destCoord, final int flag) {
+        return startingCoord | (destCoord << DEST_SHIFT) | (flag << FLAG_SHIFT);
+    }
+
+    /**
+     * Packs a promotion into an int
+     * @param startingCoord the tile the pawn moves from
+     * @param destCoord the tile the pawn moves to
+     * @param promotionType the type of piece the pawn becomes
+     * @param isCapture whether the promotion captures a piece
+     * @return the packed move
+     */
+    public static int createPromotion(final int startingCoord, final int destCoord,
+                                      final PieceType promotionType, final boolean isCapture) {
+        final int flag = (isCapture ? PROMOTION_CAPTURE : PROMOTION) | (promotionType.ordinal() - PieceType.KNIGHT.ordinal());
+        return create(startingCoord, destCoord, flag);
+    }
+
+    /**
+     * Gets the tile a packed move starts from
+     * @param move the packed move
+     * @return the starting tile coordinate
+     */
+    public static int getStartingCoord(final int move) {
+        return move & COORD_MASK;
+    }
+
+    /**
+     * Gets the tile a packed move ends on
+     * @param move the packed move
+     * @return the destination tile coordinate
+     */
+    public static int getDestCoord(final int move) {
+        return (move >>> DEST_SHIFT) & COORD_MASK;
+    }
+
+    /**
+     * Gets the flag saying what kind of move a packed move is
+     * @param move the packed move
+     * @return the flag of the move
+     */
+    public static int getFlag(final int move) {
+        return (move >>> FLAG_SHIFT) & FLAG_MASK;
+    }
+
+    /**
+     * Says whether a packed move captures a piece, including en passant
+     * @param move the packed move
+     * @return true if the move captures and false otherwise
+     */
+    public static boolean isCapture(final int move) {
+        return (getFlag(move) & CAPTURE) != 0;
+    }
+
+    /**
+     * Says whether a packed move promotes a pawn
+     * @param move the packed move
+     * @return true if the move promotes and false otherwise
+     */
+    public static boolean isPromotion(final int move) {
+        return (getFlag(move) & PROMOTION) != 0;
+    }
+
+    /**
+     * Says whether a packed move is a castle
+     * @param move the packed move
+     * @return true if the move castles and false otherwise
+     */
+    public static boolean isCastle(final int move) {
+        final int flag = getFlag(move);
+        return flag == KING_SIDE_CASTLE || flag == QUEEN_SIDE_CASTLE;
+    }
+
+    /**
+     * Gets the type of piece a promotion creates
+     * @param move the packed move, which must be a promotion
+     * @return the promotion piece type
+     */
+    public static PieceType getPromotionType(final int move) {
+        return PROMOTION_TYPES[getFlag(move) & 3];
+    }
+
+    /**
+     * Converts a packed move to coordinate notation such as e2e4 or e7e8q
+     * @param move the packed move
+     * @return the coordinate notation of the move
+     */
+    public static String toString(final int move) {
+        if (move == NO_MOVE) {
+            return "0000";
+        }
+        final String notation = BoardUtils.getPosFromCoord(getStartingCoord(move)) +
+                BoardUtils.getPosFromCoord(getDestCoord(move));
+        return isPromotion(move) ? notation + getPromotionType(move).toString().toLowerCase() : notation;
+    }
+}
@@ -0,0 +1,294 @@
+package com.chess.engine.board;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import com.chess.pgn.FenUtils;
+
+/**
+ * Counts the leaf nodes of the legal move tree of a position to a fixed depth. The counts of
+ * well known positions are published, so comparing against them checks move generation, and the
+ * time it takes measures how fast moves are generated, made and taken back.
+ *
+ * The tree can be split between the threads of a ForkJoinPool, which lives for one count, and
+ * counts of subtrees can be remembered by Zobrist key and depth so transpositions are only
+ * counted once.
+ */
+public final class Perft {
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // subtrees with less depth left are counted serially by one task
+    private static final int MIN_SPLIT_DEPTH = 4;
+
+    private final int parallelism;
+    private final PerftHash hash;
+
+    /**
+     * Constructor for a serial perft without a hash table
+     */
+    public Perft() {
+        this(1, 0);
+    }
+
+    /**
+     * Constructor for a perft
+     * @param parallelism the number of threads counting, 1 counts on the calling thread
+     * @param hashSizeMB the memory of the hash table in megabytes, 0 for no hash table
+     */
+    public Perft(final int parallelism, final int hashSizeMB) {
+        if (parallelism < 1) {
+            throw new RuntimeException("Perft needs at least one thread!");
+        }
+        this.parallelism = parallelism;
+        this.hash = hashSizeMB > 0 ? new PerftHash(hashSizeMB) : null;
+    }
+
+    /**
+     * Counts the leaf nodes below a position
+     * @param board the position counted from
+     * @param depth the number of plies counted
+     * @return the number of legal move sequences of the given length
+     */
+    public long count(final Board board, final int depth) {
+        return count(new SearchPosition(board), depth);
+    }
+
+    /**
+     * Counts the leaf nodes below a position
+     * @param position the position counted from, which is left as it was found
+     * @param depth the number of plies counted
+     * @return the number of legal move sequences of the given length
+     */
+    public long count(final SearchPosition position, final int depth) {
+        if (this.parallelism == 1) {
+            return countSerially(position, depth);
+        }
+        final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            return pool.invoke(new PerftTask(position, PackedMove.NO_MOVE, depth));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Counts the leaf nodes below each legal move of a position, which narrows a wrong count
+     * down to the move generation of a single line
+     * @param board the position counted from
+     * @param depth the number of plies counted, including the root move
+     * @return the count of every legal root move by its coordinate notation, in generation order
+     */
+    public Map<String, Long> divide(final Board board, final int depth) {
+        if (depth < 1) {
+            throw new RuntimeException("Divide needs a depth of at least 1!");
+        }
+        final SearchPosition position = new SearchPosition(board);
+        final MoveList moves = position.generateMoves();
+        final List<PerftTask> tasks = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            tasks.add(new PerftTask(position, moves.get(i), depth - 1));
+        }
+        if (this.parallelism == 1) {
+            tasks.forEach(PerftTask::invoke);
+        } else {
+            final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+            try {
+                pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        final Map<String, Long> counts = new LinkedHashMap<>();
+        for (final PerftTask task : tasks) {
+            if (task.isLegal) {
+                counts.put(PackedMove.toString(task.move), task.getRawResult());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Counts the leaf nodes below a position on the calling thread
+     * @param position the position counted from, which is left as it was found
+     * @param depth the number of plies counted
+     * @return the number of legal move sequences of the given length
+     */
+    private long countSerially(final SearchPosition position, final int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        if (this.hash != null) {
+            final long nodes = this.hash.probe(position.getZobristKey(), depth);
+            if (nodes != PerftHash.NO_ENTRY) {
+                return nodes;
+            }
+        }
+        final MoveList moves = position.generateMoves();
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            if (position.doMove(moves.get(i))) {
+                nodes += depth == 1 ? 1 : countSerially(position, depth - 1);
+                position.undoMove();
+            }
+        }
+        if (this.hash != null) {
+            this.hash.store(position.getZobristKey(), depth, nodes);
+        }
+        return nodes;
+    }
+
+    /**
+     * This class counts a subtree on its own copy of the position, forking a task for every
+     * move while the subtree is deep enough to be worth splitting
+     */
+    private final class PerftTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final SearchPosition parentPosition;
+        private final int move;
+        private final int depth;
+        private boolean isLegal;
+
+        /**
+         * Constructor for a perft task
+         * @param parentPosition the position the move is made in, which does not change until
+         *        the task has finished
+         * @param move the packed move made before counting or PackedMove.NO_MOVE to count the
+         *        parent position itself
+         * @param depth the number of plies counted after the move
+         */
+        private PerftTask(final SearchPosition parentPosition, final int move, final int depth) {
+            this.parentPosition = parentPosition;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            final SearchPosition position = new SearchPosition(this.parentPosition);
+            if (this.move != PackedMove.NO_MOVE && !position.doMove(this.move)) {
+                return 0L;
+            }
+            this.isLegal = true;
+            if (this.depth < MIN_SPLIT_DEPTH || ForkJoinTask.getPool() == null) {
+                return countSerially(position, this.depth);
+            }
+            final MoveList moves = position.generateMoves();
+            final List<PerftTask> tasks = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                tasks.add(new PerftTask(position, moves.get(i), this.depth - 1));
+            }
+            long nodes = 0;
+            for (final PerftTask task : ForkJoinTask.invokeAll(tasks)) {
+                nodes += task.getRawResult();
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * A fixed-size table of subtree counts by Zobrist key and depth. Like the transposition
+     * table each entry is a data word and the key XORed with it, so threads share it without
+     * locks. The data word holds the depth in the lower 8 bits and the count above them.
+     */
+    private static final class PerftHash {
+        private static final long NO_ENTRY = -1L;
+        private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+        private static final int DEPTH_BITS = 8;
+        private static final long DEPTH_MASK = 0xFF;
+
+        private final long[] entries;
+        private final int indexMask;
+
+        /**
+         * Constructor for a perft hash table
+         * @param sizeMB the memory the table may use in megabytes
+         */
+        private PerftHash(final int sizeMB) {
+            final long maxEntries = (long) sizeMB * 1024 * 1024 / BYTES_PER_ENTRY;
+            final long numEntries = Long.highestOneBit(Math.min(maxEntries, Integer.MAX_VALUE / 2));
+            this.entries = new long[(int) numEntries * 2];
+            this.indexMask = (int) numEntries - 1;
+        }
+
+        /**
+         * Looks up the count of a subtree
+         * @param key the Zobrist key of the position
+         * @param depth the number of plies counted
+         * @return the stored count or NO_ENTRY
+         */
+        private long probe(final long key, final int depth) {
+            final int index = ((int) key & this.indexMask) * 2;
+            final long data = this.entries[index];
+            if (data == 0L || (this.entries[index + 1] ^ data) != key || (data & DEPTH_MASK) != depth) {
+                return NO_ENTRY;
+            }
+            return data >>> DEPTH_BITS;
+        }
+
+        /**
+         * Remembers the count of a subtree, replacing whatever was in its slot
+         * @param key the Zobrist key of the position
+         * @param depth the number of plies counted
+         * @param nodes the count of the subtree
+         */
+        private void store(final long key, final int depth, final long nodes) {
+            final int index = ((int) key & this.indexMask) * 2;
+            final long data = (nodes << DEPTH_BITS) | depth;
+            this.entries[index] = data;
+            this.entries[index + 1] = key ^ data;
+        }
+    }
+
+    /**
+     * Counts a position from the command line and prints the count and the nodes per second,
+     * e.g. Perft 5 --threads 4 --hash 64 --divide --fen "<fen>"
+     * @param args the depth followed by any of --fen, --threads, --hash and --divide
+     */
+    public static void main(final String[] args) {
+        if (args.length == 0) {
+            throw new RuntimeException("Usage: Perft <depth> [--fen <fen>] [--threads <N>] [--hash <MB>] [--divide]");
+        }
+        final int depth = Integer.parseInt(args[0]);
+        String fen = START_FEN;
+        int threads = 1;
+        int hashSizeMB = 0;
+        boolean divide = false;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--fen") && i + 1 < args.length) {
+                fen = args[++i];
+            } else if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--hash") && i + 1 < args.length) {
+                hashSizeMB = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--divide")) {
+                divide = true;
+            } else {
+                throw new RuntimeException("Unknown argument " + args[i]);
+            }
+        }
+
+        final Board board = FenUtils.createBoardFromFen(fen);
+        final Perft perft = new Perft(threads, hashSizeMB);
+        final long start = System.nanoTime();
+        long nodes = 0;
+        if (divide) {
+            for (final Map.Entry<String, Long> entry : perft.divide(board, depth).entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+                nodes += entry.getValue();
+            }
+        } else {
+            nodes = perft.count(board, depth);
+        }
+        final long nanos = Math.max(1, System.nanoTime() - start);
+        System.out.println("Nodes: " + nodes);
+        System.out.println("Time: " + nanos / 1_000_000 + " ms");
+        System.out.println("Nodes/second: " + (long) (nodes * 1e9 / nanos));
+    }
+}
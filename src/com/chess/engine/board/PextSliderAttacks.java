@@ -0,0 +1,124 @@
+package com.chess.engine.board;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Slider attacks looked up in tables indexed by parallel bit extraction. The relevant occupancy
+ * bits of a tile are packed into a dense index with Long.compress, which the JIT turns into a
+ * single PEXT instruction on hosts that support it. Long.compress only exists from Java 19, so
+ * on older runtimes the bits are packed in software and the benchmark will rank this last.
+ */
+public final class PextSliderAttacks implements SliderAttacks {
+
+    private static final MethodHandle COMPRESS = findLongMethod("compress");
+
+    private final PextTable rookTable;
+    private final PextTable bishopTable;
+
+    public PextSliderAttacks() {
+        this.rookTable = new PextTable(true);
+        this.bishopTable = new PextTable(false);
+    }
+
+    @Override
+    public long rookAttacks(final int coord, final long occupancy) {
+        return this.rookTable.attacks(coord, occupancy);
+    }
+
+    @Override
+    public long bishopAttacks(final int coord, final long occupancy) {
+        return this.bishopTable.attacks(coord, occupancy);
+    }
+
+    @Override
+    public String toString() {
+        return isIntrinsic() ? "PEXT" : "PEXT (software)";
+    }
+
+    /**
+     * Says whether bit extraction runs through Long.compress or the software fallback
+     * @return true if Long.compress is available on this runtime and false otherwise
+     */
+    public static boolean isIntrinsic() {
+        return COMPRESS != null;
+    }
+
+    /**
+     * Looks up a static (long, long) -> long method of java.lang.Long
+     * @param name the name of the method
+     * @return a handle to the method or null if this runtime does not have it
+     */
+    private static MethodHandle findLongMethod(final String name) {
+        try {
+            return MethodHandles.publicLookup().findStatic(Long.class, name,
+                    MethodType.methodType(long.class, long.class, long.class));
+        } catch (final ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Packs the bits of a value selected by a mask into the low bits of the result
+     * @param value the value to extract bits from
+     * @param mask the bits to extract
+     * @return the extracted bits packed from bit 0 upwards
+     */
+    static long compress(final long value, final long mask) {
+        if (COMPRESS != null) {
+            try {
+                return (long) COMPRESS.invokeExact(value, mask);
+            } catch (final Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+        long result = 0L;
+        long bit = 1L;
+        for (long remaining = mask; remaining != 0L; remaining &= remaining - 1) {
+            if ((value & remaining & -remaining) != 0L) {
+                result |= bit;
+            }
+            bit <<= 1;
+        }
+        return result;
+    }
+
+    /**
+     * The attack table of one slider type. All tiles share one flat array and each tile owns
+     * a slice of it starting at its offset.
+     */
+    private static final class PextTable {
+        private final long[] masks = new long[BoardUtils.NUM_TILES];
+        private final int[] offsets = new int[BoardUtils.NUM_TILES];
+        private final long[] attacks;
+
+        /**
+         * Builds the table by enumerating every subset of each tile's relevant occupancy
+         * @param isRook true to build the rook table and false for the bishop table
+         */
+        private PextTable(final boolean isRook) {
+            int size = 0;
+            for (int coord = 0; coord < BoardUtils.NUM_TILES; coord++) {
+                this.masks[coord] = isRook ? BitboardUtils.rookMask(coord) : BitboardUtils.bishopMask(coord);
+                this.offsets[coord] = size;
+                size += 1 << Long.bitCount(this.masks[coord]);
+            }
+            this.attacks = new long[size];
+            for (int coord = 0; coord < BoardUtils.NUM_TILES; coord++) {
+                final long mask = this.masks[coord];
+                long subset = 0L;
+                do {
+                    this.attacks[this.offsets[coord] + (int) compress(subset, mask)] = isRook ?
+                            BitboardUtils.walkRookAttacks(coord, subset) :
+                            BitboardUtils.walkBishopAttacks(coord, subset);
+                    subset = (subset - mask) & mask;
+                } while (subset != 0L);
+            }
+        }
+
+        private long attacks(final int coord, final long occupancy) {
+            return this.attacks[this.offsets[coord] + (int) compress(occupancy, this.masks[coord])];
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Utility class for the tapered piece-square evaluation. Every piece on every tile is worth its
+ * material value plus a bonus from one table for the middlegame and one for the endgame, since
+ * e.g. a king should hide while queens are on the board but walk to the center once they are
+ * gone. The game phase, counted from the knights, bishops, rooks and queens left, blends the two
+ * sums. Values are white minus black, so a position can keep both sums up to date by adding and
+ * subtracting the values of the pieces a move puts down and picks up.
+ */
+public final class PieceSquareTables {
+
+    // the phase of the starting position, which counts as pure middlegame
+    public static final int MAX_PHASE = 24;
+    // indexed by piece type: knights and bishops count 1, rooks 2 and queens 4
+    private static final int[] PHASE_WEIGHTS = { 0, 1, 1, 2, 4, 0 };
+
+    // tables are laid out as white sees the board, a8 first, the same as the tile coordinates
+    private static final int[] PAWN_MIDDLEGAME = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             10,  10,  20,  30,  30,  20,  10,  10,
+              5,   5,  10,  25,  25,  10,   5,   5,
+              0,   0,   0,  20,  20,   0,   0,   0,
+              5,  -5, -10,   0,   0, -10,  -5,   5,
+              5,  10,  10, -20, -20,  10,  10,   5,
+              0,   0,   0,   0,   0,   0,   0,   0 };
+    private static final int[] PAWN_ENDGAME = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             80,  80,  80,  80,  80,  80,  80,  80,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             30,  30,  30,  30,  30,  30,  30,  30,
+             15,  15,  15,  15,  15,  15,  15,  15,
+              5,   5,   5,   5,   5,   5,   5,   5,
+              0,   0,   0,   0,   0,   0,   0,   0,
+              0,   0,   0,   0,   0,   0,   0,   0 };
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20,   0,   0,   0,   0, -20, -40,
+            -30,   0,  10,  15,  15,  10,   0, -30,
+            -30,   5,  15,  20,  20,  15,   5, -30,
+            -30,   0,  15,  20,  20,  15,   0, -30,
+            -30,   5,  10,  15,  15,  10,   5, -30,
+            -40, -20,   0,   5,   5,   0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50 };
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,  10,  10,   5,   0, -10,
+            -10,   5,   5,  10,  10,   5,   5, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,  10,  10,  10,  10,  10,  10, -10,
+            -10,   5,   0,   0,   0,   0,   5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20 };
+    private static final int[] ROOK = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+              5,  10,  10,  10,  10,  10,  10,   5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+              0,   0,   0,   5,   5,   0,   0,   0 };
+    private static final int[] QUEEN = {
+            -20, -10, -10,  -5,  -5, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,   5,   5,   5,   0, -10,
+             -5,   0,   5,   5,   5,   5,   0,  -5,
+              0,   0,   5,   5,   5,   5,   0,  -5,
+            -10,   5,   5,   5,   5,   5,   0, -10,
+            -10,   0,   5,   0,   0,   0,   0, -10,
+            -20, -10, -10,  -5,  -5, -10, -10, -20 };
+    private static final int[] KING_MIDDLEGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+             20,  20,   0,   0,   0,   0,  20,  20,
+             20,  30,  10,   0,   0,  10,  30,  20 };
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10,   0,   0, -10, -20, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -30,   0,   0,   0,   0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50 };
+
+    // indexed by piece type
+    private static final int[][] MIDDLEGAME_TABLES = { PAWN_MIDDLEGAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_MIDDLEGAME };
+    private static final int[][] ENDGAME_TABLES = { PAWN_ENDGAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_ENDGAME };
+
+    // material plus bonus, negated for black, indexed by piece index and then by tile
+    private static final int[][] MIDDLEGAME_VALUES = initValues(MIDDLEGAME_TABLES);
+    private static final int[][] ENDGAME_VALUES = initValues(ENDGAME_TABLES);
+
+    /**
+     * Constructor to prevent instantiation of this utility class.
+     * @throws a RuntimeException if an attempt is made to instantiate.
+     */
+    private PieceSquareTables() {
+        throw new RuntimeException("You cannot instantiate PieceSquareTables!");
+    }
+
+    /**
+     * Builds the value of every piece on every tile. Black's tables are white's mirrored
+     * top to bottom.
+     * @param tables the bonus table of every piece type
+     * @return the signed values by piece index and tile
+     */
+    private static int[][] initValues(final int[][] tables) {
+        final int[][] values = new int[BitboardUtils.NUM_PIECE_INDICES][BoardUtils.NUM_TILES];
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType pieceType : PieceType.values()) {
+                final int[] pieceValues = values[BitboardUtils.pieceIndex(alliance, pieceType)];
+                for (int coord = 0; coord < BoardUtils.NUM_TILES; coord++) {
+                    final int value = pieceType.getValue() + tables[pieceType.ordinal()][
+                            alliance.isWhite() ? coord : coord ^ (BoardUtils.NUM_TILES - BoardUtils.NUM_TILES_PER_ROW)];
+                    pieceValues[coord] = alliance.isWhite() ? value : -value;
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Gets the middlegame value of a piece on a tile
+     * @param pieceIndex the bitboard index of the piece
+     * @param coord the tile coordinate
+     * @return the value, positive for white pieces and negative for black ones
+     */
+    public static int middlegameValue(final int pieceIndex, final int coord) {
+        return MIDDLEGAME_VALUES[pieceIndex][coord];
+    }
+
+    /**
+     * Gets the endgame value of a piece on a tile
+     * @param pieceIndex the bitboard index of the piece
+     * @param coord the tile coordinate
+     * @return the value, positive for white pieces and negative for black ones
+     */
+    public static int endgameValue(final int pieceIndex, final int coord) {
+        return ENDGAME_VALUES[pieceIndex][coord];
+    }
+
+    /**
+     * Gets how much a piece counts towards the game phase
+     * @param pieceIndex the bitboard index of the piece
+     * @return the phase weight of the piece's type
+     */
+    public static int phaseWeight(final int pieceIndex) {
+        return PHASE_WEIGHTS[pieceIndex % BitboardUtils.NUM_PIECE_TYPES];
+    }
+
+    /**
+     * Blends the middlegame and endgame sums by the game phase
+     * @param middlegameScore the middlegame sum, white minus black
+     * @param endgameScore the endgame sum, white minus black
+     * @param phase the summed phase weights of the pieces on the board
+     * @return the tapered score, positive when white is better
+     */
+    public static int taper(final int middlegameScore, final int endgameScore, final int phase) {
+        final int middlegamePhase = Math.min(phase, MAX_PHASE);
+        return (middlegameScore * middlegamePhase + endgameScore * (MAX_PHASE - middlegamePhase)) / MAX_PHASE;
+    }
+
+    /**
+     * Computes the game phase of a position from scratch
+     * @param position the position being measured
+     * @return the summed phase weights of the pieces on the board
+     */
+    public static int calcPhase(final Position position) {
+        int phase = 0;
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType pieceType : PieceType.values()) {
+                phase += Long.bitCount(position.getPieces(alliance, pieceType)) * PHASE_WEIGHTS[pieceType.ordinal()];
+            }
+        }
+        return phase;
+    }
+
+    /**
+     * Computes the tapered score of a position from scratch
+     * @param position the position being scored
+     * @return the tapered score, positive when white is better
+     */
+    public static int calcScore(final Position position) {
+        int middlegameScore = 0;
+        int endgameScore = 0;
+        int phase = 0;
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType pieceType : PieceType.values()) {
+                final int pieceIndex = BitboardUtils.pieceIndex(alliance, pieceType);
+                long pieces = position.getPieces(alliance, pieceType);
+                while (pieces != 0L) {
+                    final int coord = Long.numberOfTrailingZeros(pieces);
+                    pieces &= pieces - 1;
+                    middlegameScore += middlegameValue(pieceIndex, coord);
+                    endgameScore += endgameValue(pieceIndex, coord);
+                    phase += phaseWeight(pieceIndex);
+                }
+            }
+        }
+        return taper(middlegameScore, endgameScore, phase);
+    }
+}
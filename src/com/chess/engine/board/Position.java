@@ -0,0 +1,155 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * A read-only bitboard view of a chess position. It is shared by the immutable Board used by the
+ * GUI and the API, and the mutable SearchPosition used inside the search, so evaluation and
+ * attack queries work on either.
+ */
+public interface Position {
+
+    // castling rights bits, see getCastlingRights
+    int WHITE_KING_SIDE_CASTLE = 1;
+    int WHITE_QUEEN_SIDE_CASTLE = 2;
+    int BLACK_KING_SIDE_CASTLE = 4;
+    int BLACK_QUEEN_SIDE_CASTLE = 8;
+
+    int NO_EN_PASSANT = -1;
+
+    /**
+     * Gets the bitboard of one piece type for one alliance
+     * @param alliance the alliance of the pieces
+     * @param pieceType the type of the pieces
+     * @return the tiles occupied by those pieces
+     */
+    long getPieces(Alliance alliance, PieceType pieceType);
+
+    /**
+     * Gets the tiles occupied by one alliance
+     * @param alliance the alliance of the pieces
+     * @return the tiles occupied by the alliance
+     */
+    long getOccupancy(Alliance alliance);
+
+    /**
+     * Gets the alliance whose turn it is
+     * @return the alliance of the current player
+     */
+    Alliance getCurrPlayerAlliance();
+
+    /**
+     * Gets the castles that are still possible, ignoring whether they are currently blocked or
+     * attacked. A side keeps a right while its king and that rook have not moved.
+     * @return the castling rights bits that are set
+     */
+    int getCastlingRights();
+
+    /**
+     * Gets the tile a pawn could capture onto en passant
+     * @return the tile jumped over by the last pawn jump or NO_EN_PASSANT
+     */
+    int getEnPassantCoord();
+
+    /**
+     * Says whether an alliance has castled
+     * @param alliance the alliance being checked
+     * @return true if the alliance's king has castled and false otherwise
+     */
+    boolean hasCastled(Alliance alliance);
+
+    /**
+     * Gets the Zobrist key of the position
+     * @return the 64 bit hash of the pieces, side to move, castling rights and en passant file
+     */
+    long getZobristKey();
+
+    /**
+     * Gets the pawn key of the position. Pawn structure changes far less often than the rest of
+     * the position, so results that only depend on the pawns are cached by this key.
+     * @return the 64 bit hash of the pawns of both alliances
+     */
+    default long getPawnKey() {
+        return Zobrist.calcPawnKey(this);
+    }
+
+    /**
+     * Checks if the current player is in checkmate
+     * @return true if the current player is in check and has no legal moves and false otherwise
+     */
+    boolean isCheckmate();
+
+    /**
+     * Gets all occupied tiles
+     * @return the tiles occupied by either alliance
+     */
+    default long getOccupancy() {
+        return getOccupancy(Alliance.WHITE) | getOccupancy(Alliance.BLACK);
+    }
+
+    /**
+     * Gets the tile of an alliance's king
+     * @param alliance the alliance of the king
+     * @return the tile coordinate of the king
+     */
+    default int getKingCoord(final Alliance alliance) {
+        return Long.numberOfTrailingZeros(getPieces(alliance, PieceType.KING));
+    }
+
+    /**
+     * Checks if an alliance's king is attacked
+     * @param alliance the alliance of the king
+     * @return true if the king is attacked and false otherwise
+     */
+    default boolean isInCheck(final Alliance alliance) {
+        return isTileAttacked(getKingCoord(alliance), alliance.getOpposite());
+    }
+
+    /**
+     * Gets the material and piece-square score of the position, blended between middlegame and
+     * endgame by the game phase. Computed from scratch unless the position keeps it up to date.
+     * @return the tapered score, positive when white is better
+     */
+    default int getPieceSquareScore() {
+        return PieceSquareTables.calcScore(this);
+    }
+
+    /**
+     * Gets the game phase of the position. Computed from scratch unless the position keeps it
+     * up to date.
+     * @return the summed phase weights of the pieces, PieceSquareTables.MAX_PHASE at the start
+     */
+    default int getPhase() {
+        return PieceSquareTables.calcPhase(this);
+    }
+
+    /**
+     * Checks whether any piece of the passed alliance attacks a tile
+     * @param coord the tile being checked
+     * @param attackingAlliance the alliance whose pieces may attack the tile
+     * @return true if the tile is attacked and false otherwise
+     */
+    default boolean isTileAttacked(final int coord, final Alliance attackingAlliance) {
+        return calcAttackersOnTile(coord, attackingAlliance, getOccupancy()) != 0L;
+    }
+
+    /**
+     * Finds every piece of the passed alliance attacking a tile
+     * @param coord the tile being checked
+     * @param attackingAlliance the alliance whose pieces may attack the tile
+     * @param occupancy the occupied tiles that block sliding pieces
+     * @return the tiles of the attacking pieces
+     */
+    default long calcAttackersOnTile(final int coord, final Alliance attackingAlliance, final long occupancy) {
+        final long queens = getPieces(attackingAlliance, PieceType.QUEEN);
+        final long rookAttackers = getPieces(attackingAlliance, PieceType.ROOK) | queens;
+        final long bishopAttackers = getPieces(attackingAlliance, PieceType.BISHOP) | queens;
+        // a pawn attacks this tile iff a pawn of the other alliance here would attack it
+        return (BitboardUtils.pawnAttacks(attackingAlliance.getOpposite(), coord) & getPieces(attackingAlliance, PieceType.PAWN))
+                | (BitboardUtils.KNIGHT_ATTACKS[coord] & getPieces(attackingAlliance, PieceType.KNIGHT))
+                | (BitboardUtils.KING_ATTACKS[coord] & getPieces(attackingAlliance, PieceType.KING))
+                | (BitboardUtils.rookAttacks(coord, occupancy) & rookAttackers)
+                | (BitboardUtils.bishopAttacks(coord, occupancy) & bishopAttackers);
+    }
+}
@@ -0,0 +1,592 @@
+package com.chess.engine.board;
+
+import java.util.Arrays;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * A mutable chess position used inside the search. Moves are packed ints (see PackedMove) that
+ * are made with doMove and taken back with undoMove, so a search walks the whole tree on one
+ * instance instead of building a new Board for every node. The immutable Board stays the type
+ * used by the GUI and the public API.
+ */
+public final class SearchPosition implements Position {
+
+    public static final int MAX_PLY = 256;
+    public static final int MAX_MOVES = 256;
+
+    private static final int NO_PIECE = -1;
+    private static final Alliance[] ALLIANCES = Alliance.values();
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    private static final PieceType[] NON_PAWN_TYPES = {
+            PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN, PieceType.KING };
+    // queen first so the first match for a promotion's tiles is the queen promotion
+    private static final PieceType[] PROMOTION_TYPES = {
+            PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT };
+
+    private final long[] pieceBitboards = new long[BitboardUtils.NUM_PIECE_INDICES];
+    private final long[] occupancy = new long[ALLIANCES.length];
+    private final int[] mailbox = new int[BoardUtils.NUM_TILES];
+    private int currPlayer;
+    private int castlingRights;
+    private int enPassantCoord;
+    private int castledFlags;
+    private long zobristKey;
+    private long pawnKey;
+    // piece-square sums, white minus black, and the game phase, kept up to date by every move
+    private int middlegameScore;
+    private int endgameScore;
+    private int phase;
+
+    // undo stack, one entry per move made
+    private final int[] moveHistory = new int[MAX_PLY];
+    private final int[] capturedHistory = new int[MAX_PLY];
+    private final int[] castlingRightsHistory = new int[MAX_PLY];
+    private final int[] enPassantHistory = new int[MAX_PLY];
+    private final int[] castledHistory = new int[MAX_PLY];
+    private final long[] zobristKeyHistory = new long[MAX_PLY];
+    private int ply;
+    // one move buffer per ply, created the first time a ply is reached
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+
+    /**
+     * Constructor that copies a board into a new search position
+     * @param board the board being searched
+     */
+    public SearchPosition(final Board board) {
+        Arrays.fill(this.mailbox, NO_PIECE);
+        for (int coord = 0; coord < BoardUtils.NUM_TILES; coord++) {
+            final Piece piece = board.getPiece(coord);
+            if (piece != null) {
+                addPiece(BitboardUtils.pieceIndex(piece.getAlliance(), piece.getPieceType()), coord);
+            }
+        }
+        this.currPlayer = board.getCurrPlayerAlliance().ordinal();
+        this.castlingRights = board.getCastlingRights();
+        this.enPassantCoord = board.getEnPassantCoord();
+        for (final Alliance alliance : ALLIANCES) {
+            if (board.hasCastled(alliance)) {
+                this.castledFlags |= 1 << alliance.ordinal();
+            }
+        }
+        this.zobristKey = board.getZobristKey();
+    }
+
+    /**
+     * Constructor that copies another search position so it can be searched in another thread.
+     * The copy keeps the ply and last move of the original but cannot undo moves made before it
+     * was taken.
+     * @param other the position being copied, which must not change while it is copied
+     */
+    public SearchPosition(final SearchPosition other) {
+        System.arraycopy(other.pieceBitboards, 0, this.pieceBitboards, 0, this.pieceBitboards.length);
+        System.arraycopy(other.occupancy, 0, this.occupancy, 0, this.occupancy.length);
+        System.arraycopy(other.mailbox, 0, this.mailbox, 0, this.mailbox.length);
+        System.arraycopy(other.moveHistory, 0, this.moveHistory, 0, other.ply);
+        this.currPlayer = other.currPlayer;
+        this.castlingRights = other.castlingRights;
+        this.enPassantCoord = other.enPassantCoord;
+        this.castledFlags = other.castledFlags;
+        this.zobristKey = other.zobristKey;
+        this.pawnKey = other.pawnKey;
+        this.middlegameScore = other.middlegameScore;
+        this.endgameScore = other.endgameScore;
+        this.phase = other.phase;
+        this.ply = other.ply;
+    }
+
+    @Override
+    public long getPieces(final Alliance alliance, final PieceType pieceType) {
+        return this.pieceBitboards[BitboardUtils.pieceIndex(alliance, pieceType)];
+    }
+
+    @Override
+    public long getOccupancy(final Alliance alliance) {
+        return this.occupancy[alliance.ordinal()];
+    }
+
+    @Override
+    public long getOccupancy() {
+        return this.occupancy[0] | this.occupancy[1];
+    }
+
+    @Override
+    public Alliance getCurrPlayerAlliance() {
+        return ALLIANCES[this.currPlayer];
+    }
+
+    @Override
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    @Override
+    public int getEnPassantCoord() {
+        return this.enPassantCoord;
+    }
+
+    /**
+     * Gets the move that led to this position
+     * @return the last packed move made or PackedMove.NO_MOVE at the root
+     */
+    public int getLastMove() {
+        return this.ply == 0 ? PackedMove.NO_MOVE : this.moveHistory[this.ply - 1];
+    }
+
+    /**
+     * Gets the type of the piece on a tile
+     * @param coord the tile coordinate
+     * @return the type of the piece on the tile or null if it is empty
+     */
+    public PieceType getPieceType(final int coord) {
+        final int pieceIndex = this.mailbox[coord];
+        return pieceIndex == NO_PIECE ? null : PIECE_TYPES[pieceIndex % BitboardUtils.NUM_PIECE_TYPES];
+    }
+
+    @Override
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    @Override
+    public long getPawnKey() {
+        return this.pawnKey;
+    }
+
+    @Override
+    public int getPieceSquareScore() {
+        return PieceSquareTables.taper(this.middlegameScore, this.endgameScore, this.phase);
+    }
+
+    @Override
+    public int getPhase() {
+        return this.phase;
+    }
+
+    @Override
+    public boolean hasCastled(final Alliance alliance) {
+        return (this.castledFlags & (1 << alliance.ordinal())) != 0;
+    }
+
+    @Override
+    public boolean isCheckmate() {
+        return isInCheck(getCurrPlayerAlliance()) && !hasLegalMove();
+    }
+
+    /**
+     * Checks if the current player has at least one legal move
+     * @return true if the current player can move and false otherwise
+     */
+    public boolean hasLegalMove() {
+        final MoveList moves = getScratchMoveList();
+        generateMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (doMove(moves.get(i))) {
+                undoMove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of moves made on this position and not yet undone
+     * @return the number of moves on the undo stack
+     */
+    public int getPly() {
+        return this.ply;
+    }
+
+    /**
+     * Finds the generated move between two tiles. A promotion resolves to the queen promotion.
+     * @param startingCoord the tile the piece moves from
+     * @param destCoord the tile the piece moves to
+     * @return the packed move or PackedMove.NO_MOVE if the current player has no such move
+     */
+    public int findMove(final int startingCoord, final int destCoord) {
+        final MoveList moves = getScratchMoveList();
+        generateMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = moves.get(i);
+            if (PackedMove.getStartingCoord(move) == startingCoord && PackedMove.getDestCoord(move) == destCoord) {
+                return move;
+            }
+        }
+        return PackedMove.NO_MOVE;
+    }
+
+    /**
+     * Gets the move buffer of a ply, creating it the first time
+     * @param index the ply of the buffer
+     * @return the move buffer of the ply
+     */
+    private MoveList getMoveList(final int index) {
+        MoveList moves = this.moveLists[index];
+        if (moves == null) {
+            moves = new MoveList();
+            this.moveLists[index] = moves;
+        }
+        return moves;
+    }
+
+    /**
+     * Gets a buffer for a short look at the current moves that does not overwrite the list of the
+     * current ply, which a search may still be walking. The next ply's buffer is free until a
+     * move is made and moves are generated after it.
+     * @return a move buffer that is safe to overwrite
+     */
+    private MoveList getScratchMoveList() {
+        return getMoveList(this.ply + 1);
+    }
+
+    /**
+     * Generates the pseudo-legal moves of the current player into the buffer kept for the
+     * current ply. The list stays valid until moves are generated again at this ply.
+     * @return the moves of the current player
+     */
+    public MoveList generateMoves() {
+        final MoveList moves = getMoveList(this.ply);
+        generateMoves(moves);
+        return moves;
+    }
+
+    /**
+     * Generates the pseudo-legal moves of the current player. Moves that leave the player's own
+     * king attacked are included and are rejected later by doMove.
+     * @param moves the list the moves are written into, which is cleared first
+     */
+    public void generateMoves(final MoveList moves) {
+        generateMoves(moves, false);
+    }
+
+    /**
+     * Generates the pseudo-legal captures and queen promotions of the current player into the
+     * buffer kept for the current ply, for searches that only follow exchanges to their end.
+     * @return the captures and queen promotions of the current player
+     */
+    public MoveList generateCaptures() {
+        final MoveList moves = getMoveList(this.ply);
+        generateMoves(moves, true);
+        return moves;
+    }
+
+    /**
+     * Generates the pseudo-legal moves of the current player
+     * @param moves the list the moves are written into, which is cleared first
+     * @param capturesOnly whether only captures and queen promotions are generated
+     */
+    private void generateMoves(final MoveList moves, final boolean capturesOnly) {
+        moves.clear();
+        final Alliance alliance = getCurrPlayerAlliance();
+        final long own = this.occupancy[this.currPlayer];
+        final long enemy = this.occupancy[this.currPlayer ^ 1];
+        final long all = own | enemy;
+        final long targets = capturesOnly ? enemy : ~own;
+        generatePawnMoves(moves, alliance, enemy, all, capturesOnly);
+        for (final PieceType pieceType : NON_PAWN_TYPES) {
+            long pieces = getPieces(alliance, pieceType);
+            while (pieces != 0L) {
+                final int startingCoord = Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                long destinations = BitboardUtils.pieceAttacks(pieceType, startingCoord, all) & targets;
+                while (destinations != 0L) {
+                    final int destCoord = Long.numberOfTrailingZeros(destinations);
+                    destinations &= destinations - 1;
+                    final int flag = (enemy & BitboardUtils.tileBit(destCoord)) != 0L ? PackedMove.CAPTURE : PackedMove.QUIET;
+                    moves.add(PackedMove.create(startingCoord, destCoord, flag));
+                }
+            }
+        }
+        if (this.castlingRights != 0 && !capturesOnly) {
+            generateCastleMoves(moves, alliance, all);
+        }
+    }
+
+    /**
+     * Generates the pushes, jumps, captures, en passant captures and promotions of the pawns
+     * @param moves the list the moves are added to
+     * @param alliance the alliance of the pawns
+     * @param enemy the tiles occupied by the opponent
+     * @param all all occupied tiles
+     * @param capturesOnly whether only captures and queen promotions are generated
+     */
+    private void generatePawnMoves(final MoveList moves, final Alliance alliance, final long enemy, final long all,
+                                   final boolean capturesOnly) {
+        final int forward = BoardUtils.NUM_TILES_PER_ROW * alliance.getPawnDirection();
+        final long startRank = alliance.isWhite() ? BitboardUtils.RANK_2 : BitboardUtils.RANK_7;
+        final long promotionRank = alliance.isWhite() ? BitboardUtils.RANK_8 : BitboardUtils.RANK_1;
+        long pawns = getPieces(alliance, PieceType.PAWN);
+        while (pawns != 0L) {
+            final int startingCoord = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+
+            final int pushCoord = startingCoord + forward;
+            if ((all & BitboardUtils.tileBit(pushCoord)) == 0L) {
+                if ((promotionRank & BitboardUtils.tileBit(pushCoord)) != 0L) {
+                    addPromotions(moves, startingCoord, pushCoord, false, capturesOnly);
+                } else if (!capturesOnly) {
+                    moves.add(PackedMove.create(startingCoord, pushCoord, PackedMove.QUIET));
+                    final int jumpCoord = pushCoord + forward;
+                    if ((startRank & BitboardUtils.tileBit(startingCoord)) != 0L &&
+                        (all & BitboardUtils.tileBit(jumpCoord)) == 0L) {
+                        moves.add(PackedMove.create(startingCoord, jumpCoord, PackedMove.DOUBLE_PAWN_PUSH));
+                    }
+                }
+            }
+
+            final long attacks = BitboardUtils.pawnAttacks(alliance, startingCoord);
+            long captures = attacks & enemy;
+            while (captures != 0L) {
+                final int destCoord = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                if ((promotionRank & BitboardUtils.tileBit(destCoord)) != 0L) {
+                    addPromotions(moves, startingCoord, destCoord, true, capturesOnly);
+                } else {
+                    moves.add(PackedMove.create(startingCoord, destCoord, PackedMove.CAPTURE));
+                }
+            }
+            if (this.enPassantCoord != NO_EN_PASSANT && (attacks & BitboardUtils.tileBit(this.enPassantCoord)) != 0L) {
+                moves.add(PackedMove.create(startingCoord, this.enPassantCoord, PackedMove.EN_PASSANT));
+            }
+        }
+    }
+
+    /**
+     * Adds one promotion for every piece a pawn can promote to
+     * @param moves the list the moves are added to
+     * @param startingCoord the tile the pawn moves from
+     * @param destCoord the tile the pawn promotes on
+     * @param isCapture whether the promotion captures a piece
+     * @param queenOnly whether only the queen promotion is added
+     */
+    private static void addPromotions(final MoveList moves, final int startingCoord,
+                                      final int destCoord, final boolean isCapture, final boolean queenOnly) {
+        if (queenOnly) {
+            moves.add(PackedMove.createPromotion(startingCoord, destCoord, PieceType.QUEEN, isCapture));
+            return;
+        }
+        for (final PieceType promotionType : PROMOTION_TYPES) {
+            moves.add(PackedMove.createPromotion(startingCoord, destCoord, promotionType, isCapture));
+        }
+    }
+
+    /**
+     * Generates the castles of the current player. The king may not be in check or pass over an
+     * attacked tile; the tile it lands on is checked by doMove like any other move.
+     * @param moves the list the moves are added to
+     * @param alliance the alliance castling
+     * @param all all occupied tiles
+     */
+    private void generateCastleMoves(final MoveList moves, final Alliance alliance, final long all) {
+        final int kingCoord = alliance.isWhite() ? 60 : 4;
+        final int kingSideRight = alliance.isWhite() ? WHITE_KING_SIDE_CASTLE : BLACK_KING_SIDE_CASTLE;
+        final int queenSideRight = alliance.isWhite() ? WHITE_QUEEN_SIDE_CASTLE : BLACK_QUEEN_SIDE_CASTLE;
+        final Alliance opponent = alliance.getOpposite();
+        if ((this.castlingRights & (kingSideRight | queenSideRight)) == 0 || isTileAttacked(kingCoord, opponent)) {
+            return;
+        }
+        if ((this.castlingRights & kingSideRight) != 0 &&
+            (all & (BitboardUtils.tileBit(kingCoord + 1) | BitboardUtils.tileBit(kingCoord + 2))) == 0L &&
+            !isTileAttacked(kingCoord + 1, opponent)) {
+            moves.add(PackedMove.create(kingCoord, kingCoord + 2, PackedMove.KING_SIDE_CASTLE));
+        }
+        if ((this.castlingRights & queenSideRight) != 0 &&
+            (all & (BitboardUtils.tileBit(kingCoord - 1) | BitboardUtils.tileBit(kingCoord - 2) | BitboardUtils.tileBit(kingCoord - 3))) == 0L &&
+            !isTileAttacked(kingCoord - 1, opponent)) {
+            moves.add(PackedMove.create(kingCoord, kingCoord - 2, PackedMove.QUEEN_SIDE_CASTLE));
+        }
+    }
+
+    /**
+     * Makes a move generated for this position. If the move leaves the mover's king attacked it
+     * is taken back straight away.
+     * @param move the packed move
+     * @return true if the move was legal and has been made and false otherwise
+     */
+    public boolean doMove(final int move) {
+        final int startingCoord = PackedMove.getStartingCoord(move);
+        final int destCoord = PackedMove.getDestCoord(move);
+        final int flag = PackedMove.getFlag(move);
+        final Alliance alliance = getCurrPlayerAlliance();
+        final int capturedPiece = flag == PackedMove.EN_PASSANT
+                ? BitboardUtils.pieceIndex(alliance.getOpposite(), PieceType.PAWN)
+                : this.mailbox[destCoord];
+
+        this.moveHistory[this.ply] = move;
+        this.capturedHistory[this.ply] = capturedPiece;
+        this.castlingRightsHistory[this.ply] = this.castlingRights;
+        this.enPassantHistory[this.ply] = this.enPassantCoord;
+        this.castledHistory[this.ply] = this.castledFlags;
+        this.zobristKeyHistory[this.ply] = this.zobristKey;
+        this.ply++;
+
+        if (flag == PackedMove.EN_PASSANT) {
+            removePiece(enPassantCaptureCoord(destCoord, alliance));
+        } else if (capturedPiece != NO_PIECE) {
+            removePiece(destCoord);
+        }
+        movePiece(startingCoord, destCoord);
+
+        if (PackedMove.isPromotion(move)) {
+            removePiece(destCoord);
+            addPiece(BitboardUtils.pieceIndex(alliance, PackedMove.getPromotionType(move)), destCoord);
+        } else if (flag == PackedMove.KING_SIDE_CASTLE) {
+            movePiece(destCoord + 1, destCoord - 1);
+            this.castledFlags |= 1 << this.currPlayer;
+        } else if (flag == PackedMove.QUEEN_SIDE_CASTLE) {
+            movePiece(destCoord - 2, destCoord + 1);
+            this.castledFlags |= 1 << this.currPlayer;
+        }
+
+        // the pieces were hashed by addPiece and removePiece, the rest of the state is hashed here
+        this.zobristKey ^= Zobrist.castlingKey(this.castlingRights) ^ Zobrist.enPassantKey(this.enPassantCoord);
+        this.castlingRights = BoardUtils.updateCastlingRights(this.castlingRights, startingCoord, destCoord);
+        this.enPassantCoord = flag == PackedMove.DOUBLE_PAWN_PUSH ? (startingCoord + destCoord) / 2 : NO_EN_PASSANT;
+        this.currPlayer ^= 1;
+        this.zobristKey ^= Zobrist.castlingKey(this.castlingRights) ^ Zobrist.enPassantKey(this.enPassantCoord) ^
+                Zobrist.BLACK_TO_MOVE;
+
+        if (isInCheck(alliance)) {
+            undoMove();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Passes the turn to the opponent without moving, as used by null move pruning. The null
+     * move is stored as PackedMove.NO_MOVE and must be taken back with undoNullMove.
+     */
+    public void doNullMove() {
+        this.moveHistory[this.ply] = PackedMove.NO_MOVE;
+        this.capturedHistory[this.ply] = NO_PIECE;
+        this.castlingRightsHistory[this.ply] = this.castlingRights;
+        this.enPassantHistory[this.ply] = this.enPassantCoord;
+        this.castledHistory[this.ply] = this.castledFlags;
+        this.zobristKeyHistory[this.ply] = this.zobristKey;
+        this.ply++;
+
+        this.zobristKey ^= Zobrist.enPassantKey(this.enPassantCoord) ^ Zobrist.BLACK_TO_MOVE;
+        this.enPassantCoord = NO_EN_PASSANT;
+        this.currPlayer ^= 1;
+    }
+
+    /**
+     * Takes back the last move made by doNullMove
+     */
+    public void undoNullMove() {
+        this.ply--;
+        this.currPlayer ^= 1;
+        this.enPassantCoord = this.enPassantHistory[this.ply];
+        this.zobristKey = this.zobristKeyHistory[this.ply];
+    }
+
+    /**
+     * Checks if an alliance has any piece besides its king and pawns. Without one, positions
+     * where every move makes things worse (zugzwang) are common.
+     * @param alliance the alliance whose pieces are checked
+     * @return true if the alliance has a knight, bishop, rook or queen
+     */
+    public boolean hasNonPawnMaterial(final Alliance alliance) {
+        return (getPieces(alliance, PieceType.KNIGHT) | getPieces(alliance, PieceType.BISHOP) |
+                getPieces(alliance, PieceType.ROOK) | getPieces(alliance, PieceType.QUEEN)) != 0L;
+    }
+
+    /**
+     * Takes back the last move made by doMove
+     */
+    public void undoMove() {
+        this.ply--;
+        final int move = this.moveHistory[this.ply];
+        final int startingCoord = PackedMove.getStartingCoord(move);
+        final int destCoord = PackedMove.getDestCoord(move);
+        final int flag = PackedMove.getFlag(move);
+        this.currPlayer ^= 1;
+        final Alliance alliance = getCurrPlayerAlliance();
+
+        if (PackedMove.isPromotion(move)) {
+            removePiece(destCoord);
+            addPiece(BitboardUtils.pieceIndex(alliance, PieceType.PAWN), destCoord);
+        } else if (flag == PackedMove.KING_SIDE_CASTLE) {
+            movePiece(destCoord - 1, destCoord + 1);
+        } else if (flag == PackedMove.QUEEN_SIDE_CASTLE) {
+            movePiece(destCoord + 1, destCoord - 2);
+        }
+        movePiece(destCoord, startingCoord);
+
+        final int capturedPiece = this.capturedHistory[this.ply];
+        if (capturedPiece != NO_PIECE) {
+            addPiece(capturedPiece, flag == PackedMove.EN_PASSANT ? enPassantCaptureCoord(destCoord, alliance) : destCoord);
+        }
+        this.castlingRights = this.castlingRightsHistory[this.ply];
+        this.enPassantCoord = this.enPassantHistory[this.ply];
+        this.castledFlags = this.castledHistory[this.ply];
+        this.zobristKey = this.zobristKeyHistory[this.ply];
+    }
+
+    /**
+     * Gets the tile of the pawn captured by an en passant move
+     * @param destCoord the tile the capturing pawn lands on
+     * @param alliance the alliance of the capturing pawn
+     * @return the tile of the captured pawn
+     */
+    private static int enPassantCaptureCoord(final int destCoord, final Alliance alliance) {
+        return destCoord + BoardUtils.NUM_TILES_PER_ROW * alliance.getOppositePawnDirection();
+    }
+
+    /**
+     * Puts a piece on an empty tile
+     * @param pieceIndex the bitboard index of the piece
+     * @param coord the tile coordinate
+     */
+    private void addPiece(final int pieceIndex, final int coord) {
+        final long bit = BitboardUtils.tileBit(coord);
+        this.pieceBitboards[pieceIndex] |= bit;
+        this.occupancy[pieceIndex / BitboardUtils.NUM_PIECE_TYPES] |= bit;
+        this.mailbox[coord] = pieceIndex;
+        this.zobristKey ^= Zobrist.pieceKey(pieceIndex, coord);
+        this.pawnKey ^= Zobrist.pawnKey(pieceIndex, coord);
+        this.middlegameScore += PieceSquareTables.middlegameValue(pieceIndex, coord);
+        this.endgameScore += PieceSquareTables.endgameValue(pieceIndex, coord);
+        this.phase += PieceSquareTables.phaseWeight(pieceIndex);
+    }
+
+    /**
+     * Takes the piece off an occupied tile
+     * @param coord the tile coordinate
+     */
+    private void removePiece(final int coord) {
+        final int pieceIndex = this.mailbox[coord];
+        final long bit = BitboardUtils.tileBit(coord);
+        this.pieceBitboards[pieceIndex] &= ~bit;
+        this.occupancy[pieceIndex / BitboardUtils.NUM_PIECE_TYPES] &= ~bit;
+        this.mailbox[coord] = NO_PIECE;
+        this.zobristKey ^= Zobrist.pieceKey(pieceIndex, coord);
+        this.pawnKey ^= Zobrist.pawnKey(pieceIndex, coord);
+        this.middlegameScore -= PieceSquareTables.middlegameValue(pieceIndex, coord);
+        this.endgameScore -= PieceSquareTables.endgameValue(pieceIndex, coord);
+        this.phase -= PieceSquareTables.phaseWeight(pieceIndex);
+    }
+
+    /**
+     * Moves the piece on one tile to an empty tile
+     * @param startingCoord the tile the piece is on
+     * @param destCoord the tile the piece moves to
+     */
+    private void movePiece(final int startingCoord, final int destCoord) {
+        final int pieceIndex = this.mailbox[startingCoord];
+        final long bits = BitboardUtils.tileBit(startingCoord) | BitboardUtils.tileBit(destCoord);
+        this.pieceBitboards[pieceIndex] ^= bits;
+        this.occupancy[pieceIndex / BitboardUtils.NUM_PIECE_TYPES] ^= bits;
+        this.mailbox[startingCoord] = NO_PIECE;
+        this.mailbox[destCoord] = pieceIndex;
+        this.zobristKey ^= Zobrist.pieceKey(pieceIndex, startingCoord) ^ Zobrist.pieceKey(pieceIndex, destCoord);
+        this.pawnKey ^= Zobrist.pawnKey(pieceIndex, startingCoord) ^ Zobrist.pawnKey(pieceIndex, destCoord);
+        this.middlegameScore += PieceSquareTables.middlegameValue(pieceIndex, destCoord) -
+                PieceSquareTables.middlegameValue(pieceIndex, startingCoord);
+        this.endgameScore += PieceSquareTables.endgameValue(pieceIndex, destCoord) -
+                PieceSquareTables.endgameValue(pieceIndex, startingCoord);
+    }
+}
@@ -0,0 +1,25 @@
+package com.chess.engine.board;
+
+/**
+ * Generates the attack sets of sliding pieces. Each implementation returns, for a tile and the
+ * occupied tiles of a board, every tile the piece attacks including the first blocker in each
+ * direction. Blockers are returned regardless of alliance; callers mask out their own pieces.
+ */
+public interface SliderAttacks {
+
+    /**
+     * Gets the tiles attacked by a rook
+     * @param coord the tile coordinate of the rook
+     * @param occupancy all occupied tiles on the board
+     * @return the tiles the rook attacks
+     */
+    long rookAttacks(int coord, long occupancy);
+
+    /**
+     * Gets the tiles attacked by a bishop
+     * @param coord the tile coordinate of the bishop
+     * @param occupancy all occupied tiles on the board
+     * @return the tiles the bishop attacks
+     */
+    long bishopAttacks(int coord, long occupancy);
+}
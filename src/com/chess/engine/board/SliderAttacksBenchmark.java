@@ -0,0 +1,151 @@
+package com.chess.engine.board;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Times the slider attack implementations against each other on random positions and picks the
+ * fastest one for the running JVM. The choice can be forced with -Dchess.sliderAttacks set to
+ * magic, pext or kogge-stone. Run main for a longer, more reliable comparison.
+ */
+public final class SliderAttacksBenchmark {
+
+    public static final String SLIDER_ATTACKS_PROPERTY = "chess.sliderAttacks";
+
+    private static final int NUM_SAMPLES = 4096;
+    private static final int STARTUP_ROUNDS = 30;
+    private static final int MAIN_ROUNDS = 2000;
+    private static final long SEED = 0x5EEDL;
+
+    private static volatile long sink;
+
+    /**
+     * Constructor to prevent instantiation of this utility class.
+     * @throws a RuntimeException if an attempt is made to instantiate.
+     */
+    private SliderAttacksBenchmark() {
+        throw new RuntimeException("You cannot instantiate SliderAttacksBenchmark!");
+    }
+
+    /**
+     * Chooses the slider attack implementation used by the engine
+     * @return the implementation named by the system property, or else the fastest one
+     */
+    public static SliderAttacks select() {
+        final String forced = System.getProperty(SLIDER_ATTACKS_PROPERTY);
+        if (forced != null) {
+            return create(forced);
+        }
+        return fastest(createAll(), STARTUP_ROUNDS);
+    }
+
+    /**
+     * Creates one slider attack implementation by name
+     * @param name magic, pext or kogge-stone
+     * @throws a RuntimeException if the name is unknown
+     * @return the named implementation
+     */
+    public static SliderAttacks create(final String name) {
+        switch (name.trim().toLowerCase()) {
+            case "magic":
+                return new MagicSliderAttacks();
+            case "pext":
+                return new PextSliderAttacks();
+            case "kogge-stone":
+                return new KoggeStoneSliderAttacks();
+            default:
+                throw new RuntimeException("Unknown slider attacks " + name);
+        }
+    }
+
+    /**
+     * Creates every slider attack implementation
+     * @return all slider attack implementations
+     */
+    public static List<SliderAttacks> createAll() {
+        final List<SliderAttacks> all = new ArrayList<>();
+        all.add(new MagicSliderAttacks());
+        all.add(new PextSliderAttacks());
+        all.add(new KoggeStoneSliderAttacks());
+        return Collections.unmodifiableList(all);
+    }
+
+    /**
+     * Finds the implementation with the lowest time over the sample positions. The candidates
+     * take turns so they are compiled alongside each other, and each keeps its best pass so
+     * a compilation pause in one pass does not count against it.
+     * @param candidates the implementations being compared
+     * @param rounds the number of passes over the samples each implementation gets
+     * @return the fastest implementation
+     */
+    public static SliderAttacks fastest(final List<SliderAttacks> candidates, final int rounds) {
+        final long[] occupancies = createOccupancies();
+        final long[] bestTimes = new long[candidates.size()];
+        Arrays.fill(bestTimes, Long.MAX_VALUE);
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < candidates.size(); i++) {
+                bestTimes[i] = Math.min(bestTimes[i], time(candidates.get(i), occupancies, 1));
+            }
+        }
+        int best = 0;
+        for (int i = 1; i < candidates.size(); i++) {
+            if (bestTimes[i] < bestTimes[best]) {
+                best = i;
+            }
+        }
+        return candidates.get(best);
+    }
+
+    /**
+     * Times rook and bishop lookups from every sample occupancy
+     * @param sliders the implementation being timed
+     * @param occupancies the sample occupancies
+     * @param rounds the number of passes over the samples
+     * @return the elapsed time in nanoseconds
+     */
+    private static long time(final SliderAttacks sliders, final long[] occupancies, final int rounds) {
+        long checksum = 0L;
+        final long startTime = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < occupancies.length; i++) {
+                final int coord = i & (BoardUtils.NUM_TILES - 1);
+                checksum ^= sliders.rookAttacks(coord, occupancies[i]);
+                checksum += sliders.bishopAttacks(coord, occupancies[i]);
+            }
+        }
+        final long elapsed = System.nanoTime() - startTime;
+        sink = checksum;
+        return elapsed;
+    }
+
+    /**
+     * Creates random occupancies with roughly middlegame density
+     * @return the sample occupancies
+     */
+    private static long[] createOccupancies() {
+        final Random random = new Random(SEED);
+        final long[] occupancies = new long[NUM_SAMPLES];
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            occupancies[i] = random.nextLong() & random.nextLong();
+        }
+        return occupancies;
+    }
+
+    /**
+     * Prints the time per lookup of every implementation and the one the engine would pick
+     * @param args unused
+     */
+    public static void main(final String[] args) {
+        final long[] occupancies = createOccupancies();
+        final long lookups = 2L * NUM_SAMPLES * MAIN_ROUNDS;
+        for (final SliderAttacks sliders : createAll()) {
+            time(sliders, occupancies, MAIN_ROUNDS);
+            final long elapsed = time(sliders, occupancies, MAIN_ROUNDS);
+            System.out.println(String.format("%-16s %6.2f ns/lookup", sliders, (double) elapsed / lookups));
+        }
+        System.out.println("Selected: " + BitboardUtils.SLIDER_ATTACKS);
+    }
+}
@@ -0,0 +1,142 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Static exchange evaluation (SEE). It works out what a capture wins once both sides have
+ * recaptured on its tile for as long as it pays, always with their least valuable attacker. No
+ * move is made: attackers come from the attack bitboards of the position, and taking each
+ * capturing piece off the occupancy uncovers the sliders behind it (x-rays). It works on any
+ * Position, so on both the Board and the SearchPosition. An instance keeps a scratch buffer so
+ * evaluating allocates nothing, and must only be used by one thread.
+ */
+public final class StaticExchange {
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    // a capture sequence can never be longer than the number of pieces
+    private static final int MAX_CAPTURES = 32;
+
+    // the material balance after each capture of the sequence being evaluated
+    private final int[] gain = new int[MAX_CAPTURES + 1];
+
+    /**
+     * Works out the material a capture or promotion wins for the side to move once the exchange
+     * on its tile is over, where either side may stop recapturing when it would lose by going on
+     * @param position the position the move was generated in
+     * @param move the packed move
+     * @return the material won, negative when the move loses material
+     */
+    public int evaluate(final Position position, final int move) {
+        final int startingCoord = PackedMove.getStartingCoord(move);
+        final int destCoord = PackedMove.getDestCoord(move);
+        final Alliance alliance = position.getCurrPlayerAlliance();
+        final int[] gain = this.gain;
+        long occupancy = position.getOccupancy() ^ BitboardUtils.tileBit(startingCoord);
+
+        PieceType onTile = findPieceType(position, alliance, startingCoord);
+        if (PackedMove.getFlag(move) == PackedMove.EN_PASSANT) {
+            gain[0] = PieceType.PAWN.getValue();
+            occupancy ^= BitboardUtils.tileBit(destCoord - BoardUtils.NUM_TILES_PER_ROW * alliance.getPawnDirection());
+        } else {
+            final PieceType victim = findPieceType(position, alliance.getOpposite(), destCoord);
+            gain[0] = victim == null ? 0 : victim.getValue();
+        }
+        if (PackedMove.isPromotion(move)) {
+            onTile = PackedMove.getPromotionType(move);
+            gain[0] += onTile.getValue() - PieceType.PAWN.getValue();
+        }
+
+        Alliance side = alliance.getOpposite();
+        int depth = 0;
+        while (true) {
+            // what the side gets if it recaptures, to be weighed against standing still
+            depth++;
+            gain[depth] = onTile.getValue() - gain[depth - 1];
+            if (Math.max(-gain[depth - 1], gain[depth]) < 0) {
+                break;
+            }
+            final long attackers = position.calcAttackersOnTile(destCoord, side, occupancy) & occupancy;
+            final PieceType attacker = findLeastValuable(position, side, attackers);
+            if (attacker == null) {
+                break;
+            }
+            final long attackerBit = Long.lowestOneBit(attackers & position.getPieces(side, attacker));
+            // the king may only recapture if the tile is no longer defended
+            if (attacker == PieceType.KING &&
+                (position.calcAttackersOnTile(destCoord, side.getOpposite(), occupancy ^ attackerBit) &
+                 (occupancy ^ attackerBit)) != 0L) {
+                break;
+            }
+            occupancy ^= attackerBit;
+            onTile = attacker;
+            side = side.getOpposite();
+        }
+        // the last entry is a capture nobody made, then each side picks the better of
+        // recapturing or not from the end of the sequence back to the first capture
+        while (--depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+        }
+        return gain[0];
+    }
+
+    /**
+     * Checks if a capture or promotion loses material. Capturing a piece worth at least the
+     * capturing piece, or capturing with the king, can never lose, so only the other captures
+     * need the exchange worked out.
+     * @param position the position the move was generated in
+     * @param move the packed move
+     * @return true if the exchange started by the move loses material
+     */
+    public boolean isLosing(final Position position, final int move) {
+        final Alliance alliance = position.getCurrPlayerAlliance();
+        final PieceType attacker = findPieceType(position, alliance, PackedMove.getStartingCoord(move));
+        if (attacker == PieceType.KING) {
+            return false;
+        }
+        if (!PackedMove.isPromotion(move)) {
+            final PieceType victim = PackedMove.getFlag(move) == PackedMove.EN_PASSANT
+                    ? PieceType.PAWN : findPieceType(position, alliance.getOpposite(), PackedMove.getDestCoord(move));
+            if (victim != null && victim.getValue() >= attacker.getValue()) {
+                return false;
+            }
+        }
+        return evaluate(position, move) < 0;
+    }
+
+    /**
+     * Finds the type of an alliance's piece on a tile
+     * @param position the position searched
+     * @param alliance the alliance of the piece
+     * @param coord the tile coordinate
+     * @return the type of the piece or null if the alliance has no piece on the tile
+     */
+    private static PieceType findPieceType(final Position position, final Alliance alliance, final int coord) {
+        final long bit = BitboardUtils.tileBit(coord);
+        for (final PieceType pieceType : PIECE_TYPES) {
+            if ((position.getPieces(alliance, pieceType) & bit) != 0L) {
+                return pieceType;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the least valuable type among an alliance's attackers
+     * @param position the position searched
+     * @param alliance the alliance of the attackers
+     * @param attackers the tiles of the attackers
+     * @return the least valuable piece type among the attackers or null if there are none
+     */
+    private static PieceType findLeastValuable(final Position position, final Alliance alliance, final long attackers) {
+        if (attackers == 0L) {
+            return null;
+        }
+        for (final PieceType pieceType : PIECE_TYPES) {
+            if ((attackers & position.getPieces(alliance, pieceType)) != 0L) {
+                return pieceType;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,161 @@
+package com.chess.engine.board;
+
+import java.util.SplittableRandom;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Utility class for Zobrist hashing. A position's key is the XOR of one random number per piece
+ * on its tile, one for black to move, one for the castling rights and one for the en passant
+ * file, so a move updates the key by XORing out what changed and XORing in what replaced it.
+ */
+public final class Zobrist {
+
+    // a fixed seed keeps keys stable between runs
+    private static final SplittableRandom RANDOM = new SplittableRandom(0x2F0B2157L);
+
+    private static final long[] PIECE_KEYS = initKeys(BitboardUtils.NUM_PIECE_INDICES * BoardUtils.NUM_TILES);
+    // the piece keys of pawns and 0 for every other piece, so the pawn key skips a branch
+    private static final long[] PAWN_KEYS = initPawnKeys();
+    private static final long[] CASTLING_KEYS = initKeys(16);
+    private static final long[] EN_PASSANT_KEYS = initKeys(BoardUtils.NUM_TILES_PER_ROW);
+    public static final long BLACK_TO_MOVE = RANDOM.nextLong();
+    // drawn last so the keys above stay the same
+    private static final long[] CASTLED_KEYS = initKeys(Alliance.values().length);
+
+    /**
+     * Constructor to prevent instantiation of this utility class.
+     * @throws a RuntimeException if an attempt is made to instantiate.
+     */
+    private Zobrist() {
+        throw new RuntimeException("You cannot instantiate Zobrist!");
+    }
+
+    /**
+     * Fills a table with random keys
+     * @param size the number of keys
+     * @return the table of keys
+     */
+    private static long[] initKeys(final int size) {
+        final long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = RANDOM.nextLong();
+        }
+        return keys;
+    }
+
+    /**
+     * Copies the piece keys of the pawns into a table of the same layout
+     * @return the table of pawn keys
+     */
+    private static long[] initPawnKeys() {
+        final long[] keys = new long[PIECE_KEYS.length];
+        for (final Alliance alliance : Alliance.values()) {
+            final int start = BitboardUtils.pieceIndex(alliance, PieceType.PAWN) * BoardUtils.NUM_TILES;
+            System.arraycopy(PIECE_KEYS, start, keys, start, BoardUtils.NUM_TILES);
+        }
+        return keys;
+    }
+
+    /**
+     * Gets the key of a piece on a tile
+     * @param pieceIndex the bitboard index of the piece, see BitboardUtils.pieceIndex
+     * @param coord the tile coordinate
+     * @return the key of the piece on the tile
+     */
+    public static long pieceKey(final int pieceIndex, final int coord) {
+        return PIECE_KEYS[pieceIndex * BoardUtils.NUM_TILES + coord];
+    }
+
+    /**
+     * Gets the key a piece on a tile adds to the pawn key
+     * @param pieceIndex the bitboard index of the piece, see BitboardUtils.pieceIndex
+     * @param coord the tile coordinate
+     * @return the key of the pawn on the tile or 0 if the piece is not a pawn
+     */
+    public static long pawnKey(final int pieceIndex, final int coord) {
+        return PAWN_KEYS[pieceIndex * BoardUtils.NUM_TILES + coord];
+    }
+
+    /**
+     * Gets the key of a piece on a tile
+     * @param piece the piece
+     * @param coord the tile coordinate
+     * @return the key of the piece on the tile
+     */
+    public static long pieceKey(final Piece piece, final int coord) {
+        return pieceKey(BitboardUtils.pieceIndex(piece.getAlliance(), piece.getPieceType()), coord);
+    }
+
+    /**
+     * Gets the key of a set of castling rights
+     * @param castlingRights the castling rights bits
+     * @return the key of the castling rights
+     */
+    public static long castlingKey(final int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    /**
+     * Gets the key of an alliance having castled. It is not part of a position's key, but lets
+     * caches whose entries depend on castling tell such positions apart.
+     * @param alliance the alliance that castled
+     * @return the key of the alliance having castled
+     */
+    public static long castledKey(final Alliance alliance) {
+        return CASTLED_KEYS[alliance.ordinal()];
+    }
+
+    /**
+     * Gets the key of an en passant tile. Only the file matters, since the rank follows from
+     * the side to move.
+     * @param enPassantCoord the en passant tile or Position.NO_EN_PASSANT
+     * @return the key of the en passant file or 0 when there is none
+     */
+    public static long enPassantKey(final int enPassantCoord) {
+        return enPassantCoord == Position.NO_EN_PASSANT ? 0L : EN_PASSANT_KEYS[enPassantCoord % BoardUtils.NUM_TILES_PER_ROW];
+    }
+
+    /**
+     * Computes the key of a position from scratch
+     * @param position the position being hashed
+     * @return the Zobrist key of the position
+     */
+    public static long calcKey(final Position position) {
+        long key = 0L;
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType pieceType : PieceType.values()) {
+                final int pieceIndex = BitboardUtils.pieceIndex(alliance, pieceType);
+                long pieces = position.getPieces(alliance, pieceType);
+                while (pieces != 0L) {
+                    key ^= pieceKey(pieceIndex, Long.numberOfTrailingZeros(pieces));
+                    pieces &= pieces - 1;
+                }
+            }
+        }
+        if (position.getCurrPlayerAlliance().isBlack()) {
+            key ^= BLACK_TO_MOVE;
+        }
+        return key ^ castlingKey(position.getCastlingRights()) ^ enPassantKey(position.getEnPassantCoord());
+    }
+
+    /**
+     * Computes the pawn key of a position from scratch
+     * @param position the position being hashed
+     * @return the XOR of the keys of the pawns of both alliances
+     */
+    public static long calcPawnKey(final Position position) {
+        long key = 0L;
+        for (final Alliance alliance : Alliance.values()) {
+            final int pieceIndex = BitboardUtils.pieceIndex(alliance, PieceType.PAWN);
+            long pawns = position.getPieces(alliance, PieceType.PAWN);
+            while (pawns != 0L) {
+                key ^= pieceKey(pieceIndex, Long.numberOfTrailingZeros(pawns));
+                pawns &= pawns - 1;
+            }
+        }
+        return key;
+    }
+}
@@ -7,20 +7,16 @@ import java.util.List;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.BitboardUtils;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.MoveUtils;
 import com.chess.engine.board.Move.AttackMove;
 import com.chess.engine.board.Move.PassiveMove;
-import com.chess.engine.player.Player;
-import com.chess.engine.board.Tile;
 
 /**
  * This class represents a single king on the chessboard
  */
 public class King extends Piece {
     private final boolean hasCastled;
-    private static final int[] CANDIDATE_MOVE_OFFSETS = { -9, -8, -7, -1, 1, 7, 8, 9 };
 
     /**
      * Constructor that sets the position and the alliance of the king based on the passed params. It also sets the hasMoved field to false
@@ -46,60 +42,28 @@ public class King extends Piece {
     }
 
     /**
-     * Calculates all legal moves that a king can make
+     * Calculates all pseudo-legal moves that a king can make
      * @param board the current state of the board
-     * @return a list of all legal moves a king can make
+     * @return a list of all pseudo-legal moves a king can make
      */
     @Override
-    public Collection<Move> calcLegalMoves(Board board) {
+    public Collection<Move> calcPseudoLegalMoves(Board board) {
         final List<Move> legalMoves = new ArrayList<>();
-        for (final int offset : CANDIDATE_MOVE_OFFSETS) {
-
-            // edge cases
-            if (!BoardUtils.isValidTileCoord(this.position) || isColumnAExclusion(this.position, offset)
-                    || isColumnHExclusion(this.position, offset)) {
-                continue;
+        // find all possible destinations not occupied by friendly pieces
+        long destinations = BitboardUtils.KING_ATTACKS[this.position] & ~board.getOccupancy(this.alliance);
+        while (destinations != 0L) {
+            final int destCoord = Long.numberOfTrailingZeros(destinations);
+            destinations &= destinations - 1;
+            final Piece pieceAtDest = board.getPiece(destCoord);
+            // tile is unoccupied
+            if (pieceAtDest == null) {
+                legalMoves.add(new PassiveMove(board, this, destCoord));
             }
-            final int destCoord = this.position + offset;
-            // is valid tile
-            if (BoardUtils.isValidTileCoord(destCoord)) {
-                final Tile destTile = board.getTile(destCoord);
-                // tile is unoccupied
-                if (!destTile.isOccupied()) {
-                    legalMoves.add(new PassiveMove(board, this, destCoord));
-                }
-                // tile is occupied 
-                else {
-                    // check if piece is capturable
-                    final Piece pieceAtDest = destTile.getPiece();
-                    final Alliance allianceAtDest = pieceAtDest.getAlliance();
-                    // enemy piece on destination tile
-                    if (this.alliance != allianceAtDest) {
-                        legalMoves.add(new AttackMove(board, this, destCoord, pieceAtDest));
-                    }
-                }
+            // enemy piece on destination tile
+            else {
+                legalMoves.add(new AttackMove(board, this, destCoord, pieceAtDest));
             }
         }
-        // add castle moves
-        if (board.getWhitePlayer() != null && this.alliance.isWhite()) {
-            Player whitePlayer = board.getWhitePlayer();
-            legalMoves.addAll(whitePlayer.calcCastleMoves(whitePlayer.getLegalMoves(),
-                    whitePlayer.getOpponent().getLegalMoves()));
-        }
-        else if (board.getBlackPlayer() != null && this.alliance.isBlack()) {
-            Player blackPlayer = board.getBlackPlayer();
-            legalMoves.addAll(blackPlayer.calcCastleMoves(blackPlayer.getLegalMoves(),
-                    blackPlayer.getOpponent().getLegalMoves()));
-        }
-
-        // filter out moves that put king in check
-        if (board.getWhitePlayer() != null && this.alliance.isWhite()) {
-            return MoveUtils.pruneIllegalMoves(legalMoves, board.getWhitePlayer());
-        }
-        else if (board.getBlackPlayer() != null && this.alliance.isBlack()) {
-            return MoveUtils.pruneIllegalMoves(legalMoves, board.getBlackPlayer());
-        }
-        
         return Collections.unmodifiableList(legalMoves);
     }
 
@@ -120,32 +84,6 @@ public class King extends Piece {
         return this.hasCastled;
     }
     
-    /**
-     * Checks if the king is on column A and if the given move offset 
-     * would cause it to wrap around to the wrong position
-     *
-     * @param currPos The current position of the king on the board.
-     * @param candidateOffset The move offset being considered.
-     * @return true if the move is invalid due to the king being in column A, false otherwise.
-     */
-    private static boolean isColumnAExclusion(final int currPos, final int candidateOffset) {
-        return BoardUtils.COLUMN_A[currPos] && (candidateOffset == -9 || candidateOffset == -1
-                || candidateOffset == 7);
-    }
-    
-    /**
-     * Checks if the king is on column H and if the given move offset 
-     * would cause it to wrap around to the wrong position
-     *
-     * @param currPos The current position of the king on the board.
-     * @param candidateOffset The move offset being considered.
-     * @return true if the move is invalid due to the king being in column B, false otherwise.
-     */
-    private static boolean isColumnHExclusion(final int currPos, final int candidateOffset) {
-        return BoardUtils.COLUMN_H[currPos] && (candidateOffset == -7 || candidateOffset == 1
-                || candidateOffset == 9);
-    }
-    
     /**
      * Creates a new king based on the move
      * @param move the move that was made
@@ -6,6 +6,7 @@ import java.util.Collections;
 import java.util.List;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitboardUtils;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
@@ -14,14 +15,11 @@ import com.chess.engine.board.Move.PawnEnPassantAttackMove;
 import com.chess.engine.board.Move.PawnJumpMove;
 import com.chess.engine.board.Move.PawnMove;
 import com.chess.engine.board.Move.PawnPromotion;
-import com.chess.engine.board.MoveUtils;
 
 /**
  * This class represents a single pawn on a chessboard
  */
 public class Pawn extends Piece{
-    private static final int[] CANDIDATE_MOVE_OFFSETS = { 7, 8, 9, 16 };
-
     /**
      * Constructor that sets the position and the alliance of the pawn based on the passed params. It also sets the hasMoved field to false
      * @param position the position the pawn is in 
@@ -41,105 +39,55 @@ public class Pawn extends Piece{
     }
 
     /**
-     * Calculates all legal moves that a pawn can make
+     * Calculates all pseudo-legal moves that a pawn can make
      * @param board the current state of the board
-     * @return a list of all legal moves a pawn can make
+     * @return a list of all pseudo-legal moves a pawn can make
      */
     @Override
-    public Collection<Move> calcLegalMoves(Board board) {
+    public Collection<Move> calcPseudoLegalMoves(Board board) {
         final List<Move> legalMoves = new ArrayList<>();
-        for (final int offset : CANDIDATE_MOVE_OFFSETS) {
-            int destCoord = this.position + (offset * this.alliance.getPawnDirection());
-            // valid tile coord
-            if (!BoardUtils.isValidTileCoord(destCoord)) {
-                continue;
-            }
-            // regular pawn move if tile is unocuppied
-            if (offset == 8 && !board.getTile(destCoord).isOccupied()) {
-                // check for pawn promotion
-                if (this.alliance.isPawnPromotionSquare(destCoord)) {
-                    legalMoves.add(new PawnPromotion(new PawnMove(board, this, destCoord)));
-                } else {
-                    legalMoves.add(new PawnMove(board, this, destCoord));
-                }
-            }
-            // pawn jump iff pawn hasn't moved
-            else if (offset == 16 && !this.hasMoved &&
-                    ((BoardUtils.RANK_7[this.position] && this.alliance.isBlack()) ||
-                            (BoardUtils.RANK_2[this.position] && this.alliance.isWhite()))) {
-                final int behindDestCoord = this.position + (8 * this.alliance.getPawnDirection());
-                // two tiles in front aren't occupied
-                if (!board.getTile(behindDestCoord).isOccupied() &&
-                        !board.getTile(destCoord).isOccupied()) {
-                    legalMoves.add(new PawnJumpMove(board, this, destCoord));
-                }
+        final int pushCoord = this.position + (8 * this.alliance.getPawnDirection());
+        // regular pawn move if tile is unoccupied
+        if (BoardUtils.isValidTileCoord(pushCoord) && board.getPiece(pushCoord) == null) {
+            // check for pawn promotion
+            if (this.alliance.isPawnPromotionSquare(pushCoord)) {
+                legalMoves.add(new PawnPromotion(new PawnMove(board, this, pushCoord)));
+            } else {
+                legalMoves.add(new PawnMove(board, this, pushCoord));
             }
-            // atacking move on diagonal
-            else if (offset == 7 &&
-                    !((BoardUtils.COLUMN_H[this.position] && this.alliance.isWhite()) ||
-                            (BoardUtils.COLUMN_A[this.position] && this.alliance.isBlack()))) {
-                // tile must be occupied
-                if (board.getTile(destCoord).isOccupied()) {
-                    // check if piece is capturable
-                    Piece pieceOnTile = board.getTile(destCoord).getPiece();
-                    if (this.alliance != pieceOnTile.getAlliance()) {
-                        // check for pawn promotion
-                        if (this.alliance.isPawnPromotionSquare(destCoord)) {
-                            legalMoves.add(new PawnPromotion(new PawnAttackMove(board, this, destCoord, pieceOnTile)));
-                        } else {
-                            legalMoves.add(new PawnAttackMove(board, this, destCoord, pieceOnTile));
-                        }
-                    }
-                }
-                // check for en passant play
-                else if (board.getEnPassantPawn() != null) {
-                    if (board.getEnPassantPawn()
-                            .getPosition() == (this.position + this.getAlliance().getOppositePawnDirection())) {
-                        final Piece pieceOnTile = board.getEnPassantPawn();
-                        if (this.alliance != pieceOnTile.getAlliance()) {
-                            legalMoves.add(new PawnEnPassantAttackMove(board, this, destCoord, pieceOnTile));
-                        }
-                    }
-                }
-            }
-            // atacking move on diagonal
-            else if (offset == 9 &&
-                    !((BoardUtils.COLUMN_A[this.position] && this.alliance.isWhite()) ||
-                            (BoardUtils.COLUMN_H[this.position] && this.alliance.isBlack()))) {
-                // tile must be occupied
-                if (board.getTile(destCoord).isOccupied()) {
-                    // check if piece is capturable
-                    Piece pieceOnTile = board.getTile(destCoord).getPiece();
-                    if (this.alliance != pieceOnTile.getAlliance()) {
-                        // check for pawn promotion
-                        if (this.alliance.isPawnPromotionSquare(destCoord)) {
-                            legalMoves.add(new PawnPromotion(new PawnAttackMove(board, this, destCoord, pieceOnTile)));
-                        } else {
-                            legalMoves.add(new PawnAttackMove(board, this, destCoord, pieceOnTile));
-                        }
-                    }
-                }
-                // check for en passant play
-                else if (board.getEnPassantPawn() != null) {
-                    if (board.getEnPassantPawn()
-                            .getPosition() == (this.position + this.getAlliance().getPawnDirection())) {
-                        final Piece pieceOnTile = board.getEnPassantPawn();
-                        if (this.alliance != pieceOnTile.getAlliance()) {
-                            legalMoves.add(new PawnEnPassantAttackMove(board, this, destCoord, pieceOnTile));
-                        }
-                    }
-                }
+            // pawn jump iff pawn hasn't moved and both tiles in front are unoccupied
+            final long startingRank = this.alliance.isWhite() ? BitboardUtils.RANK_2 : BitboardUtils.RANK_7;
+            final int jumpCoord = pushCoord + (8 * this.alliance.getPawnDirection());
+            if (!this.hasMoved && (startingRank & BitboardUtils.tileBit(this.position)) != 0L &&
+                    board.getPiece(jumpCoord) == null) {
+                legalMoves.add(new PawnJumpMove(board, this, jumpCoord));
             }
         }
-        
-        // filter out moves that put king in check
-        if (board.getWhitePlayer() != null && this.alliance.isWhite()) {
-            return MoveUtils.pruneIllegalMoves(legalMoves, board.getWhitePlayer());
+
+        // attacking moves on the diagonals
+        final long attacks = BitboardUtils.pawnAttacks(this.alliance, this.position);
+        long captures = attacks & board.getOccupancy(this.alliance.getOpposite());
+        while (captures != 0L) {
+            final int destCoord = Long.numberOfTrailingZeros(captures);
+            captures &= captures - 1;
+            final Piece pieceOnTile = board.getPiece(destCoord);
+            // check for pawn promotion
+            if (this.alliance.isPawnPromotionSquare(destCoord)) {
+                legalMoves.add(new PawnPromotion(new PawnAttackMove(board, this, destCoord, pieceOnTile)));
+            } else {
+                legalMoves.add(new PawnAttackMove(board, this, destCoord, pieceOnTile));
+            }
         }
-        else if (board.getBlackPlayer() != null && this.alliance.isBlack()) {
-            return MoveUtils.pruneIllegalMoves(legalMoves, board.getBlackPlayer());
+
+        // check for en passant play onto the tile the enemy pawn jumped over
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if (enPassantPawn != null && enPassantPawn.getAlliance() != this.alliance) {
+            final int destCoord = enPassantPawn.getPosition() + (8 * this.alliance.getPawnDirection());
+            if ((attacks & BitboardUtils.tileBit(destCoord)) != 0L && board.getPiece(destCoord) == null) {
+                legalMoves.add(new PawnEnPassantAttackMove(board, this, destCoord, enPassantPawn));
+            }
         }
-        
+
         return Collections.unmodifiableList(legalMoves);
     }
     
@@ -1,9 +1,14 @@
 package com.chess.engine.pieces;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
+import com.chess.engine.player.Player;
 
 /**
  * This class represents a single piece on a chessboard
@@ -109,12 +114,29 @@ public abstract class Piece {
         return this.pieceType.getValue();
     }
     
+    /**
+     * Calculates all moves that a piece can make, including ones that leave its king attacked.
+     * Castles are added by the player, not the king.
+     * @param board the current state of the board
+     * @return a list of all pseudo-legal moves a piece can make
+     */
+    public abstract Collection<Move> calcPseudoLegalMoves(final Board board);
+
     /**
      * Calculates all legal moves that a piece can make
      * @param board the current state of the board
-     * @return a list of all legal moves a piece can make
+     * @return a list of all legal moves a piece can make, castles included for a king
      */
-    public abstract Collection<Move> calcLegalMoves(final Board board);
+    public Collection<Move> calcLegalMoves(final Board board) {
+        final Player player = this.alliance.isWhite() ? board.getWhitePlayer() : board.getBlackPlayer();
+        final List<Move> legalMoves = new ArrayList<>();
+        for (final Move move : player.getLegalMoves()) {
+            if (this.equals(move.getMovedPiece())) {
+                legalMoves.add(move);
+            }
+        }
+        return Collections.unmodifiableList(legalMoves);
+    }
 
     /**
      * Creates a new piece based on the move
@@ -7,21 +7,16 @@ import java.util.List;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.BitboardUtils;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Move.AttackMove;
 import com.chess.engine.board.Move.PassiveMove;
-import com.chess.engine.board.MoveUtils;
-import com.chess.engine.board.Tile;
 
 /**
  * This class represents a single queen on a chessboard
  */
 public class Queen extends Piece{
 
-    private static final int[] CANDIDATE_MOVE_OFFSETS = { -9, -8, -7, -1, 1, 7, 8, 9 };
-
-
     /**
      * Constructor that sets the position and the alliance of the queen based on the passed params. It also sets the hasMoved field to false
      * @param position the position the queen is in 
@@ -41,51 +36,29 @@ public class Queen extends Piece{
     }
 
     /**
-     * Calculates all legal moves that a queen can make
+     * Calculates all pseudo-legal moves that a queen can make
      * @param board the current state of the board
-     * @return a list of all legal moves a queen can make
+     * @return a list of all pseudo-legal moves a queen can make
      */
     @Override
-    public Collection<Move> calcLegalMoves(final Board board) {
+    public Collection<Move> calcPseudoLegalMoves(final Board board) {
         final List<Move> legalMoves = new ArrayList<>();
-        for (final int offset : CANDIDATE_MOVE_OFFSETS) {
-            int destCoord = this.position;
-            // check edge cases
-            while (BoardUtils.isValidTileCoord(destCoord)) {
-                if (isColumnAExclusion(destCoord, offset) || isColumnHExclusion(destCoord, offset)) {
-                    break;
-                }
-                destCoord += offset;
-                // valid tile
-                if (BoardUtils.isValidTileCoord(destCoord)) {
-                    final Tile destTile = board.getTile(destCoord);
-                    // tile is unoccupied
-                    if (!destTile.isOccupied()) {
-                        legalMoves.add(new PassiveMove(board, this, destCoord));
-                    }
-                    // tile is occupied 
-                    else {
-                        // check if piece is capturable
-                        final Piece pieceAtDest = destTile.getPiece();
-                        final Alliance allianceAtDest = pieceAtDest.getAlliance();
-                        // enemy piece on destination tile
-                        if (this.alliance != allianceAtDest) {
-                            legalMoves.add(new AttackMove(board, this, destCoord, pieceAtDest));
-                        }
-                        // can't go any farther bc piece is blocking
-                        break;
-                    }
-                }
+        // every attacked tile not occupied by a friendly piece
+        long destinations = BitboardUtils.queenAttacks(this.position, board.getOccupancy()) & ~board.getOccupancy(this.alliance);
+        while (destinations != 0L) {
+            final int destCoord = Long.numberOfTrailingZeros(destinations);
+            destinations &= destinations - 1;
+            final Piece pieceAtDest = board.getPiece(destCoord);
+            // tile is unoccupied
+            if (pieceAtDest == null) {
+                legalMoves.add(new PassiveMove(board, this, destCoord));
+            }
+            // enemy piece on destination tile
+            else {
+                legalMoves.add(new AttackMove(board, this, destCoord, pieceAtDest));
             }
         }
-        // filter out moves that put king in check
-        if (board.getWhitePlayer() != null && this.alliance.isWhite()) {
-            return MoveUtils.pruneIllegalMoves(legalMoves, board.getWhitePlayer());
-        }
-        else if (board.getBlackPlayer() != null && this.alliance.isBlack()) {
-            return MoveUtils.pruneIllegalMoves(legalMoves, board.getBlackPlayer());
-        }
-
+        
         return Collections.unmodifiableList(legalMoves);
     }
 
@@ -98,30 +71,6 @@ public class Queen extends Piece{
         return PieceType.QUEEN.toString();
     }
     
-    /**
-     * Checks if the queen is on column A and if the given move offset 
-     * would cause it to wrap around to the wrong position
-     *
-     * @param currPos The current position of the queen on the board.
-     * @param candidateOffset The move offset being considered.
-     * @return true if the move is invalid due to the queen being in column A, false otherwise.
-     */
-    private static boolean isColumnAExclusion(final int currPos, final int candidateOffset) {
-        return BoardUtils.COLUMN_A[currPos] && (candidateOffset == -9 || candidateOffset == -1 || candidateOffset == 7);
-    }
-
-    /**
-     * Checks if the queen is on column H and if the given move offset 
-     * would cause it to wrap around to the wrong position
-     *
-     * @param currPos The current position of the queen on the board.
-     * @param candidateOffset The move offset being considered.
-     * @return true if the move is invalid due to the queen being in column H, false otherwise.
-     */
-    private static boolean isColumnHExclusion(final int currPos, final int candidateOffset) {
-        return BoardUtils.COLUMN_H[currPos] && (candidateOffset == -7 || candidateOffset == 1 || candidateOffset == 9);
-    }
-    
     /**
      * Creates a new queen based on the move
      * @param move the move that was made
@@ -19,12 +19,10 @@ public class BlackPlayer extends Player{
     /**
      * Constructor that creates a black player
      * @param board the board used to play the game
-     * @param blackMoves All legal moves that white can make
-     * @param blackMoves All legal moves that black can make
+     * @param blackMoves All pseudo-legal moves that black can make
      */
-    public BlackPlayer
-        (final Board board, final Collection<Move> whiteMoves, final Collection<Move> blackMoves) {
-        super(board, blackMoves, whiteMoves);
+    public BlackPlayer(final Board board, final Collection<Move> blackMoves) {
+        super(board, blackMoves);
     }
 
     /**
@@ -88,12 +86,10 @@ public class BlackPlayer extends Player{
 
     /**
      * Finds all the castle moves the black player can make
-     * @param legalMoves the moves that black can make
-     * @param opponentMoves the moves that white can make
      * @return all the castle moves the black player can make
      */
     @Override
-    public Collection<Move> calcCastleMoves(final Collection<Move> legalMoves, final Collection<Move> opponentMoves) {
+    public Collection<Move> calcCastleMoves() {
         final List<Move> castleMoves = new ArrayList<>();
         // king hasn't moved nor is in check
         if (!this.king.hasMoved() && !this.isInCheck()) {
@@ -106,8 +102,8 @@ public class BlackPlayer extends Player{
                         rookTile.getPiece().getPieceType().isRook() &&
                         !rookTile.getPiece().hasMoved()) {
                     // check not castling thru check
-                    if (calculateAttacksOnTile(5, opponentMoves).isEmpty() &&
-                            calculateAttacksOnTile(6, opponentMoves).isEmpty()) {
+                    if (!this.board.isTileAttacked(5, Alliance.WHITE) &&
+                            !this.board.isTileAttacked(6, Alliance.WHITE)) {
                         castleMoves.add(new KingSideCastleMove(this.board, this.king, 6, (Rook) rookTile.getPiece(), rookTile.getCoord(), 5));
                     }
                 }
@@ -124,8 +120,8 @@ public class BlackPlayer extends Player{
                         rookTile.getPiece().getPieceType().isRook() &&
                         !rookTile.getPiece().hasMoved()) {
                     // check not castling thru check
-                    if (calculateAttacksOnTile(3, opponentMoves).isEmpty() &&
-                            calculateAttacksOnTile(2, opponentMoves).isEmpty()) {
+                    if (!this.board.isTileAttacked(3, Alliance.WHITE) &&
+                            !this.board.isTileAttacked(2, Alliance.WHITE)) {
                         castleMoves.add(new QueenSideCastleMove(this.board, this.king, 2, (Rook) rookTile.getPiece(), rookTile.getCoord(), 3));
                     }
                 }
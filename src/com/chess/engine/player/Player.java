@@ -7,6 +7,7 @@ import java.util.List;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
+import com.chess.engine.board.KingSafety;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.MoveStatus;
 import com.chess.engine.board.MoveTransition;
@@ -19,21 +20,37 @@ import com.chess.engine.pieces.Piece;
 public abstract class Player {
     protected final Board board;
     protected final King king;
+    protected final Collection<Move> pseudoLegalMoves;
     protected final Collection<Move> legalMoves;
-    private final boolean isInCheck;
+    private final KingSafety kingSafety;
 
     /**
      * Constructor that creates a player
      * @param board the board being used to play the game
-     * @param playerLegals the possible moves this player can make
-     * @param opponentMoves the possible moves the other player can make
+     * @param playerMoves the pseudo-legal moves this player can make, not counting castles
      */
-    Player(final Board board, final Collection<Move> playerLegals, final Collection<Move> opponentMoves) {
+    Player(final Board board, final Collection<Move> playerMoves) {
         this.board = board;
         this.king = establishKing();
-        this.isInCheck = !Player.calculateAttacksOnTile(this.king.getPosition(), opponentMoves).isEmpty();
-        playerLegals.addAll(calcCastleMoves(playerLegals, opponentMoves));
-        this.legalMoves = Collections.unmodifiableCollection(playerLegals);        
+        this.kingSafety = new KingSafety(board, this.getAlliance());
+        playerMoves.addAll(calcCastleMoves());
+        this.pseudoLegalMoves = Collections.unmodifiableCollection(playerMoves);
+        this.legalMoves = filterLegalMoves(playerMoves);
+    }
+
+    /**
+     * Keeps the moves that do not leave the player's king attacked
+     * @param moves the pseudo-legal moves of the player
+     * @return the legal moves of the player
+     */
+    public Collection<Move> filterLegalMoves(final Collection<Move> moves) {
+        final List<Move> legalMoves = new ArrayList<>(moves.size());
+        for (final Move move : moves) {
+            if (this.kingSafety.isLegal(move)) {
+                legalMoves.add(move);
+            }
+        }
+        return Collections.unmodifiableList(legalMoves);
     }
 
     /**
@@ -67,22 +84,13 @@ public abstract class Player {
     public Collection<Move> getLegalMoves(){
         return this.legalMoves;
     }
-        
+
     /**
-     * Finds all opponent moves that are attacking one tile
-     * @param position the tile we are checking 
-     * @param opponentMoves All moves an opponent can make
-     * @return all moves that attack the tile at the passed position
-     */
-    protected static Collection<Move> calculateAttacksOnTile(int position,
-            Collection<Move> opponentMoves) {
-        final List<Move> attackMoves = new ArrayList<>();
-        for (Move move : opponentMoves) {
-            if (move.getDestCoord() == position) {
-                attackMoves.add(move);
-            }
-        }
-        return Collections.unmodifiableList(attackMoves);
+     * Gets every move a player's pieces can make, including ones that leave their king attacked
+     * @return all pseudo-legal moves a player can make
+     */
+    public Collection<Move> getPseudoLegalMoves() {
+        return this.pseudoLegalMoves;
     }
         
     /**
@@ -114,7 +122,7 @@ public abstract class Player {
      * @return true if the current player is in check and false otherwise
      */
     public boolean isInCheck() {
-        return this.isInCheck;
+        return this.kingSafety.isInCheck();
     }
 
     /**
@@ -130,21 +138,15 @@ public abstract class Player {
      * @return true if the current player is in stalemate and false otherwise
      */
     public boolean isInStalemate() {
-        return !this.isInCheck && !hasEscapeMoves();
+        return !this.isInCheck() && !hasEscapeMoves();
     }
 
     /**
-     * Checks if any of a player's moves will result in them being in check
+     * Checks if the player has any move that does not leave them in check
      * @return true if they have any escape moves and false otherwise
      */
     protected boolean hasEscapeMoves() {
-        for (final Move move : this.legalMoves) {
-            final MoveTransition moveTransition = makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                return true;
-            }
-        }
-        return false;
+        return !this.legalMoves.isEmpty();
     }
 
     /**
@@ -155,23 +157,25 @@ public abstract class Player {
         return this.king.hasCastled();
     }
 
+    /**
+     * Makes a move for this player
+     * @param move the move being made
+     * @return the transition holding the new board if the move was legal, or the old board and
+     *         the reason the move was rejected otherwise
+     */
     public MoveTransition makeMove(final Move move) {
-        // check if move is illegal
-        if (!this.isMoveLegal(move)) {
+        // check the piece can make the move at all
+        if (!this.pseudoLegalMoves.contains(move)) {
             return new MoveTransition(this.board, move, MoveStatus.ILLEGAL);
         }
-        final Board transitionBoard = move.execute();
-        
+
         // check if move leaves player in check
-        final Collection<Move> attacksOnKing = Player.calculateAttacksOnTile(
-            transitionBoard.getCurrPlayer().getOpponent().getKing().getPosition(),
-                transitionBoard.getCurrPlayer().getLegalMoves());
-        if (!attacksOnKing.isEmpty()) {
+        if (!this.kingSafety.isLegal(move)) {
             return new MoveTransition(this.board, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
         }
 
         // move is legal
-        return new MoveTransition(transitionBoard, move, MoveStatus.DONE);
+        return new MoveTransition(move.execute(), move, MoveStatus.DONE);
     }
 
     /**
@@ -192,5 +196,9 @@ public abstract class Player {
      */
     public abstract Player getOpponent();
 
-    public abstract Collection<Move> calcCastleMoves(Collection<Move>legalMoves,                 Collection<Move> opponentMoves);
+    /**
+     * Finds all the castle moves the player can make
+     * @return all the castle moves the player can make
+     */
+    public abstract Collection<Move> calcCastleMoves();
 }
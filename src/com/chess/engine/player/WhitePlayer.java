@@ -18,13 +18,12 @@ import com.chess.engine.pieces.Piece.PieceType;
 public class WhitePlayer extends Player{
 
     /**
-     * Constructor that creates a black player
+     * Constructor that creates a white player
      * @param board the board used to play the game
-     * @param whiteMoves All legal moves that white can make
-     * @param blackMoves All legal moves that black can make
+     * @param whiteMoves All pseudo-legal moves that white can make
      */
-    public WhitePlayer (final Board board, final Collection<Move> whiteMoves, final Collection<Move> blackMoves) {
-        super(board, whiteMoves, blackMoves); 
+    public WhitePlayer(final Board board, final Collection<Move> whiteMoves) {
+        super(board, whiteMoves);
     }
 
     /**
@@ -88,12 +87,10 @@ public class WhitePlayer extends Player{
     
     /**
      * Finds all the castle moves the white player can make
-     * @param legalMoves the moves that white can make
-     * @param opponentMoves the moves that black can make
      * @return all the castle moves the white player can make
      */
     @Override
-    public Collection<Move> calcCastleMoves(final Collection<Move> legalMoves, final Collection<Move> opponentMoves) {
+    public Collection<Move> calcCastleMoves() {
         final List<Move> castleMoves = new ArrayList<>();
         // king hasn't moved nor is in check nor has castled
         if (!this.hasCastled() && !this.king.hasMoved() && !this.isInCheck()) {
@@ -106,8 +103,8 @@ public class WhitePlayer extends Player{
                     rookTile.getPiece().getPieceType().isRook() &&
                     !rookTile.getPiece().hasMoved()) {
                     // check not castling thru check
-                    if (calculateAttacksOnTile(61, opponentMoves).isEmpty() &&
-                        calculateAttacksOnTile(62, opponentMoves).isEmpty()) {
+                    if (!this.board.isTileAttacked(61, Alliance.BLACK) &&
+                        !this.board.isTileAttacked(62, Alliance.BLACK)) {
                         castleMoves.add(new KingSideCastleMove(this.board, this.king, 62, (Rook) rookTile.getPiece(), rookTile.getCoord(), 61));
                     }
                 }
@@ -124,8 +121,8 @@ public class WhitePlayer extends Player{
                     rookTile.getPiece().getPieceType().isRook() &&
                     !rookTile.getPiece().hasMoved()) {
                     // check not castling thru check
-                    if (calculateAttacksOnTile(59, opponentMoves).isEmpty() &&
-                        calculateAttacksOnTile(58, opponentMoves).isEmpty()) {
+                    if (!this.board.isTileAttacked(59, Alliance.BLACK) &&
+                        !this.board.isTileAttacked(58, Alliance.BLACK)) {
                         castleMoves.add(new QueenSideCastleMove(this.board, this.king, 58, (Rook) rookTile.getPiece(), rookTile.getCoord(), 59));
                     }
                 }
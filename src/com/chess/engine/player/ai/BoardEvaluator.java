@@ -1,7 +1,29 @@
 package com.chess.engine.player.ai;
 
-import com.chess.engine.board.Board;
+import com.chess.engine.board.Position;
 
 public interface BoardEvaluator {
-    int evaluate(Board board, int depth);
+    int evaluate(Position position, int depth);
+
+    /**
+     * Scores the part of the evaluation that only depends on the position, which an
+     * EvaluationCache may keep by the position's Zobrist key
+     * @param position the position being evaluated
+     * @return the static score, positive when white is better
+     */
+    default int evaluateStatic(final Position position) {
+        return evaluate(position, 0);
+    }
+
+    /**
+     * Scores the part of the evaluation that depends on the remaining search depth, so that
+     * evaluateStatic plus this equals evaluate. Evaluators that know which of their terms depend
+     * on the depth should override both methods.
+     * @param position the position being evaluated
+     * @param depth the remaining search depth
+     * @return the depth-dependent score, positive when white is better
+     */
+    default int evaluateDynamic(final Position position, final int depth) {
+        return depth == 0 ? 0 : evaluate(position, depth) - evaluateStatic(position);
+    }
 }
@@ -0,0 +1,144 @@
+package com.chess.engine.player.ai;
+
+import java.util.Arrays;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Position;
+import com.chess.engine.board.Zobrist;
+
+/**
+ * A BoardEvaluator that remembers the static scores of another evaluator by the Zobrist key of
+ * the position, so a position reached again through a transposition is not evaluated again. The
+ * depth-dependent part of the score is never cached and is asked for on every call.
+ *
+ * The cache is direct-mapped and lossy: a new score simply replaces the one in its slot. Like the
+ * transposition table each entry is two longs, the data word and the key XORed with the data
+ * word, so threads can share the cache without locks and a half written entry is a miss. The data
+ * word holds a valid bit in bit 0 and the score in the upper 32 bits.
+ */
+public final class EvaluationCache implements BoardEvaluator {
+
+    public static final int DEFAULT_SIZE_MB = 4;
+
+    private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+    private static final long VALID = 1L;
+    private static final int SCORE_SHIFT = 32;
+    // the castle bonus depends on whether a king castled, which the Zobrist key leaves out
+    private static final long WHITE_CASTLED_KEY = Zobrist.castledKey(Alliance.WHITE);
+    private static final long BLACK_CASTLED_KEY = Zobrist.castledKey(Alliance.BLACK);
+
+    private final BoardEvaluator boardEvaluator;
+    private final int sizeMB;
+    private final long[] entries;
+    private final int indexMask;
+    // counted without synchronisation, so approximate when threads share the cache
+    private long probes;
+    private long hits;
+
+    /**
+     * Constructor for an evaluation cache. The number of entries is rounded down to a power of
+     * two so a key is mapped to its slot with a mask.
+     * @param boardEvaluator the evaluator whose static scores are cached
+     * @param sizeMB the memory the cache may use in megabytes
+     */
+    public EvaluationCache(final BoardEvaluator boardEvaluator, final int sizeMB) {
+        if (sizeMB < 1) {
+            throw new RuntimeException("Evaluation cache size must be at least 1 MB!");
+        }
+        this.boardEvaluator = boardEvaluator;
+        this.sizeMB = sizeMB;
+        final long maxEntries = (long) sizeMB * 1024 * 1024 / BYTES_PER_ENTRY;
+        // the two longs of every entry must fit in one array
+        final long numEntries = Long.highestOneBit(Math.min(maxEntries, Integer.MAX_VALUE / 2));
+        this.entries = new long[(int) numEntries * 2];
+        this.indexMask = (int) numEntries - 1;
+    }
+
+    /**
+     * Gets the size the cache was created with
+     * @return the size of the cache in megabytes
+     */
+    public int getSizeMB() {
+        return this.sizeMB;
+    }
+
+    /**
+     * Evaluates the position from its cached static score and the depth-dependent score
+     * @param position the position being evaluated
+     * @param depth the remaining search depth
+     * @return the score of the wrapped evaluator, positive when white is better
+     */
+    @Override
+    public int evaluate(final Position position, final int depth) {
+        return evaluateStatic(position) + this.boardEvaluator.evaluateDynamic(position, depth);
+    }
+
+    /**
+     * Looks the static score of the position up, evaluating and storing it on a miss
+     * @param position the position being evaluated
+     * @return the static score of the wrapped evaluator, positive when white is better
+     */
+    @Override
+    public int evaluateStatic(final Position position) {
+        final long key = position.getZobristKey() ^
+                (position.hasCastled(Alliance.WHITE) ? WHITE_CASTLED_KEY : 0L) ^
+                (position.hasCastled(Alliance.BLACK) ? BLACK_CASTLED_KEY : 0L);
+        final int index = ((int) key & this.indexMask) << 1;
+        final long data = this.entries[index + 1];
+        this.probes++;
+        if ((this.entries[index] ^ data) == key && data != 0L) {
+            this.hits++;
+            return (int) (data >> SCORE_SHIFT);
+        }
+        final int score = this.boardEvaluator.evaluateStatic(position);
+        final long newData = VALID | ((long) score << SCORE_SHIFT);
+        this.entries[index] = key ^ newData;
+        this.entries[index + 1] = newData;
+        return score;
+    }
+
+    @Override
+    public int evaluateDynamic(final Position position, final int depth) {
+        return this.boardEvaluator.evaluateDynamic(position, depth);
+    }
+
+    /**
+     * Empties the cache and resets its statistics
+     */
+    public void clear() {
+        Arrays.fill(this.entries, 0L);
+        clearStats();
+    }
+
+    /**
+     * Resets the lookup counts, e.g. at the start of a search
+     */
+    public void clearStats() {
+        this.probes = 0;
+        this.hits = 0;
+    }
+
+    /**
+     * Gets the number of lookups since the statistics were last reset
+     * @return the number of probes
+     */
+    public long getProbes() {
+        return this.probes;
+    }
+
+    /**
+     * Gets the number of lookups that found the position since the statistics were last reset
+     * @return the number of hits
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Gets the share of lookups that found the position
+     * @return the hits divided by the probes, or 0 if there were no probes
+     */
+    public double getHitRate() {
+        return this.probes == 0 ? 0.0 : (double) this.hits / this.probes;
+    }
+}
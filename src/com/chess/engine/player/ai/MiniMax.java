@@ -1,20 +1,156 @@
 package com.chess.engine.player.ai;
 
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchPosition;
+import com.chess.engine.pieces.Piece.PieceType;
 
+/**
+ * Iterative deepening principal variation search in negamax form, so every score is for the
+ * side to move and one method searches for both sides. Each iteration searches the root with an
+ * aspiration window around the previous iteration's score.
+ *
+ * With more than one thread it runs a Lazy SMP search: helper searchers deepen on the same root in their own threads, sharing the lock-free
+ * transposition table, evaluation cache and pawn hash table, so their results speed up the main search through the table. Odd
+ * helpers start one ply deeper and every helper tries the root moves in a slightly different
+ * order so that they do not all search the same nodes. The main searcher runs in the calling
+ * thread and its result is the one returned.
+ *
+ * Null move pruning and late move reductions cut the tree down so the same time reaches a
+ * greater depth. Both are on by default and can be switched off, e.g. to measure their effect.
+ *
+ * Every finished iteration is logged at FINE and every finished search at INFO as a key=value
+ * line, and the statistics of the last search can be read with getSearchStats.
+ */
 public class MiniMax implements MoveStrategy {
 
-    private final BoardEvaluator boardEvaluator;
+    private static final Logger LOGGER = Logger.getLogger(MiniMax.class.getName());
+
+    // how many nodes are searched between looks at the clock
+    private static final int TIME_CHECK_INTERVAL = 1024;
+    // nodes with less depth left are neither null move pruned nor reduced
+    private static final int REDUCTION_MIN_DEPTH = 3;
+    // how many legal moves of a node are searched to full depth before quiet moves are reduced
+    private static final int FULL_DEPTH_MOVES = 3;
+    // bound of every score, kept clear of Integer.MIN_VALUE so it can be negated
+    private static final int INFINITY = Integer.MAX_VALUE;
+    // iterations from this depth search with a window this wide on each side of the last score
+    private static final int ASPIRATION_MIN_DEPTH = 4;
+    private static final int ASPIRATION_WINDOW = 30;
+    // windows wider than this, and windows around mate scores, are the full range instead
+    private static final int MAX_ASPIRATION_WINDOW = 2000;
+
+    private final EvaluationCache evaluationCache;
     private final int searchDepth;
+    private final TranspositionTable transpositionTable;
+    // shared by the main searcher and its helpers and kept between searches
+    private final PawnHashTable pawnHashTable;
+    private final MoveOrderer moveOrderer = new MoveOrderer();
+    private final int numThreads;
+    // 0 for the main searcher, from 1 for helpers
+    private final int helperIndex;
+    private MiniMax[] helpers;
+    private boolean nullMovePruning = true;
+    private boolean lateMoveReductions = true;
+
+    // state of the search in progress
+    private volatile boolean stopRequested;
+    private boolean stopped;
+    private long nodes;
+    private long nodeLimit;
+    private volatile long deadline;
+    private volatile long timeBudget;
+    private volatile long clockStartNanos;
+    private volatile boolean pondering;
+    private int completedDepth;
+    // score of the last root search for the side to move
+    private int rootScore;
+    private SearchListener searchListener;
+    // the node count as last seen by other threads
+    private volatile long publishedNodes;
+    private long helperNodes;
+
+    // statistics of the search in progress, counted by the main searcher
+    private long qNodes;
+    private int selDepth;
+    private long expandedNodes;
+    private long betaCutoffs;
+    private long firstMoveCutoffs;
+    private long hashProbes;
+    private long hashHits;
+    private long hashStores;
+    private SearchStats searchStats;
 
     /**
-     * Constructor for the minimax class
+     * Constructor for the minimax class with a transposition table of the default size
+     * @param searchDepth the depth searched
      */
     public MiniMax(final int searchDepth) {
-        this.boardEvaluator = new StandardBoardEvauluator();
+        this(searchDepth, new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB));
+    }
+
+    /**
+     * Constructor for the minimax class
+     * @param searchDepth the depth searched
+     * @param transpositionTable the table searched positions are remembered in, which may be
+     *        kept between moves
+     */
+    public MiniMax(final int searchDepth, final TranspositionTable transpositionTable) {
+        this(searchDepth, transpositionTable, 1);
+    }
+
+    /**
+     * Constructor for the minimax class
+     * @param searchDepth the depth searched
+     * @param transpositionTable the table searched positions are remembered in, which may be
+     *        kept between moves and is shared by all search threads
+     * @param numThreads the number of threads searching, including the calling thread
+     */
+    public MiniMax(final int searchDepth, final TranspositionTable transpositionTable, final int numThreads) {
+        this(searchDepth, transpositionTable, numThreads, EvaluationCache.DEFAULT_SIZE_MB);
+    }
+
+    /**
+     * Constructor for the minimax class
+     * @param searchDepth the depth searched
+     * @param transpositionTable the table searched positions are remembered in, which may be
+     *        kept between moves and is shared by all search threads
+     * @param numThreads the number of threads searching, including the calling thread
+     * @param evalCacheSizeMB the size of the evaluation cache shared by all search threads
+     */
+    public MiniMax(final int searchDepth, final TranspositionTable transpositionTable,
+                   final int numThreads, final int evalCacheSizeMB) {
+        if (numThreads < 1) {
+            throw new RuntimeException("A search needs at least one thread!");
+        }
+        this.pawnHashTable = new PawnHashTable(PawnHashTable.DEFAULT_SIZE_MB);
+        this.evaluationCache = new EvaluationCache(new StandardBoardEvauluator(this.pawnHashTable), evalCacheSizeMB);
         this.searchDepth = searchDepth;
+        this.transpositionTable = transpositionTable;
+        this.numThreads = numThreads;
+        this.helperIndex = 0;
+    }
+
+    /**
+     * Constructor for a helper searcher, which searches with the tables of the main searcher
+     * @param mainSearcher the searcher the helper works for
+     * @param helperIndex the index of the helper, from 1
+     */
+    private MiniMax(final MiniMax mainSearcher, final int helperIndex) {
+        this.pawnHashTable = mainSearcher.pawnHashTable;
+        this.evaluationCache = mainSearcher.evaluationCache;
+        this.searchDepth = mainSearcher.searchDepth;
+        this.transpositionTable = mainSearcher.transpositionTable;
+        this.numThreads = 1;
+        this.helperIndex = helperIndex;
     }
 
     /**
@@ -26,111 +162,696 @@ public class MiniMax implements MoveStrategy {
         return "MiniMax";
     }
 
+    /**
+     * Executes the MiniMax algorithm to the depth this instance was created with.
+     * 
+     * @param board The current board being analyzed.
+     * @return The best move determined by the MiniMax algorithm.
+     */
+    @Override
+    public Move execute(final Board board) {
+        return execute(board, SearchLimits.depth(this.searchDepth));
+    }
+
     /**
      * Executes the MiniMax algorithm to find the best possible move for the current player.
+     * The position is searched one ply deeper each iteration until a limit is reached, and the
+     * best move of the last iteration that finished is returned. The first iteration always
+     * finishes so there is a move to return. The tree below the root is searched on a single
+     * SearchPosition with doMove/undoMove.
      * 
      * @param board The current board being analyzed.
-     * @param depth The maximum search depth for the algorithm.
+     * @param limits The limits the search must respect.
      * @return The best move determined by the MiniMax algorithm.
      */
     @Override
-    public Move execute(Board board) {
-        final long startTime = System.currentTimeMillis();
-        
-        Move bestMove = null;
-        int maxVal = Integer.MIN_VALUE;
-        int minVal = Integer.MAX_VALUE;
-        int currVal;
-
-        // Iterate through all legal moves for the current player
-        for (final Move move : board.getCurrPlayer().getLegalMoves()) {
-            final MoveTransition moveTransition = board.getCurrPlayer().makeMove(move);
-
-            if (moveTransition.getMoveStatus().isDone()) {
-                currVal = board.getCurrPlayer().getAlliance().isWhite()
-                        ? min(moveTransition.getUpdatedBoard(), this.searchDepth - 1, Integer.MIN_VALUE, Integer.MAX_VALUE)
-                        : max(moveTransition.getUpdatedBoard(), this.searchDepth - 1, Integer.MIN_VALUE, Integer.MAX_VALUE);
-
-                // if player is white maximize the score
-                if (board.getCurrPlayer().getAlliance().isWhite() && currVal >= maxVal) {
-                    maxVal = currVal;
-                    bestMove = move;
+    public Move execute(final Board board, final SearchLimits limits) {
+        final long startNanos = System.nanoTime();
+        final Alliance alliance = board.getCurrPlayerAlliance();
+        this.stopRequested = false;
+        this.timeBudget = limits.calcTimeBudget(alliance) * 1_000_000L;
+        this.clockStartNanos = startNanos;
+        this.pondering = limits.isPonder();
+        this.deadline = this.timeBudget > 0 && !this.pondering ? startNanos + this.timeBudget : Long.MAX_VALUE;
+        this.nodeLimit = limits.getNodes() > 0 && !limits.isInfinite() ? limits.getNodes() : Long.MAX_VALUE;
+        final SearchPosition position = startSearch(board);
+        this.transpositionTable.newSearch();
+        final Thread[] helperThreads = startHelpers(board);
+        final SearchStats.Builder statsBuilder = new SearchStats.Builder();
+
+        int bestMove = PackedMove.NO_MOVE;
+        int bestScore = 0;
+        for (int depth = 1; depth <= limits.getDepth(); depth++) {
+            final long iterationNanos = System.nanoTime();
+            // helpers count towards every iteration, as far as they have published their nodes
+            final long iterationNodes = calcSearchedNodes();
+            final int move = searchIteration(position, depth, bestMove, bestScore);
+            if (this.stopped) {
+                break;
+            }
+            bestMove = move;
+            bestScore = this.rootScore;
+            this.completedDepth = depth;
+            final SearchStats.Iteration iteration = new SearchStats.Iteration(depth, this.selDepth,
+                    calcSearchedNodes() - iterationNodes, (System.nanoTime() - iterationNanos) / 1_000_000,
+                    alliance.isWhite() ? bestScore : -bestScore, calcPrincipalVariation(position, bestMove, depth));
+            statsBuilder.addIteration(iteration);
+            LOGGER.fine(iteration::toString);
+            if (this.searchListener != null) {
+                this.searchListener.iterationFinished(iteration);
+            }
+            // no legal moves, or the next iteration would likely run out of clock time
+            if (bestMove == PackedMove.NO_MOVE || (!this.pondering && limits.usesClock(alliance) &&
+                System.nanoTime() - this.clockStartNanos > this.timeBudget / 2)) {
+                break;
+            }
+        }
+        stopHelpers(helperThreads);
+        final Move move = bestMove == PackedMove.NO_MOVE ? null : MoveFactory.createMove(board, bestMove);
+        this.searchStats = statsBuilder.setBestMove(move)
+                .setDepth(this.completedDepth)
+                .setSelDepth(this.selDepth)
+                .setNodes(getNodes())
+                .setQNodes(this.qNodes)
+                .setTimeMillis((System.nanoTime() - startNanos) / 1_000_000)
+                .setCutoffs(this.expandedNodes, this.betaCutoffs, this.firstMoveCutoffs)
+                .setHashUsage(this.hashProbes, this.hashHits, this.hashStores)
+                .setPawnHashUsage(this.pawnHashTable.getProbes(), this.pawnHashTable.getHits())
+                .setEvalCacheUsage(this.evaluationCache.getProbes(), this.evaluationCache.getHits())
+                .build();
+        if (LOGGER.isLoggable(Level.INFO)) {
+            LOGGER.info(this.searchStats.toString());
+        }
+        return move;
+    }
+
+    /**
+     * Resets the state of this searcher for a new search
+     * @param board the board being searched
+     * @return the position the search runs on
+     */
+    private SearchPosition startSearch(final Board board) {
+        this.nodes = 0;
+        this.publishedNodes = 0;
+        this.helperNodes = 0;
+        this.qNodes = 0;
+        this.selDepth = 0;
+        this.expandedNodes = 0;
+        this.betaCutoffs = 0;
+        this.firstMoveCutoffs = 0;
+        this.hashProbes = 0;
+        this.hashHits = 0;
+        this.hashStores = 0;
+        // the tables are shared, so a helper starting late must not reset the main searcher's counts
+        if (this.helperIndex == 0) {
+            this.pawnHashTable.clearStats();
+            this.evaluationCache.clearStats();
+        }
+        this.stopped = false;
+        this.completedDepth = 0;
+        this.moveOrderer.newSearch();
+        return new SearchPosition(board);
+    }
+
+    /**
+     * Starts a thread for every helper searcher
+     * @param board the board being searched
+     * @return the started helper threads
+     */
+    private Thread[] startHelpers(final Board board) {
+        if (this.helpers == null) {
+            this.helpers = new MiniMax[this.numThreads - 1];
+            for (int i = 0; i < this.helpers.length; i++) {
+                this.helpers[i] = new MiniMax(this, i + 1);
+            }
+        }
+        final Thread[] helperThreads = new Thread[this.helpers.length];
+        for (int i = 0; i < this.helpers.length; i++) {
+            final MiniMax helper = this.helpers[i];
+            // cleared before the thread starts so an early stop is not lost
+            helper.stopRequested = false;
+            helper.nullMovePruning = this.nullMovePruning;
+            helper.lateMoveReductions = this.lateMoveReductions;
+            helperThreads[i] = new Thread(() -> helper.searchAsHelper(board), "MiniMax helper " + (i + 1));
+            helperThreads[i].setDaemon(true);
+            helperThreads[i].start();
+        }
+        return helperThreads;
+    }
+
+    /**
+     * Stops the helper searchers and waits for their threads to finish
+     * @param helperThreads the running helper threads
+     */
+    private void stopHelpers(final Thread[] helperThreads) {
+        for (final MiniMax helper : this.helpers) {
+            helper.stop();
+        }
+        for (int i = 0; i < helperThreads.length; i++) {
+            try {
+                helperThreads[i].join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.helperNodes += this.helpers[i].nodes;
+        }
+    }
+
+    /**
+     * Deepens on the root as a helper until the main searcher stops it. Results only reach
+     * the main searcher through the transposition table.
+     * @param board the board being searched
+     */
+    private void searchAsHelper(final Board board) {
+        final SearchPosition position = startSearch(board);
+        this.deadline = Long.MAX_VALUE;
+        this.nodeLimit = Long.MAX_VALUE;
+        int bestMove = PackedMove.NO_MOVE;
+        int bestScore = 0;
+        for (int depth = 1 + this.helperIndex % 2; depth <= SearchLimits.MAX_DEPTH; depth++) {
+            final int move = searchIteration(position, depth, bestMove, bestScore);
+            if (this.stopped || move == PackedMove.NO_MOVE) {
+                break;
+            }
+            bestMove = move;
+            bestScore = this.rootScore;
+            this.completedDepth = depth;
+        }
+    }
+
+    /**
+     * Asks a running search to stop. It returns the best move of its last finished iteration
+     * once it has finished its first. A stop that arrives before the search has started is
+     * forgotten when it starts.
+     */
+    public void stop() {
+        this.stopRequested = true;
+    }
+
+    /**
+     * Tells a pondering search that the opponent played the expected move, so its time limits
+     * start counting from now and the search carries on as a normal one
+     */
+    public void ponderHit() {
+        final long now = System.nanoTime();
+        this.clockStartNanos = now;
+        this.deadline = this.timeBudget > 0 ? now + this.timeBudget : Long.MAX_VALUE;
+        this.pondering = false;
+    }
+
+    /**
+     * Says whether the running search is pondering
+     * @return true if the search was started to ponder and has not had a ponder hit yet
+     */
+    public boolean isPondering() {
+        return this.pondering;
+    }
+
+    /**
+     * Switches null move pruning on or off for the following searches
+     * @param nullMovePruning whether a node may be cut off when passing the turn still fails high
+     */
+    public void setNullMovePruning(final boolean nullMovePruning) {
+        this.nullMovePruning = nullMovePruning;
+    }
+
+    /**
+     * Switches late move reductions on or off for the following searches
+     * @param lateMoveReductions whether quiet moves ordered late are searched less deep first
+     */
+    public void setLateMoveReductions(final boolean lateMoveReductions) {
+        this.lateMoveReductions = lateMoveReductions;
+    }
+
+    /**
+     * Sets the listener told about every finished iteration
+     * @param searchListener the listener or null for none
+     */
+    public void setSearchListener(final SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+
+    /**
+     * Gets the deepest iteration the last search finished
+     * @return the depth of the last finished iteration
+     */
+    public int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    /**
+     * Gets the number of nodes the last search visited
+     * @return the number of moves made during the last search by all of its threads
+     */
+    public long getNodes() {
+        return this.nodes + this.helperNodes;
+    }
+
+    /**
+     * Gets the statistics of the last search
+     * @return the statistics of the last finished search or null if none has finished
+     */
+    public SearchStats getSearchStats() {
+        return this.searchStats;
+    }
+
+    /**
+     * Gets the number of nodes searched so far by the main searcher and, as last published,
+     * its helpers
+     * @return the number of moves made so far during the current search
+     */
+    private long calcSearchedNodes() {
+        long searchedNodes = this.nodes;
+        for (final MiniMax helper : this.helpers) {
+            searchedNodes += helper.publishedNodes;
+        }
+        return searchedNodes;
+    }
+
+    /**
+     * Searches the root to a fixed depth with an aspiration window around the score of the
+     * previous iteration. When the score falls outside the window it is widened on that side,
+     * twice as far each time, until the score fits or the window is the full range.
+     * 
+     * @param position The root position.
+     * @param depth The depth of this iteration.
+     * @param previousBestMove The best move of the previous iteration or PackedMove.NO_MOVE.
+     * @param previousScore The score of the previous iteration for the side to move.
+     * @return The best move at this depth or PackedMove.NO_MOVE if there are no legal moves.
+     */
+    private int searchIteration(final SearchPosition position, final int depth, final int previousBestMove,
+                                final int previousScore) {
+        int window = ASPIRATION_WINDOW;
+        int alpha = -INFINITY;
+        int beta = INFINITY;
+        if (depth >= ASPIRATION_MIN_DEPTH && Math.abs(previousScore) < MAX_ASPIRATION_WINDOW) {
+            alpha = previousScore - window;
+            beta = previousScore + window;
+        }
+        int hashMove = previousBestMove;
+        while (true) {
+            final int move = searchRoot(position, depth, hashMove, alpha, beta);
+            if (this.stopped || move == PackedMove.NO_MOVE) {
+                return move;
+            }
+            window *= 2;
+            if (this.rootScore <= alpha) {
+                alpha = window > MAX_ASPIRATION_WINDOW ? -INFINITY : this.rootScore - window;
+            } else if (this.rootScore >= beta) {
+                beta = window > MAX_ASPIRATION_WINDOW ? INFINITY : this.rootScore + window;
+                hashMove = move;
+            } else {
+                return move;
+            }
+        }
+    }
+
+    /**
+     * Searches every root move to a fixed depth, starting with the best move of the previous
+     * iteration. The first move gets the full window and the others a null window that only
+     * proves they are no better, searched again with the full window if they are.
+     * 
+     * @param position The root position.
+     * @param depth The depth of this iteration.
+     * @param previousBestMove The best move of the previous iteration or PackedMove.NO_MOVE.
+     * @param alpha The score the side to move is already sure of.
+     * @param beta The score above which the opponent avoids this position.
+     * @return The best move at this depth or PackedMove.NO_MOVE if there are no legal moves.
+     */
+    private int searchRoot(final SearchPosition position, final int depth, final int previousBestMove,
+                           int alpha, final int beta) {
+        final int windowAlpha = alpha;
+        int bestMove = PackedMove.NO_MOVE;
+        int bestScore = -INFINITY;
+        int legalMoves = 0;
+
+        final MoveList moves = position.generateMoves();
+        this.moveOrderer.orderMoves(position, moves, previousBestMove != PackedMove.NO_MOVE ? previousBestMove
+                : TranspositionTable.getMove(this.transpositionTable.probe(position.getZobristKey())));
+        // helpers each move a different root move up behind the best one
+        if (this.helperIndex > 0 && moves.size() > 2) {
+            moves.swap(1, 1 + this.helperIndex % (moves.size() - 1));
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = moves.get(i);
+            // boards only promote to queens, so only those can be played at the root
+            if (PackedMove.isPromotion(move) && PackedMove.getPromotionType(move) != PieceType.QUEEN) {
+                continue;
+            }
+
+            if (position.doMove(move)) {
+                this.nodes++;
+                legalMoves++;
+                int score;
+                if (legalMoves == 1) {
+                    score = -search(position, depth - 1, -beta, -alpha);
+                } else {
+                    score = -search(position, depth - 1, -alpha - 1, -alpha);
+                    if (score > alpha && score < beta) {
+                        score = -search(position, depth - 1, -beta, -alpha);
+                    }
+                }
+                position.undoMove();
+                if (this.stopped) {
+                    return PackedMove.NO_MOVE;
                 }
-                // if player is black minimize the score
-                else if (board.getCurrPlayer().getAlliance().isBlack() && currVal <= minVal) {
-                    minVal = currVal;
+                if (score > bestScore) {
+                    bestScore = score;
                     bestMove = move;
+                    alpha = Math.max(alpha, score);
+                    if (alpha >= beta) {
+                        break;
+                    }
                 }
             }
         }
-        final long executionTime = System.currentTimeMillis() - startTime;
-        System.out.println(executionTime);
+        this.rootScore = bestScore;
+        if (bestMove != PackedMove.NO_MOVE) {
+            storeEntry(position.getZobristKey(), depth, calcBound(bestScore, windowAlpha, beta), bestScore, bestMove);
+        }
         return bestMove;
     }
 
-     /**
-     * Computes the minimum possible score for the given board state by evaluating 
-     * all possible opponent moves. 
+    /**
+     * Follows the best moves stored in the transposition table from the root to find the line
+     * the search expects to be played. The position is left as it was found.
+     * @param position the root position
+     * @param bestMove the best root move
+     * @param maxLength the most moves the line may have
+     * @return the packed moves of the principal variation, starting with the best move
+     */
+    private int[] calcPrincipalVariation(final SearchPosition position, final int bestMove, final int maxLength) {
+        final int[] line = new int[maxLength];
+        int length = 0;
+        int move = bestMove;
+        while (move != PackedMove.NO_MOVE && length < maxLength && isPseudoLegal(position, move) &&
+               position.doMove(move)) {
+            line[length++] = move;
+            move = TranspositionTable.getMove(this.transpositionTable.probe(position.getZobristKey()));
+        }
+        for (int i = 0; i < length; i++) {
+            position.undoMove();
+        }
+        return Arrays.copyOf(line, length);
+    }
+
+    /**
+     * Checks that a move taken from the transposition table can be played in a position, since
+     * another position with the same slot may have written it
+     * @param position the position the move would be made in
+     * @param move the packed move
+     * @return true if the move is one of the position's pseudo-legal moves
+     */
+    private static boolean isPseudoLegal(final SearchPosition position, final int move) {
+        final MoveList moves = position.generateMoves();
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i) == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Looks a position up in the transposition table, counting the probe
+     * @param zobristKey the Zobrist key of the position
+     * @return the data word of the entry or TranspositionTable.NO_ENTRY
+     */
+    private long probeEntry(final long zobristKey) {
+        final long entry = this.transpositionTable.probe(zobristKey);
+        this.hashProbes++;
+        if (entry != TranspositionTable.NO_ENTRY) {
+            this.hashHits++;
+        }
+        return entry;
+    }
+
+    /**
+     * Stores a result in the transposition table, counting the store
+     * @param zobristKey the Zobrist key of the position
+     * @param depth the depth the position was searched to
+     * @param bound the bound type of the score
+     * @param score the score of the position
+     * @param bestMove the best move found or PackedMove.NO_MOVE
+     */
+    private void storeEntry(final long zobristKey, final int depth, final int bound, final int score, final int bestMove) {
+        this.hashStores++;
+        this.transpositionTable.store(zobristKey, depth, bound, score, bestMove);
+    }
+
+    /**
+     * Counts a beta cutoff and lets the move orderer learn from it
+     * @param position the position the cutoff happened in
+     * @param move the move that caused the cutoff
+     * @param depth the remaining depth of the position
+     * @param legalMoves how many legal moves were searched including the cutoff move
+     */
+    private void recordCutoff(final SearchPosition position, final int move, final int depth, final int legalMoves) {
+        this.betaCutoffs++;
+        if (legalMoves == 1) {
+            this.firstMoveCutoffs++;
+        }
+        this.moveOrderer.recordCutoff(position, move, depth);
+    }
+
+    /**
+     * Checks if a node may try a null move. Passing is never tried in check, where it would be
+     * illegal, twice in a row, or without pieces besides pawns, where zugzwang makes passing
+     * better than any real move and the cutoff would be wrong.
+     * @param position the position of the node
+     * @param depth the remaining depth of the node
+     * @param isInCheck whether the side to move is in check
+     * @return true if null move pruning may be tried
+     */
+    private boolean canTryNullMove(final SearchPosition position, final int depth, final boolean isInCheck) {
+        return this.nullMovePruning && depth >= REDUCTION_MIN_DEPTH && !isInCheck &&
+               position.getLastMove() != PackedMove.NO_MOVE &&
+               position.hasNonPawnMaterial(position.getCurrPlayerAlliance());
+    }
+
+    /**
+     * Gets how much shallower the position after a null move is searched
+     * @param depth the remaining depth of the node
+     * @return the depth reduction on top of the ply the null move takes
+     */
+    private static int calcNullMoveReduction(final int depth) {
+        return depth >= 6 ? 3 : 2;
+    }
+
+    /**
+     * Gets how much shallower a move is searched first. Only quiet moves ordered after the
+     * first few legal ones are reduced, and never killers or moves made in check; the caller
+     * also searches moves that give check to full depth.
+     * @param position the position the move is made in
+     * @param move the packed move
+     * @param depth the remaining depth of the node
+     * @param legalMoves how many legal moves of the node were searched before this one
+     * @param isInCheck whether the side to move is in check
+     * @return the depth reduction or 0 to search the move to full depth
+     */
+    private int calcLateMoveReduction(final SearchPosition position, final int move, final int depth,
+                                      final int legalMoves, final boolean isInCheck) {
+        if (!this.lateMoveReductions || depth < REDUCTION_MIN_DEPTH || isInCheck || legalMoves < FULL_DEPTH_MOVES ||
+            PackedMove.isCapture(move) || PackedMove.isPromotion(move) || this.moveOrderer.isKiller(position, move)) {
+            return 0;
+        }
+        return depth >= 6 && legalMoves >= 12 ? 2 : 1;
+    }
+
+    /**
+     * Checks whether the search has to stop. The clock is only read and the node count only
+     * published every few nodes. The main searcher's first iteration is never stopped.
+     * @return true if the search has been stopped and false otherwise
+     */
+    private boolean checkLimits() {
+        final boolean isCheckpoint = this.nodes % TIME_CHECK_INTERVAL == 0;
+        if (isCheckpoint) {
+            this.publishedNodes = this.nodes;
+        }
+        if (!this.stopped && (this.completedDepth > 0 || this.helperIndex > 0) &&
+            (this.stopRequested ||
+             (this.nodeLimit != Long.MAX_VALUE && calcSearchedNodes() >= this.nodeLimit) ||
+             (isCheckpoint && System.nanoTime() >= this.deadline))) {
+            this.stopped = true;
+        }
+        return this.stopped;
+    }
+
+    /**
+     * Searches a position with principal variation search, scoring it for the side to move.
+     * The first move, the one most likely to be best, is searched with the full window and
+     * every other move with a null window around alpha, which is cheaper and only proves the
+     * move is no better. A move that beats alpha is searched again with the full window. The
+     * position is left as it was found.
      * 
-     * @param board The current board being evaluated.
+     * @param position The current position being evaluated.
      * @param depth The remaining search depth.
-     * @return The minimum score achievable for the current player.
+     * @param alpha The score the side to move is already sure of.
+     * @param beta The score above which the opponent avoids this position.
+     * @return The score of the position for the side to move, or 0 if the search was stopped.
      */
-    public int min(final Board board, final int depth, int alpha, int beta) {
-        if (depth == 0 || isGameOver(board)) {
-            return this.boardEvaluator.evaluate(board, depth);
+    private int search(final SearchPosition position, final int depth, int alpha, int beta) {
+        if (checkLimits()) {
+            return 0;
+        }
+        if (depth == 0) {
+            return quiesce(position, alpha, beta);
         }
 
-        int minVal = Integer.MAX_VALUE;
-        for (final Move move : board.getCurrPlayer().getLegalMoves()) {
-            final MoveTransition moveTransition = board.getCurrPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                final int currVal = max(moveTransition.getUpdatedBoard(), depth - 1, alpha, beta);
-                minVal = Math.min(minVal, currVal);
-                beta = Math.min(beta, currVal);
-                if (beta <= alpha) {
+        this.selDepth = Math.max(this.selDepth, position.getPly());
+        final long zobristKey = position.getZobristKey();
+        final long entry = probeEntry(zobristKey);
+        if (entry != TranspositionTable.NO_ENTRY && TranspositionTable.getDepth(entry) >= depth) {
+            final int score = TranspositionTable.getScore(entry);
+            switch (TranspositionTable.getBound(entry)) {
+                case TranspositionTable.EXACT:
+                    return score;
+                case TranspositionTable.LOWER_BOUND:
+                    alpha = Math.max(alpha, score);
                     break;
+                default:
+                    beta = Math.min(beta, score);
+            }
+            if (alpha >= beta) {
+                return score;
+            }
+        }
+
+        final boolean isInCheck = depth >= REDUCTION_MIN_DEPTH && position.isInCheck(position.getCurrPlayerAlliance());
+        // if passing still keeps the score at or above beta, a real move would too
+        if (canTryNullMove(position, depth, isInCheck) && beta != INFINITY) {
+            position.doNullMove();
+            final int nullScore = -search(position, depth - 1 - calcNullMoveReduction(depth), -beta, -beta + 1);
+            position.undoNullMove();
+            if (this.stopped) {
+                return 0;
+            }
+            if (nullScore >= beta) {
+                return beta;
+            }
+        }
+
+        this.expandedNodes++;
+        final int windowAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = PackedMove.NO_MOVE;
+        int legalMoves = 0;
+        final MoveList moves = position.generateMoves();
+        this.moveOrderer.orderMoves(position, moves, TranspositionTable.getMove(entry));
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = moves.get(i);
+            final int reduction = calcLateMoveReduction(position, move, depth, legalMoves, isInCheck);
+            if (position.doMove(move)) {
+                this.nodes++;
+                legalMoves++;
+                int score;
+                if (legalMoves == 1) {
+                    score = -search(position, depth - 1, -beta, -alpha);
+                } else {
+                    // late quiet moves that give no check are probed shallower first
+                    final int probeDepth = reduction > 0 && !position.isInCheck(position.getCurrPlayerAlliance())
+                            ? depth - 1 - reduction : depth - 1;
+                    score = -search(position, probeDepth, -alpha - 1, -alpha);
+                    if (score > alpha && probeDepth < depth - 1) {
+                        score = -search(position, depth - 1, -alpha - 1, -alpha);
+                    }
+                    if (score > alpha && score < beta) {
+                        score = -search(position, depth - 1, -beta, -alpha);
+                    }
+                }
+                position.undoMove();
+                if (this.stopped) {
+                    return 0;
+                }
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = move;
+                    alpha = Math.max(alpha, score);
+                    if (alpha >= beta) {
+                        recordCutoff(position, move, depth, legalMoves);
+                        break;
+                    }
                 }
             }
         }
-        return minVal;
+        // checkmate or stalemate
+        if (legalMoves == 0) {
+            bestScore = evaluate(position, depth);
+            storeEntry(zobristKey, depth, TranspositionTable.EXACT, bestScore, PackedMove.NO_MOVE);
+            return bestScore;
+        }
+        storeEntry(zobristKey, depth, calcBound(bestScore, windowAlpha, beta), bestScore, bestMove);
+        return bestScore;
     }
-    
-     /**
-     * Computes the maximum possible score for the given board state by evaluating 
-     * all possible opponent moves. 
+
+    /**
+     * Searches only captures and queen promotions below the horizon so that exchanges are
+     * played out before the position is evaluated. The side to move may also stand pat, taking
+     * the static evaluation when every capture makes things worse for it, and captures that the
+     * static exchange evaluation says lose material are not searched.
      * 
-     * @param board The current board being evaluated.
-     * @param depth The remaining search depth.
-     * @return The maximum score achievable for the current player.
+     * @param position The current position being evaluated.
+     * @param alpha The score the side to move is already sure of.
+     * @param beta The score above which the opponent avoids this position.
+     * @return The score of the position for the side to move, or 0 if the search was stopped.
      */
-     public int max(final Board board, final int depth, int alpha, int beta) {
-         if (depth == 0 || isGameOver(board)) {
-            return this.boardEvaluator.evaluate(board, depth);
+    private int quiesce(final SearchPosition position, int alpha, final int beta) {
+        if (checkLimits()) {
+            return 0;
         }
-
-        int maxVal = Integer.MIN_VALUE;
-        for (final Move move : board.getCurrPlayer().getLegalMoves()) {
-            final MoveTransition moveTransition = board.getCurrPlayer().makeMove(move);
-            if (moveTransition.getMoveStatus().isDone()) {
-                final int currVal = min(moveTransition.getUpdatedBoard(), depth - 1, alpha, beta);
-                maxVal = Math.max(currVal, maxVal);
-                alpha = Math.max(alpha, currVal);
-                if (beta <= alpha) {
+        this.selDepth = Math.max(this.selDepth, position.getPly());
+        final int standPat = evaluate(position, 0);
+        if (standPat >= beta) {
+            return standPat;
+        }
+        alpha = Math.max(alpha, standPat);
+        int bestScore = standPat;
+        final MoveList captures = position.generateCaptures();
+        this.moveOrderer.orderCaptures(position, captures);
+        for (int i = 0; i < captures.size(); i++) {
+            final int capture = captures.get(i);
+            // captures that lose material in the exchange cannot raise alpha over the stand pat
+            if (this.moveOrderer.isLosingCapture(position, capture)) {
+                continue;
+            }
+            if (position.doMove(capture)) {
+                this.nodes++;
+                this.qNodes++;
+                final int score = -quiesce(position, -beta, -alpha);
+                position.undoMove();
+                if (this.stopped) {
+                    return 0;
+                }
+                bestScore = Math.max(bestScore, score);
+                alpha = Math.max(alpha, score);
+                if (alpha >= beta) {
                     break;
                 }
             }
         }
-        return maxVal;
+        return bestScore;
+    }
+
+    /**
+     * Evaluates a position for the side to move, since the evaluator scores it for white
+     * @param position the position being evaluated
+     * @param depth the remaining search depth
+     * @return the score of the position, positive when the side to move is better
+     */
+    private int evaluate(final SearchPosition position, final int depth) {
+        final int score = this.evaluationCache.evaluate(position, depth);
+        return position.getCurrPlayerAlliance().isWhite() ? score : -score;
+    }
+
+    /**
+     * Gets the bound type of a fail-soft score
+     * @param score the best score of the node
+     * @param alpha the alpha the node was searched with
+     * @param beta the beta the node was searched with
+     * @return whether the score is EXACT, a LOWER_BOUND or an UPPER_BOUND
+     */
+    private static int calcBound(final int score, final int alpha, final int beta) {
+        return score >= beta ? TranspositionTable.LOWER_BOUND :
+                score <= alpha ? TranspositionTable.UPPER_BOUND : TranspositionTable.EXACT;
     }
-    
-     /**
-      * Determines if the passed board's game has finished
-      * @param board the board being evaulted
-      * @return true if the game is over and false otherwise
-      */
-     private static boolean isGameOver(final Board board) {
-         return board.getCurrPlayer().isInCheckmate() || board.getCurrPlayer().isInStalemate();
-     }
-    
 }
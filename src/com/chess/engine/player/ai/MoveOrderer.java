@@ -0,0 +1,210 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchPosition;
+import com.chess.engine.board.StaticExchange;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * This class orders the moves of a node so that alpha-beta tries the moves most likely to cause
+ * a cutoff first. Moves are scored in stages: the hash move, captures that win material by
+ * most valuable victim/least valuable attacker, the two killer moves of the ply, the counter
+ * move to the opponent's last move, captures that may lose material and finally quiet moves by
+ * a butterfly history of the cutoffs they caused. The killers, counter moves and history are
+ * learnt during the search, so each search thread needs its own orderer.
+ */
+public final class MoveOrderer {
+
+    private static final int HASH_MOVE_SCORE = 2_000_000_000;
+    private static final int WINNING_CAPTURE_SCORE = 1_000_000_000;
+    private static final int FIRST_KILLER_SCORE = 900_000_000;
+    private static final int SECOND_KILLER_SCORE = 890_000_000;
+    private static final int COUNTER_MOVE_SCORE = 880_000_000;
+    private static final int LOSING_CAPTURE_SCORE = 800_000_000;
+    private static final int UNDERPROMOTION_SCORE = -1;
+    // history scores are halved once one reaches this, keeping them below the capture stages
+    private static final int MAX_HISTORY = 1 << 24;
+    private static final int NUM_KILLERS = 2;
+    private static final int NUM_FROM_TO = BoardUtils.NUM_TILES * BoardUtils.NUM_TILES;
+
+    private final int[][] killers = new int[SearchPosition.MAX_PLY + 1][NUM_KILLERS];
+    private final int[] counterMoves = new int[NUM_FROM_TO];
+    // indexed by side to move, then by the from and to tiles of the move
+    private final int[][] history = new int[2][NUM_FROM_TO];
+    private final int[][] scores = new int[SearchPosition.MAX_PLY + 1][SearchPosition.MAX_MOVES];
+    private final StaticExchange staticExchange = new StaticExchange();
+
+    /**
+     * Prepares for a new search. Killers belong to the previous position and are cleared, while
+     * the history is halved so it still helps but adapts to the new position.
+     */
+    public void newSearch() {
+        for (final int[] plyKillers : this.killers) {
+            plyKillers[0] = PackedMove.NO_MOVE;
+            plyKillers[1] = PackedMove.NO_MOVE;
+        }
+        ageHistory();
+    }
+
+    /**
+     * Sorts the moves of a node from the most to the least promising
+     * @param position the position the moves were generated in
+     * @param moves the moves to sort
+     * @param hashMove the best move stored for the position or PackedMove.NO_MOVE
+     */
+    public void orderMoves(final SearchPosition position, final MoveList moves, final int hashMove) {
+        final int ply = position.getPly();
+        final int[] moveScores = this.scores[ply];
+        final int firstKiller = this.killers[ply][0];
+        final int secondKiller = this.killers[ply][1];
+        final int lastMove = position.getLastMove();
+        final int counterMove = lastMove == PackedMove.NO_MOVE ? PackedMove.NO_MOVE : this.counterMoves[fromTo(lastMove)];
+        final int[] sideHistory = this.history[position.getCurrPlayerAlliance().ordinal()];
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = moves.get(i);
+            if (move == hashMove) {
+                moveScores[i] = HASH_MOVE_SCORE;
+            } else if (PackedMove.isPromotion(move) && PackedMove.getPromotionType(move) != PieceType.QUEEN) {
+                moveScores[i] = UNDERPROMOTION_SCORE;
+            } else if (PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+                moveScores[i] = scoreCapture(position, move);
+            } else if (move == firstKiller) {
+                moveScores[i] = FIRST_KILLER_SCORE;
+            } else if (move == secondKiller) {
+                moveScores[i] = SECOND_KILLER_SCORE;
+            } else if (move == counterMove) {
+                moveScores[i] = COUNTER_MOVE_SCORE;
+            } else {
+                moveScores[i] = sideHistory[fromTo(move)];
+            }
+        }
+        moves.sortByScore(moveScores);
+    }
+
+    /**
+     * Sorts captures by most valuable victim, then least valuable attacker
+     * @param position the position the captures were generated in
+     * @param captures the captures to sort
+     */
+    public void orderCaptures(final SearchPosition position, final MoveList captures) {
+        final int[] moveScores = this.scores[position.getPly()];
+        for (int i = 0; i < captures.size(); i++) {
+            moveScores[i] = calcMvvLva(position, captures.get(i));
+        }
+        captures.sortByScore(moveScores);
+    }
+
+    /**
+     * Checks if a move is one of the killers of the position's ply
+     * @param position the position the move would be made in
+     * @param move the packed move
+     * @return true if the move recently caused a cutoff at the same ply
+     */
+    public boolean isKiller(final SearchPosition position, final int move) {
+        final int[] plyKillers = this.killers[position.getPly()];
+        return move == plyKillers[0] || move == plyKillers[1];
+    }
+
+    /**
+     * Learns from a move that caused a beta cutoff. Quiet moves become the ply's first killer,
+     * the counter move to the opponent's last move and gain history by the square of the depth,
+     * since cutoffs high in the tree save the most work.
+     * @param position the position the move was made in
+     * @param move the move that caused the cutoff
+     * @param depth the remaining depth of the node
+     */
+    public void recordCutoff(final SearchPosition position, final int move, final int depth) {
+        if (PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+            return;
+        }
+        final int[] plyKillers = this.killers[position.getPly()];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        final int lastMove = position.getLastMove();
+        if (lastMove != PackedMove.NO_MOVE) {
+            this.counterMoves[fromTo(lastMove)] = move;
+        }
+        final int[] sideHistory = this.history[position.getCurrPlayerAlliance().ordinal()];
+        final int index = fromTo(move);
+        sideHistory[index] += depth * depth;
+        if (sideHistory[index] >= MAX_HISTORY) {
+            ageHistory();
+        }
+    }
+
+    /**
+     * Halves every history score
+     */
+    private void ageHistory() {
+        for (final int[] sideHistory : this.history) {
+            for (int i = 0; i < sideHistory.length; i++) {
+                sideHistory[i] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * Checks if a capture or promotion loses material once the exchange on its tile is over
+     * @param position the position the move was generated in
+     * @param move the packed move
+     * @return true if the static exchange evaluation of the move is negative
+     */
+    public boolean isLosingCapture(final SearchPosition position, final int move) {
+        return this.staticExchange.isLosing(position, move);
+    }
+
+    /**
+     * Scores a capture or queen promotion. It counts as winning unless the static exchange
+     * evaluation says the exchange it starts loses material, so a capture of a defended piece
+     * by a more valuable one is tried after the killers.
+     * @param position the position the move was generated in
+     * @param move the packed move
+     * @return the score of the capture
+     */
+    private int scoreCapture(final SearchPosition position, final int move) {
+        final boolean isWinning = !this.staticExchange.isLosing(position, move);
+        return (isWinning ? WINNING_CAPTURE_SCORE : LOSING_CAPTURE_SCORE) + calcMvvLva(position, move);
+    }
+
+    /**
+     * Scores a capture by most valuable victim, then least valuable attacker
+     * @param position the position the move was generated in
+     * @param move the packed move
+     * @return the MVV-LVA score of the capture
+     */
+    private static int calcMvvLva(final SearchPosition position, final int move) {
+        final PieceType attacker = position.getPieceType(PackedMove.getStartingCoord(move));
+        // victims never reach the king's value, so the attacker only breaks ties
+        return calcGain(position, move) * PieceType.KING.getValue() - attacker.getValue();
+    }
+
+    /**
+     * Gets the material a capture or promotion gains before any recapture. A promotion counts
+     * the piece gained as part of its victim.
+     * @param position the position the move was generated in
+     * @param move the packed move
+     * @return the value of the captured piece plus any promotion gain
+     */
+    private static int calcGain(final SearchPosition position, final int move) {
+        final PieceType victim = PackedMove.getFlag(move) == PackedMove.EN_PASSANT
+                ? PieceType.PAWN : position.getPieceType(PackedMove.getDestCoord(move));
+        int gain = victim == null ? 0 : victim.getValue();
+        if (PackedMove.isPromotion(move)) {
+            gain += PackedMove.getPromotionType(move).getValue() - PieceType.PAWN.getValue();
+        }
+        return gain;
+    }
+
+    /**
+     * Gets the butterfly index of a move
+     * @param move the packed move
+     * @return the from and to tiles of the move as one index
+     */
+    private static int fromTo(final int move) {
+        return PackedMove.getStartingCoord(move) * BoardUtils.NUM_TILES + PackedMove.getDestCoord(move);
+    }
+}
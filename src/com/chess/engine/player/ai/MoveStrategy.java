@@ -5,4 +5,12 @@ import com.chess.engine.board.Move;
 
 public interface MoveStrategy {
     Move execute(Board board);
+
+    /**
+     * Finds the best move while respecting the given limits
+     * @param board the board being analyzed
+     * @param limits the time, node and depth limits of the search
+     * @return the best move found
+     */
+    Move execute(Board board, SearchLimits limits);
 }
@@ -0,0 +1,532 @@
+package com.chess.engine.player.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchPosition;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Iterative deepening alpha-beta search parallelised with Young Brothers Wait. At every node
+ * the first legal move, the eldest brother, is searched serially to establish a bound; only then
+ * are the remaining siblings forked as tasks on a ForkJoinPool, each on its own copy of the
+ * position. When a sibling causes a beta cutoff the other siblings, and everything below them,
+ * abort cooperatively. Nodes too close to the leaves to be worth a task are searched serially.
+ *
+ * Unlike MiniMax this is a plain full-width alpha-beta search with a quiescence search below the
+ * horizon: it has no transposition table, null move pruning, late move reductions, principal
+ * variation search or aspiration windows, so the two can pick different moves. Since nothing is
+ * pruned or reduced by what other threads have seen, the best move and score do not depend on
+ * thread timing, which makes this search suited to regression testing of itself across thread
+ * counts. Move ordering learns killers and history per worker thread, so node counts can vary
+ * between runs.
+ *
+ * Every instance owns its worker threads, so it must be closed once it is no longer needed.
+ */
+public class ParallelMiniMax implements MoveStrategy, AutoCloseable {
+
+    // nodes with less depth left are searched serially
+    private static final int MIN_SPLIT_DEPTH = 3;
+    // how many nodes a task searches between looks at the clock
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final BoardEvaluator boardEvaluator;
+    private final int searchDepth;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<MoveOrderer> moveOrderers = ThreadLocal.withInitial(MoveOrderer::new);
+
+    // state of the search in progress
+    private final LongAdder nodes = new LongAdder();
+    private volatile boolean stopRequested;
+    private volatile boolean stopped;
+    private long nodeLimit;
+    private long deadline;
+    private volatile int completedDepth;
+
+    /**
+     * Constructor for a parallel search using every available processor
+     * @param searchDepth the depth searched
+     */
+    public ParallelMiniMax(final int searchDepth) {
+        this(searchDepth, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for a parallel search
+     * @param searchDepth the depth searched
+     * @param parallelism the number of worker threads
+     */
+    public ParallelMiniMax(final int searchDepth, final int parallelism) {
+        this(searchDepth, parallelism, EvaluationCache.DEFAULT_SIZE_MB);
+    }
+
+    /**
+     * Constructor for a parallel search
+     * @param searchDepth the depth searched
+     * @param parallelism the number of worker threads
+     * @param evalCacheSizeMB the size of the evaluation cache shared by the worker threads
+     */
+    public ParallelMiniMax(final int searchDepth, final int parallelism, final int evalCacheSizeMB) {
+        this.boardEvaluator = new EvaluationCache(new StandardBoardEvauluator(), evalCacheSizeMB);
+        this.searchDepth = searchDepth;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Converts the search to it's string representation
+     * @return the string representation of this search
+     */
+    @Override
+    public String toString() {
+        return "ParallelMiniMax";
+    }
+
+    /**
+     * Executes the search to the depth this instance was created with.
+     *
+     * @param board The current board being analyzed.
+     * @return The best move found.
+     */
+    @Override
+    public Move execute(final Board board) {
+        return execute(board, SearchLimits.depth(this.searchDepth));
+    }
+
+    /**
+     * Executes the search one ply deeper each iteration until a limit is reached and returns the
+     * best move of the last iteration that finished. The first iteration always finishes.
+     *
+     * @param board The current board being analyzed.
+     * @param limits The limits the search must respect.
+     * @return The best move found.
+     */
+    @Override
+    public Move execute(final Board board, final SearchLimits limits) {
+        final long startNanos = System.nanoTime();
+        final Alliance alliance = board.getCurrPlayerAlliance();
+        final long timeBudget = limits.calcTimeBudget(alliance) * 1_000_000L;
+        this.deadline = timeBudget > 0 ? startNanos + timeBudget : Long.MAX_VALUE;
+        this.nodeLimit = limits.getNodes() > 0 && !limits.isInfinite() ? limits.getNodes() : Long.MAX_VALUE;
+        this.nodes.reset();
+        this.stopRequested = false;
+        this.stopped = false;
+        this.completedDepth = 0;
+
+        final SearchPosition position = new SearchPosition(board);
+        int bestMove = PackedMove.NO_MOVE;
+        for (int depth = 1; depth <= limits.getDepth(); depth++) {
+            final int iterationDepth = depth;
+            final int previousBestMove = bestMove;
+            final int move = this.pool.invoke(ForkJoinTask.adapt(() -> searchRoot(position, iterationDepth, previousBestMove)));
+            if (this.stopped) {
+                break;
+            }
+            bestMove = move;
+            this.completedDepth = depth;
+            if (bestMove == PackedMove.NO_MOVE ||
+                (limits.usesClock(alliance) && System.nanoTime() - startNanos > timeBudget / 2)) {
+                break;
+            }
+        }
+        return bestMove == PackedMove.NO_MOVE ? null : MoveFactory.createMove(board, bestMove);
+    }
+
+    /**
+     * Asks a running search to stop once its first iteration has finished
+     */
+    public void stop() {
+        this.stopRequested = true;
+    }
+
+    /**
+     * Gets the deepest iteration the last search finished
+     * @return the depth of the last finished iteration
+     */
+    public int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    /**
+     * Gets the number of nodes the last search visited
+     * @return the number of moves made during the last search by all worker threads
+     */
+    public long getNodes() {
+        return this.nodes.sum();
+    }
+
+    /**
+     * Shuts the worker threads down. The search cannot be executed once it is closed.
+     */
+    @Override
+    public void close() {
+        this.pool.shutdown();
+    }
+
+    /**
+     * Gets the number of worker threads
+     * @return the parallelism of the pool the search runs on
+     */
+    public int getParallelism() {
+        return this.pool.getParallelism();
+    }
+
+    /**
+     * Searches every root move to a fixed depth. The first move is searched serially and the
+     * rest in parallel. Each window is one wider than the best score known when the move is
+     * started, so every move that ties the best gets its exact score. Of those the one with the
+     * lowest packed value is chosen, since the move order depends on the history each thread
+     * has gathered and which move finishes first depends on the scheduling.
+     *
+     * @param position The root position.
+     * @param depth The depth of this iteration.
+     * @param previousBestMove The best move of the previous iteration or PackedMove.NO_MOVE.
+     * @return The best move at this depth or PackedMove.NO_MOVE if there are no legal moves.
+     */
+    private int searchRoot(final SearchPosition position, final int depth, final int previousBestMove) {
+        final boolean isWhite = position.getCurrPlayerAlliance().isWhite();
+        final MoveList moves = position.generateMoves();
+        this.moveOrderers.get().orderMoves(position, moves, previousBestMove);
+        final SplitPoint splitPoint = new SplitPoint(null, Integer.MIN_VALUE, Integer.MAX_VALUE, isWhite, 1);
+        final List<SiblingTask> tasks = new ArrayList<>();
+        for (int i = 0; i < moves.size(); i++) {
+            final int move = moves.get(i);
+            // boards only promote to queens, so only those can be played at the root
+            if (!PackedMove.isPromotion(move) || PackedMove.getPromotionType(move) == PieceType.QUEEN) {
+                tasks.add(new SiblingTask(splitPoint, position, move, depth - 1));
+            }
+        }
+        // the eldest brother first, then the rest together
+        int first = 0;
+        for (; first < tasks.size(); first++) {
+            final SiblingTask task = tasks.get(first);
+            task.invoke();
+            if (task.isLegal || this.stopped) {
+                break;
+            }
+        }
+        if (first < tasks.size() && !this.stopped) {
+            ForkJoinTask.invokeAll(tasks.subList(first + 1, tasks.size()));
+        }
+        if (this.stopped) {
+            return PackedMove.NO_MOVE;
+        }
+
+        int bestMove = PackedMove.NO_MOVE;
+        int bestVal = isWhite ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        for (final SiblingTask task : tasks) {
+            if (task.isLegal && (isWhite ? task.value > bestVal : task.value < bestVal) ||
+                task.isLegal && task.value == bestVal && task.move < bestMove) {
+                bestVal = task.value;
+                bestMove = task.move;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * This class holds what siblings searched in parallel share: the window of their parent,
+     * tightened as each of them finishes, and whether a cutoff has made the rest of them useless.
+     */
+    private static final class SplitPoint {
+        private final SplitPoint parent;
+        private final boolean isWhite;
+        // subtracted from scores before they narrow the window, see searchRoot
+        private final int tieMargin;
+        private int alpha;
+        private int beta;
+        private volatile boolean cutoff;
+
+        /**
+         * Constructor for a split point
+         * @param parent the split point of the enclosing parallel search or null at the root
+         * @param alpha the lower bound of the parent's window
+         * @param beta the upper bound of the parent's window
+         * @param isWhite whether white moves at the parent
+         * @param tieMargin how far below a score the window is narrowed
+         */
+        private SplitPoint(final SplitPoint parent, final int alpha, final int beta,
+                           final boolean isWhite, final int tieMargin) {
+            this.parent = parent;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.isWhite = isWhite;
+            this.tieMargin = tieMargin;
+        }
+
+        /**
+         * Narrows the window with a sibling's score and flags a cutoff when it closes
+         * @param value the score of a sibling
+         */
+        private synchronized void update(final int value) {
+            if (this.isWhite) {
+                this.alpha = Math.max(this.alpha, value == Integer.MIN_VALUE ? value : value - this.tieMargin);
+            } else {
+                this.beta = Math.min(this.beta, value == Integer.MAX_VALUE ? value : value + this.tieMargin);
+            }
+            if (this.beta <= this.alpha) {
+                this.cutoff = true;
+            }
+        }
+
+        private synchronized int getAlpha() {
+            return this.alpha;
+        }
+
+        private synchronized int getBeta() {
+            return this.beta;
+        }
+
+        /**
+         * Checks whether this split point or any enclosing one has been cut off
+         * @return true if the work below this split point is no longer needed
+         */
+        private boolean isAborted() {
+            for (SplitPoint splitPoint = this; splitPoint != null; splitPoint = splitPoint.parent) {
+                if (splitPoint.cutoff) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * This class searches one move of a split point on its own copy of the position
+     */
+    private final class SiblingTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SplitPoint splitPoint;
+        private final SearchPosition parentPosition;
+        private final int move;
+        private final int depth;
+        private boolean isLegal;
+        private int value;
+
+        /**
+         * Constructor for a sibling task
+         * @param splitPoint the split point the move belongs to
+         * @param parentPosition the position the move is made in, which does not change until
+         *        every sibling has finished
+         * @param move the packed move searched
+         * @param depth the depth left after the move
+         */
+        private SiblingTask(final SplitPoint splitPoint, final SearchPosition parentPosition,
+                            final int move, final int depth) {
+            this.splitPoint = splitPoint;
+            this.parentPosition = parentPosition;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.splitPoint.isAborted() || ParallelMiniMax.this.stopped) {
+                return;
+            }
+            final SearchPosition position = new SearchPosition(this.parentPosition);
+            if (!position.doMove(this.move)) {
+                return;
+            }
+            final Searcher searcher = new Searcher(position, this.splitPoint);
+            searcher.countNode();
+            final int result = searcher.search(this.depth, this.splitPoint.getAlpha(), this.splitPoint.getBeta());
+            searcher.flushNodes();
+            if (searcher.isStopped()) {
+                return;
+            }
+            this.value = result;
+            this.isLegal = true;
+            this.splitPoint.update(result);
+        }
+    }
+
+    /**
+     * This class runs the serial part of the search on one position. It forks sibling tasks at
+     * nodes deep enough to be worth splitting.
+     */
+    private final class Searcher {
+        private final SearchPosition position;
+        private final SplitPoint splitPoint;
+        private final MoveOrderer moveOrderer;
+        private int uncountedNodes;
+
+        /**
+         * Constructor for a searcher
+         * @param position the position searched, owned by this searcher
+         * @param splitPoint the innermost split point above the position
+         */
+        private Searcher(final SearchPosition position, final SplitPoint splitPoint) {
+            this.position = position;
+            this.splitPoint = splitPoint;
+            this.moveOrderer = ParallelMiniMax.this.moveOrderers.get();
+        }
+
+        /**
+         * Counts a node, and every few nodes adds them to the total and checks the limits
+         */
+        private void countNode() {
+            if (++this.uncountedNodes == CHECK_INTERVAL) {
+                flushNodes();
+            }
+        }
+
+        /**
+         * Adds the nodes counted since the last flush to the total and checks the limits. Tasks
+         * flush when they split or finish, so small tasks check the limits too.
+         */
+        private void flushNodes() {
+            ParallelMiniMax.this.nodes.add(this.uncountedNodes);
+            this.uncountedNodes = 0;
+            if (ParallelMiniMax.this.completedDepth > 0 &&
+                (ParallelMiniMax.this.stopRequested ||
+                 ParallelMiniMax.this.nodes.sum() >= ParallelMiniMax.this.nodeLimit ||
+                 System.nanoTime() >= ParallelMiniMax.this.deadline)) {
+                ParallelMiniMax.this.stopped = true;
+            }
+        }
+
+        /**
+         * Checks whether the search has been stopped or a sibling above has cut off
+         * @return true if the result of this searcher is no longer needed
+         */
+        private boolean isStopped() {
+            return ParallelMiniMax.this.stopped || this.splitPoint.isAborted();
+        }
+
+        /**
+         * Computes the score of the position, maximising for white and minimising for black.
+         * The position is left as it was found.
+         *
+         * @param depth The remaining search depth.
+         * @return The score of the position, or 0 if the search was stopped.
+         */
+        private int search(final int depth, int alpha, int beta) {
+            if (isStopped()) {
+                return 0;
+            }
+            final boolean isWhite = this.position.getCurrPlayerAlliance().isWhite();
+            if (depth == 0) {
+                return quiesce(alpha, beta);
+            }
+
+            int bestVal = isWhite ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+            boolean hasLegalMove = false;
+            final MoveList moves = this.position.generateMoves();
+            this.moveOrderer.orderMoves(this.position, moves, PackedMove.NO_MOVE);
+            int i = 0;
+            for (; i < moves.size(); i++) {
+                // once the eldest brother is known the rest may be searched in parallel
+                if (hasLegalMove && depth >= MIN_SPLIT_DEPTH) {
+                    break;
+                }
+                final int move = moves.get(i);
+                if (this.position.doMove(move)) {
+                    countNode();
+                    hasLegalMove = true;
+                    final int currVal = search(depth - 1, alpha, beta);
+                    this.position.undoMove();
+                    if (isStopped()) {
+                        return 0;
+                    }
+                    if (isWhite) {
+                        bestVal = Math.max(bestVal, currVal);
+                        alpha = Math.max(alpha, currVal);
+                    } else {
+                        bestVal = Math.min(bestVal, currVal);
+                        beta = Math.min(beta, currVal);
+                    }
+                    if (beta <= alpha) {
+                        this.moveOrderer.recordCutoff(this.position, move, depth);
+                        return bestVal;
+                    }
+                }
+            }
+            // checkmate or stalemate
+            if (!hasLegalMove) {
+                return ParallelMiniMax.this.boardEvaluator.evaluate(this.position, depth);
+            }
+            if (i == moves.size()) {
+                return bestVal;
+            }
+
+            final SplitPoint childSplitPoint = new SplitPoint(this.splitPoint, alpha, beta, isWhite, 0);
+            final List<SiblingTask> tasks = new ArrayList<>(moves.size() - i);
+            for (; i < moves.size(); i++) {
+                tasks.add(new SiblingTask(childSplitPoint, this.position, moves.get(i), depth - 1));
+            }
+            flushNodes();
+            ForkJoinTask.invokeAll(tasks);
+            if (isStopped()) {
+                return 0;
+            }
+            for (final SiblingTask task : tasks) {
+                if (task.isLegal) {
+                    bestVal = isWhite ? Math.max(bestVal, task.value) : Math.min(bestVal, task.value);
+                }
+            }
+            return bestVal;
+        }
+
+        /**
+         * Searches only captures and queen promotions below the horizon, standing pat on the
+         * static evaluation when every capture makes things worse for the side to move. Captures
+         * that lose material in the exchange are skipped.
+         *
+         * @return The score of the position, or 0 if the search was stopped.
+         */
+        private int quiesce(int alpha, int beta) {
+            if (isStopped()) {
+                return 0;
+            }
+            final boolean isWhite = this.position.getCurrPlayerAlliance().isWhite();
+            final int standPat = ParallelMiniMax.this.boardEvaluator.evaluate(this.position, 0);
+            if (isWhite ? standPat >= beta : standPat <= alpha) {
+                return standPat;
+            }
+            int bestVal = standPat;
+            if (isWhite) {
+                alpha = Math.max(alpha, standPat);
+            } else {
+                beta = Math.min(beta, standPat);
+            }
+            final MoveList captures = this.position.generateCaptures();
+            this.moveOrderer.orderCaptures(this.position, captures);
+            for (int i = 0; i < captures.size(); i++) {
+                final int capture = captures.get(i);
+                if (this.moveOrderer.isLosingCapture(this.position, capture)) {
+                    continue;
+                }
+                if (this.position.doMove(capture)) {
+                    countNode();
+                    final int currVal = quiesce(alpha, beta);
+                    this.position.undoMove();
+                    if (isStopped()) {
+                        return 0;
+                    }
+                    if (isWhite) {
+                        bestVal = Math.max(bestVal, currVal);
+                        alpha = Math.max(alpha, currVal);
+                    } else {
+                        bestVal = Math.min(bestVal, currVal);
+                        beta = Math.min(beta, currVal);
+                    }
+                    if (beta <= alpha) {
+                        break;
+                    }
+                }
+            }
+            return bestVal;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+
+/**
+ * Prints the speedup curve of ParallelMiniMax: the time to search the starting position to a
+ * fixed depth with 1, 2, 4, ... worker threads up to the number of available processors, each
+ * as the best of a few runs, relative to the single threaded time.
+ */
+public final class ParallelSpeedup {
+
+    private static final int DEFAULT_DEPTH = 7;
+    private static final int RUNS = 3;
+
+    private ParallelSpeedup() {
+        throw new RuntimeException("You cannot instantiate ParallelSpeedup!");
+    }
+
+    public static void main(final String[] args) {
+        final int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        final int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        final Board board = Board.createStandardBoard();
+        System.out.println("depth " + depth + ", best of " + RUNS + " runs");
+        System.out.println("threads       ms  speedup        nodes  move");
+        long serialMillis = 0;
+        for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+            long bestMillis = Long.MAX_VALUE;
+            long nodes = 0;
+            Move move = null;
+            try (final ParallelMiniMax strategy = new ParallelMiniMax(depth, threads)) {
+                for (int run = 0; run < RUNS; run++) {
+                    final long start = System.nanoTime();
+                    move = strategy.execute(board);
+                    final long millis = (System.nanoTime() - start) / 1_000_000;
+                    if (millis < bestMillis) {
+                        bestMillis = millis;
+                        nodes = strategy.getNodes();
+                    }
+                }
+            }
+            if (threads == 1) {
+                serialMillis = bestMillis;
+            }
+            System.out.printf("%7d %8d %8.2f %12d  %s%n", threads, bestMillis,
+                    (double) serialMillis / Math.max(1, bestMillis), nodes, move);
+            if (threads == maxThreads) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.chess.engine.player.ai;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size table that caches the pawn structure score of positions by their pawn key. Like
+ * the transposition table each entry is two longs, the data word and the key XORed with the
+ * data word, so threads can share the table without locks and a half written entry is a miss.
+ * Sibling nodes nearly always have the same pawns, so almost every lookup is a hit.
+ *
+ * The data word holds a valid bit in bit 0, the endgame score in bits 16-31 and the middlegame
+ * score in the upper 32 bits.
+ */
+public final class PawnHashTable {
+
+    public static final int DEFAULT_SIZE_MB = 1;
+    public static final long NO_ENTRY = 0L;
+
+    private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+    private static final long VALID = 1L;
+    private static final int ENDGAME_SHIFT = 16;
+    private static final int MIDDLEGAME_SHIFT = 32;
+    private static final long ENDGAME_MASK = 0xFFFFL;
+
+    private final long[] entries;
+    private final int indexMask;
+    // counted without synchronisation, so approximate when threads share the table
+    private long probes;
+    private long hits;
+
+    /**
+     * Constructor for a pawn hash table. The number of entries is rounded down to a power of
+     * two so a key is mapped to its slot with a mask.
+     * @param sizeMB the memory the table may use in megabytes
+     */
+    public PawnHashTable(final int sizeMB) {
+        if (sizeMB < 1) {
+            throw new RuntimeException("Pawn hash table size must be at least 1 MB!");
+        }
+        final long maxEntries = (long) sizeMB * 1024 * 1024 / BYTES_PER_ENTRY;
+        // the two longs of every entry must fit in one array
+        final long numEntries = Long.highestOneBit(Math.min(maxEntries, Integer.MAX_VALUE / 2));
+        this.entries = new long[(int) numEntries * 2];
+        this.indexMask = (int) numEntries - 1;
+    }
+
+    /**
+     * Empties the table and resets its statistics
+     */
+    public void clear() {
+        Arrays.fill(this.entries, 0L);
+        clearStats();
+    }
+
+    /**
+     * Resets the lookup counts, e.g. at the start of a search
+     */
+    public void clearStats() {
+        this.probes = 0;
+        this.hits = 0;
+    }
+
+    /**
+     * Looks up a pawn structure
+     * @param pawnKey the pawn key of the position
+     * @return the data word of the structure's entry or NO_ENTRY if it is not stored
+     */
+    public long probe(final long pawnKey) {
+        this.probes++;
+        final int index = indexOf(pawnKey);
+        final long data = this.entries[index + 1];
+        if ((this.entries[index] ^ data) != pawnKey || data == NO_ENTRY) {
+            return NO_ENTRY;
+        }
+        this.hits++;
+        return data;
+    }
+
+    /**
+     * Stores the score of a pawn structure, replacing whatever was in its slot
+     * @param pawnKey the pawn key of the position
+     * @param middlegameScore the middlegame score, white minus black
+     * @param endgameScore the endgame score, white minus black, which must fit in 16 bits
+     * @return the data word that was stored
+     */
+    public long store(final long pawnKey, final int middlegameScore, final int endgameScore) {
+        final int index = indexOf(pawnKey);
+        final long data = VALID |
+                ((endgameScore & ENDGAME_MASK) << ENDGAME_SHIFT) |
+                ((long) middlegameScore << MIDDLEGAME_SHIFT);
+        this.entries[index] = pawnKey ^ data;
+        this.entries[index + 1] = data;
+        return data;
+    }
+
+    /**
+     * Gets the array index of the first word of a key's entry
+     * @param pawnKey the pawn key of the position
+     * @return the index of the entry's key word
+     */
+    private int indexOf(final long pawnKey) {
+        return ((int) pawnKey & this.indexMask) << 1;
+    }
+
+    /**
+     * Gets the number of lookups since the statistics were last reset
+     * @return the number of probes
+     */
+    public long getProbes() {
+        return this.probes;
+    }
+
+    /**
+     * Gets the number of lookups that found the structure since the statistics were last reset
+     * @return the number of hits
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Gets the share of lookups that found the structure
+     * @return the hits divided by the probes, or 0 if there were no probes
+     */
+    public double getHitRate() {
+        return this.probes == 0 ? 0.0 : (double) this.hits / this.probes;
+    }
+
+    /**
+     * Gets the middlegame score of an entry
+     * @param data the data word of the entry
+     * @return the middlegame score, white minus black
+     */
+    public static int getMiddlegameScore(final long data) {
+        return (int) (data >> MIDDLEGAME_SHIFT);
+    }
+
+    /**
+     * Gets the endgame score of an entry
+     * @param data the data word of the entry
+     * @return the endgame score, white minus black
+     */
+    public static int getEndgameScore(final long data) {
+        return (short) (data >>> ENDGAME_SHIFT);
+    }
+}
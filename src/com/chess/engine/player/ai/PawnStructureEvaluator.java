@@ -0,0 +1,160 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitboardUtils;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.PieceSquareTables;
+import com.chess.engine.board.Position;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/**
+ * Scores the pawn structure: passed, doubled, isolated and backward pawns, plus the pawns
+ * sheltering each king. Everything but the shelter only depends on the pawns, so it is cached in
+ * a pawn hash table by the pawn key and only worked out again when the pawns change. The shelter
+ * depends on where the kings stand and is cheap, so it is counted every time. Like the
+ * piece-square tables every term has a middlegame and an endgame value blended by the phase.
+ */
+public final class PawnStructureEvaluator implements BoardEvaluator {
+
+    private static final Alliance[] ALLIANCES = Alliance.values();
+
+    private static final int DOUBLED_MIDDLEGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDDLEGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+    private static final int BACKWARD_MIDDLEGAME = -8;
+    private static final int BACKWARD_ENDGAME = -10;
+    // indexed by rank counted from the pawn's own side, 1 being its starting rank
+    private static final int[] PASSED_MIDDLEGAME = { 0, 0, 5, 10, 20, 35, 55, 0 };
+    private static final int[] PASSED_ENDGAME = { 0, 5, 10, 20, 35, 60, 90, 0 };
+    // shelter only matters while there are pieces left to attack the king
+    private static final int SHIELD_NEAR_MIDDLEGAME = 10;
+    private static final int SHIELD_FAR_MIDDLEGAME = 5;
+
+    // indexed by alliance and then tile, see initMasks for what each one covers
+    private static final long[][] FORWARD_SPANS = initMasks(0, 0, 1, BoardUtils.NUM_TILES_PER_ROW - 1);
+    private static final long[][] PASSED_MASKS = initMasks(0, 1, 1, BoardUtils.NUM_TILES_PER_ROW - 1);
+    private static final long[][] ADJACENT_FILES = initMasks(1, 1, 1 - BoardUtils.NUM_TILES_PER_ROW, BoardUtils.NUM_TILES_PER_ROW - 1);
+    private static final long[][] SUPPORT_MASKS = initMasks(1, 1, 1 - BoardUtils.NUM_TILES_PER_ROW, 0);
+    private static final long[][] NEAR_SHIELDS = initMasks(0, 1, 1, 1);
+    private static final long[][] FAR_SHIELDS = initMasks(0, 1, 2, 2);
+
+    private final PawnHashTable pawnHashTable;
+
+    /**
+     * Constructor for a pawn structure evaluator
+     * @param pawnHashTable the table pawn structure scores are cached in
+     */
+    public PawnStructureEvaluator(final PawnHashTable pawnHashTable) {
+        this.pawnHashTable = pawnHashTable;
+    }
+
+    /**
+     * Builds a mask for every alliance and tile from the tiles within a distance of files and a
+     * range of rows ahead of it, ahead meaning the direction the alliance's pawns move in
+     * @param minFiles the fewest files between a tile and the masked tiles
+     * @param maxFiles the most files between a tile and the masked tiles
+     * @param minRowsAhead the fewest rows the masked tiles are ahead, negative for behind
+     * @param maxRowsAhead the most rows the masked tiles are ahead
+     * @return the masks by alliance and tile
+     */
+    private static long[][] initMasks(final int minFiles, final int maxFiles,
+                                      final int minRowsAhead, final int maxRowsAhead) {
+        final long[][] masks = new long[ALLIANCES.length][BoardUtils.NUM_TILES];
+        for (final Alliance alliance : ALLIANCES) {
+            for (int coord = 0; coord < BoardUtils.NUM_TILES; coord++) {
+                long mask = 0L;
+                for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+                    final int files = Math.abs(tile % BoardUtils.NUM_TILES_PER_ROW - coord % BoardUtils.NUM_TILES_PER_ROW);
+                    // pawn direction is -1 for white, whose pawns move towards row 0
+                    final int rowsAhead = (tile / BoardUtils.NUM_TILES_PER_ROW - coord / BoardUtils.NUM_TILES_PER_ROW) *
+                            alliance.getPawnDirection();
+                    if (files >= minFiles && files <= maxFiles && rowsAhead >= minRowsAhead && rowsAhead <= maxRowsAhead) {
+                        mask |= BitboardUtils.tileBit(tile);
+                    }
+                }
+                masks[alliance.ordinal()][coord] = mask;
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Evaluates the pawn structure of the position, looking the pawn-only terms up in the pawn
+     * hash table before working them out
+     * @param position The current board state.
+     * @param depth The remaining search depth, which the pawn structure does not depend on
+     * @return the tapered pawn structure score, positive when white is better
+     */
+    @Override
+    public int evaluate(final Position position, final int depth) {
+        final long pawnKey = position.getPawnKey();
+        long entry = this.pawnHashTable.probe(pawnKey);
+        if (entry == PawnHashTable.NO_ENTRY) {
+            entry = storeStructure(position, pawnKey);
+        }
+        final int shield = shieldScore(position, Alliance.WHITE) - shieldScore(position, Alliance.BLACK);
+        return PieceSquareTables.taper(PawnHashTable.getMiddlegameScore(entry) + shield,
+                PawnHashTable.getEndgameScore(entry), position.getPhase());
+    }
+
+    /**
+     * Scores the passed, doubled, isolated and backward pawns of both alliances and stores the
+     * result in the pawn hash table
+     * @param position the position being evaluated
+     * @param pawnKey the pawn key of the position
+     * @return the data word that was stored
+     */
+    private long storeStructure(final Position position, final long pawnKey) {
+        int middlegameScore = 0;
+        int endgameScore = 0;
+        for (final Alliance alliance : ALLIANCES) {
+            final int sign = alliance.isWhite() ? 1 : -1;
+            final long[] forwardSpans = FORWARD_SPANS[alliance.ordinal()];
+            final long[] passedMasks = PASSED_MASKS[alliance.ordinal()];
+            final long[] adjacentFiles = ADJACENT_FILES[alliance.ordinal()];
+            final long[] supportMasks = SUPPORT_MASKS[alliance.ordinal()];
+            final long ownPawns = position.getPieces(alliance, PieceType.PAWN);
+            final long enemyPawns = position.getPieces(alliance.getOpposite(), PieceType.PAWN);
+            final int forward = BoardUtils.NUM_TILES_PER_ROW * alliance.getPawnDirection();
+            long pawns = ownPawns;
+            while (pawns != 0L) {
+                final int coord = Long.numberOfTrailingZeros(pawns);
+                pawns &= pawns - 1;
+                if ((forwardSpans[coord] & ownPawns) != 0L) {
+                    // only the rear pawn of a doubled pair is penalised, the front one may be passed
+                    middlegameScore += sign * DOUBLED_MIDDLEGAME;
+                    endgameScore += sign * DOUBLED_ENDGAME;
+                } else if ((passedMasks[coord] & enemyPawns) == 0L) {
+                    final int rank = alliance.isWhite() ? BoardUtils.NUM_TILES_PER_ROW - 1 - coord / BoardUtils.NUM_TILES_PER_ROW
+                                                        : coord / BoardUtils.NUM_TILES_PER_ROW;
+                    middlegameScore += sign * PASSED_MIDDLEGAME[rank];
+                    endgameScore += sign * PASSED_ENDGAME[rank];
+                }
+                if ((adjacentFiles[coord] & ownPawns) == 0L) {
+                    middlegameScore += sign * ISOLATED_MIDDLEGAME;
+                    endgameScore += sign * ISOLATED_ENDGAME;
+                } else if ((supportMasks[coord] & ownPawns) == 0L &&
+                           (BitboardUtils.pawnAttacks(alliance, coord + forward) & enemyPawns) != 0L) {
+                    // no pawn can come up to defend it and it cannot advance without being taken
+                    middlegameScore += sign * BACKWARD_MIDDLEGAME;
+                    endgameScore += sign * BACKWARD_ENDGAME;
+                }
+            }
+        }
+        return this.pawnHashTable.store(pawnKey, middlegameScore, endgameScore);
+    }
+
+    /**
+     * Scores the pawns sheltering an alliance's king on the rows in front of it
+     * @param position the position being evaluated
+     * @param alliance the alliance whose king is sheltered
+     * @return the middlegame shelter bonus of the alliance
+     */
+    private static int shieldScore(final Position position, final Alliance alliance) {
+        final int kingCoord = position.getKingCoord(alliance);
+        final long pawns = position.getPieces(alliance, PieceType.PAWN);
+        return Long.bitCount(NEAR_SHIELDS[alliance.ordinal()][kingCoord] & pawns) * SHIELD_NEAR_MIDDLEGAME +
+               Long.bitCount(FAR_SHIELDS[alliance.ordinal()][kingCoord] & pawns) * SHIELD_FAR_MIDDLEGAME;
+    }
+}
@@ -0,0 +1,194 @@
+package com.chess.engine.player.ai;
+
+import java.util.List;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.MoveTransition;
+
+/**
+ * This class lets a MiniMax keep searching while the opponent thinks. After the engine has
+ * moved, the reply its principal variation expects is played on a copy of the board and searched
+ * on a thread of its own with ponder limits. If the opponent then plays that reply the running
+ * search is converted into the real one with a ponder hit, keeping its iterations and the
+ * transposition table it filled. Any other reply stops the ponder search, whose work survives
+ * only in the transposition table, and the position is searched from scratch.
+ */
+public class Ponderer implements MoveStrategy {
+
+    // how often a waiting thread repeats a stop or ponder hit the search may have missed
+    private static final long POLL_MILLIS = 10;
+
+    private final MiniMax miniMax;
+
+    private Thread ponderThread;
+    private long ponderKey;
+    private volatile Move ponderResult;
+
+    /**
+     * Constructor for a ponderer
+     * @param miniMax the search used both for pondering and for the real searches
+     */
+    public Ponderer(final MiniMax miniMax) {
+        this.miniMax = miniMax;
+    }
+
+    /**
+     * Gets the search this ponderer runs
+     * @return the search used for pondering and the real searches
+     */
+    public MiniMax getMiniMax() {
+        return this.miniMax;
+    }
+
+    /**
+     * Returns the string representation of this ponderer
+     * @return the string representation of this ponderer
+     */
+    @Override
+    public String toString() {
+        return "Ponderer";
+    }
+
+    /**
+     * Finds the best move to the depth the MiniMax was created with, converting the ponder
+     * search if the board is the one being pondered
+     * @param board the board being analyzed
+     * @return the best move found
+     */
+    @Override
+    public Move execute(final Board board) {
+        final Move ponderMove = finishPondering(board);
+        return ponderMove != null ? ponderMove : this.miniMax.execute(board);
+    }
+
+    /**
+     * Finds the best move. If the board is the one being pondered the ponder search gets a ponder
+     * hit and its result is returned; it keeps the limits it was started with, its clock starting
+     * now. Otherwise any ponder search is stopped and the board is searched with the given limits.
+     * @param board the board being analyzed
+     * @param limits the limits of the search if the board is not the one being pondered
+     * @return the best move found
+     */
+    @Override
+    public Move execute(final Board board, final SearchLimits limits) {
+        final Move ponderMove = finishPondering(board);
+        return ponderMove != null ? ponderMove : this.miniMax.execute(board, limits);
+    }
+
+    /**
+     * Ends pondering before a real search: a ponder hit if the board is the one being pondered,
+     * otherwise a stop
+     * @param board the board the real search is for
+     * @return the move the converted ponder search found on the board, or null if the board
+     *         still has to be searched
+     */
+    private Move finishPondering(final Board board) {
+        final Thread thread;
+        final boolean ponderHit;
+        synchronized (this) {
+            thread = this.ponderThread;
+            ponderHit = thread != null && this.ponderKey == board.getZobristKey();
+            this.ponderThread = null;
+        }
+        if (thread == null) {
+            return null;
+        }
+        if (!ponderHit) {
+            stop(thread);
+            return null;
+        }
+        // repeated because a hit that arrives before the search has started is lost
+        while (thread.isAlive()) {
+            if (this.miniMax.isPondering()) {
+                this.miniMax.ponderHit();
+            }
+            join(thread);
+        }
+        final Move move = this.ponderResult;
+        return move == null ? null : MoveFactory.createMove(board, move.getStartingCoord(), move.getDestCoord());
+    }
+
+    /**
+     * Starts searching the reply the last search expects while the opponent thinks. Does
+     * nothing if the last search has no expected reply or the reply is not legal on the board.
+     * @param board the board after the engine's move, with the opponent to move
+     * @param limits the limits of the search once the opponent plays the expected reply
+     * @return true if a ponder search was started
+     */
+    public synchronized boolean startPondering(final Board board, final SearchLimits limits) {
+        if (this.ponderThread != null) {
+            stopPondering();
+        }
+        final SearchStats stats = this.miniMax.getSearchStats();
+        if (stats == null || stats.getIterations().isEmpty()) {
+            return false;
+        }
+        final List<SearchStats.Iteration> iterations = stats.getIterations();
+        final int[] principalVariation = iterations.get(iterations.size() - 1).getPrincipalVariation();
+        if (principalVariation.length < 2) {
+            return false;
+        }
+        final Move expectedReply = MoveFactory.createMove(board, principalVariation[1]);
+        final MoveTransition transition = board.getCurrPlayer().makeMove(expectedReply);
+        if (!transition.getMoveStatus().isDone()) {
+            return false;
+        }
+        final Board ponderBoard = transition.getUpdatedBoard();
+        final SearchLimits ponderLimits = new SearchLimits.Builder(limits).setPonder(true).build();
+        this.ponderKey = ponderBoard.getZobristKey();
+        this.ponderResult = null;
+        this.ponderThread = new Thread(() -> this.ponderResult = this.miniMax.execute(ponderBoard, ponderLimits),
+                "MiniMax ponder");
+        this.ponderThread.setDaemon(true);
+        this.ponderThread.start();
+        return true;
+    }
+
+    /**
+     * Says whether a ponder search has been started and not yet hit or stopped
+     * @return true if the engine is pondering
+     */
+    public synchronized boolean isPondering() {
+        return this.ponderThread != null;
+    }
+
+    /**
+     * Stops the ponder search, if any, and waits for its thread to finish
+     */
+    public void stopPondering() {
+        final Thread thread;
+        synchronized (this) {
+            thread = this.ponderThread;
+            this.ponderThread = null;
+        }
+        if (thread != null) {
+            stop(thread);
+        }
+    }
+
+    /**
+     * Stops a ponder search and waits for its thread to finish
+     * @param thread the thread of the ponder search
+     */
+    private void stop(final Thread thread) {
+        // repeated because a stop that arrives before the search has started is forgotten
+        while (thread.isAlive()) {
+            this.miniMax.stop();
+            join(thread);
+        }
+    }
+
+    /**
+     * Waits a little for a ponder thread to finish
+     * @param thread the thread of the ponder search
+     */
+    private static void join(final Thread thread) {
+        try {
+            thread.join(POLL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.pgn.FenUtils;
+
+/**
+ * Prints the nodes and time MiniMax needs to reach a fixed depth on a set of positions, with
+ * null move pruning and late move reductions switched off, on alone and on together. Each search
+ * starts from an empty transposition table, so the counts only depend on the search itself.
+ */
+public final class PruningBenchmark {
+
+    private static final int DEFAULT_DEPTH = 6;
+    private static final String[] FENS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"
+    };
+
+    private PruningBenchmark() {
+        throw new RuntimeException("You cannot instantiate PruningBenchmark!");
+    }
+
+    public static void main(final String[] args) {
+        final int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        System.out.println("depth " + depth + ", " + FENS.length + " positions");
+        System.out.println("null move  reductions        nodes       ms  moves");
+        for (int config = 0; config < 4; config++) {
+            final boolean nullMovePruning = (config & 1) != 0;
+            final boolean lateMoveReductions = (config & 2) != 0;
+            long nodes = 0;
+            long millis = 0;
+            final StringBuilder moves = new StringBuilder();
+            for (final String fen : FENS) {
+                final Board board = FenUtils.createBoardFromFen(fen);
+                final MiniMax miniMax = new MiniMax(depth);
+                miniMax.setNullMovePruning(nullMovePruning);
+                miniMax.setLateMoveReductions(lateMoveReductions);
+                final long start = System.nanoTime();
+                final Move move = miniMax.execute(board);
+                millis += (System.nanoTime() - start) / 1_000_000;
+                nodes += miniMax.getNodes();
+                moves.append(' ').append(move);
+            }
+            System.out.printf("%9s %11s %12d %8d %s%n", nullMovePruning ? "on" : "off",
+                    lateMoveReductions ? "on" : "off", nodes, millis, moves);
+        }
+    }
+}
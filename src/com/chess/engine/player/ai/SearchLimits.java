@@ -0,0 +1,311 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+
+/**
+ * This class holds the limits a search must respect: a fixed time per move, the players' clocks
+ * and increments, a node budget, a maximum depth or no limit at all until the search is stopped.
+ * Limits that are not set are 0, and whichever set limit is reached first ends the search. A
+ * ponder search ignores its time limits until the opponent plays the expected move.
+ */
+public final class SearchLimits {
+
+    public static final int MAX_DEPTH = 64;
+    // expected number of moves left in the game when sharing out a clock
+    private static final int MOVES_TO_GO = 30;
+    // time kept back on the clock for overhead between moves
+    private static final long CLOCK_SAFETY_MARGIN = 50;
+
+    private final long moveTime;
+    private final long whiteTime;
+    private final long blackTime;
+    private final long whiteIncrement;
+    private final long blackIncrement;
+    private final long nodes;
+    private final long movesToGo;
+    private final int depth;
+    private final boolean infinite;
+    private final boolean ponder;
+
+    /**
+     * Constructor that sets up the limits
+     * @param builder
+     */
+    private SearchLimits(final Builder builder) {
+        this.moveTime = builder.moveTime;
+        this.whiteTime = builder.whiteTime;
+        this.blackTime = builder.blackTime;
+        this.whiteIncrement = builder.whiteIncrement;
+        this.blackIncrement = builder.blackIncrement;
+        this.nodes = builder.nodes;
+        this.movesToGo = builder.movesToGo;
+        this.depth = builder.depth;
+        this.infinite = builder.infinite;
+        this.ponder = builder.ponder;
+    }
+
+    /**
+     * Creates limits that search to a fixed depth
+     * @param depth the depth searched
+     * @return the search limits
+     */
+    public static SearchLimits depth(final int depth) {
+        return new Builder().setDepth(depth).build();
+    }
+
+    /**
+     * Creates limits that search for a fixed time
+     * @param moveTime the time the search may take in milliseconds
+     * @return the search limits
+     */
+    public static SearchLimits moveTime(final long moveTime) {
+        return new Builder().setMoveTime(moveTime).build();
+    }
+
+    /**
+     * Gets the fixed time per move
+     * @return the time per move in milliseconds or 0 if not set
+     */
+    public long getMoveTime() {
+        return this.moveTime;
+    }
+
+    /**
+     * Gets the time left on an alliance's clock
+     * @param alliance the alliance whose clock is read
+     * @return the time left in milliseconds or 0 if not set
+     */
+    public long getTime(final Alliance alliance) {
+        return alliance.isWhite() ? this.whiteTime : this.blackTime;
+    }
+
+    /**
+     * Gets the increment an alliance gets per move
+     * @param alliance the alliance whose increment is read
+     * @return the increment in milliseconds or 0 if not set
+     */
+    public long getIncrement(final Alliance alliance) {
+        return alliance.isWhite() ? this.whiteIncrement : this.blackIncrement;
+    }
+
+    /**
+     * Gets the number of moves the clock has to last until the next time control
+     * @return the number of moves to go or 0 if not set
+     */
+    public long getMovesToGo() {
+        return this.movesToGo;
+    }
+
+    /**
+     * Gets the node budget
+     * @return the number of nodes that may be searched or 0 if not set
+     */
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Gets the maximum depth
+     * @return the deepest iteration searched
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Says whether the search runs until it is stopped
+     * @return true if the search ignores time and node limits and false otherwise
+     */
+    public boolean isInfinite() {
+        return this.infinite;
+    }
+
+    /**
+     * Says whether the search is pondering on the opponent's time
+     * @return true if time limits only start counting at a ponder hit and false otherwise
+     */
+    public boolean isPonder() {
+        return this.ponder;
+    }
+
+    /**
+     * Says whether the time limit comes from sharing out a clock rather than a fixed move time,
+     * in which case iterations that are unlikely to finish are not started
+     * @param alliance the alliance to move
+     * @return true if the time budget is taken from the alliance's clock and false otherwise
+     */
+    public boolean usesClock(final Alliance alliance) {
+        return !this.infinite && this.moveTime == 0 && getTime(alliance) > 0;
+    }
+
+    /**
+     * Works out how long the side to move may search
+     * @param alliance the alliance to move
+     * @return the time budget in milliseconds or 0 if time is not limited
+     */
+    public long calcTimeBudget(final Alliance alliance) {
+        if (this.infinite) {
+            return 0;
+        }
+        if (this.moveTime > 0) {
+            return this.moveTime;
+        }
+        final long time = getTime(alliance);
+        if (time <= 0) {
+            return 0;
+        }
+        // keep a move's share in hand when the time control is close
+        final long movesToGo = this.movesToGo > 0 ? Math.min(this.movesToGo + 1, MOVES_TO_GO) : MOVES_TO_GO;
+        final long budget = time / movesToGo + getIncrement(alliance) * 3 / 4;
+        return Math.max(1, Math.min(budget, time - CLOCK_SAFETY_MARGIN));
+    }
+
+    /**
+     * Builder class for constructing a SearchLimits instance.
+     */
+    public static class Builder {
+        long moveTime;
+        long whiteTime;
+        long blackTime;
+        long whiteIncrement;
+        long blackIncrement;
+        long nodes;
+        long movesToGo;
+        int depth = MAX_DEPTH;
+        boolean infinite;
+        boolean ponder;
+
+        /**
+         * Constructor for a builder without limits
+         */
+        public Builder() {
+        }
+
+        /**
+         * Constructor for a builder starting from the values of existing limits
+         * @param limits the limits copied
+         */
+        public Builder(final SearchLimits limits) {
+            this.moveTime = limits.moveTime;
+            this.whiteTime = limits.whiteTime;
+            this.blackTime = limits.blackTime;
+            this.whiteIncrement = limits.whiteIncrement;
+            this.blackIncrement = limits.blackIncrement;
+            this.nodes = limits.nodes;
+            this.movesToGo = limits.movesToGo;
+            this.depth = limits.depth;
+            this.infinite = limits.infinite;
+            this.ponder = limits.ponder;
+        }
+
+        /**
+         * Sets a fixed time per move.
+         * 
+         * @param moveTime the time the search may take in milliseconds
+         * @return the updated Builder instance
+         */
+        public Builder setMoveTime(final long moveTime) {
+            this.moveTime = moveTime;
+            return this;
+        }
+
+        /**
+         * Sets the time left on an alliance's clock.
+         * 
+         * @param alliance the alliance whose clock is set
+         * @param time the time left in milliseconds
+         * @return the updated Builder instance
+         */
+        public Builder setTime(final Alliance alliance, final long time) {
+            if (alliance.isWhite()) {
+                this.whiteTime = time;
+            } else {
+                this.blackTime = time;
+            }
+            return this;
+        }
+
+        /**
+         * Sets the increment an alliance gets per move.
+         * 
+         * @param alliance the alliance whose increment is set
+         * @param increment the increment in milliseconds
+         * @return the updated Builder instance
+         */
+        public Builder setIncrement(final Alliance alliance, final long increment) {
+            if (alliance.isWhite()) {
+                this.whiteIncrement = increment;
+            } else {
+                this.blackIncrement = increment;
+            }
+            return this;
+        }
+
+        /**
+         * Sets the number of moves the clock has to last until the next time control.
+         * 
+         * @param movesToGo the number of moves to go
+         * @return the updated Builder instance
+         */
+        public Builder setMovesToGo(final long movesToGo) {
+            this.movesToGo = movesToGo;
+            return this;
+        }
+
+        /**
+         * Sets the node budget.
+         * 
+         * @param nodes the number of nodes that may be searched
+         * @return the updated Builder instance
+         */
+        public Builder setNodes(final long nodes) {
+            this.nodes = nodes;
+            return this;
+        }
+
+        /**
+         * Sets the maximum depth.
+         * 
+         * @param depth the deepest iteration searched
+         * @return the updated Builder instance
+         */
+        public Builder setDepth(final int depth) {
+            if (depth < 1 || depth > MAX_DEPTH) {
+                throw new RuntimeException("Search depth must be between 1 and " + MAX_DEPTH + "!");
+            }
+            this.depth = depth;
+            return this;
+        }
+
+        /**
+         * Makes the search run until it is stopped.
+         * 
+         * @param infinite whether the search ignores time and node limits
+         * @return the updated Builder instance
+         */
+        public Builder setInfinite(final boolean infinite) {
+            this.infinite = infinite;
+            return this;
+        }
+
+        /**
+         * Makes the search ponder until a ponder hit starts its clock.
+         * 
+         * @param ponder whether the search is pondering on the opponent's time
+         * @return the updated Builder instance
+         */
+        public Builder setPonder(final boolean ponder) {
+            this.ponder = ponder;
+            return this;
+        }
+
+        /**
+         * Builds and returns a SearchLimits instance.
+         * 
+         * @return a new SearchLimits instance configured by this Builder
+         */
+        public SearchLimits build() {
+            return new SearchLimits(this);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.chess.engine.player.ai;
+
+/**
+ * Receives progress reports from a running search, on the thread that runs it
+ */
+public interface SearchListener {
+
+    /**
+     * Called whenever an iteration of iterative deepening has finished
+     * @param iteration the depth, score, principal variation and effort of the iteration
+     */
+    void iterationFinished(SearchStats.Iteration iteration);
+}
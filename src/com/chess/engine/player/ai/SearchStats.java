@@ -0,0 +1,523 @@
+package com.chess.engine.player.ai;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PackedMove;
+
+/**
+ * What a finished search found and how efficiently it got there. Besides the best move it
+ * holds the node counts, how deep the search went, how often and how early moves caused a beta
+ * cutoff, how the transposition table, pawn hash table and evaluation cache were used and how
+ * long each iteration took. The ratios are
+ * what to watch for regressions: a lower first-move cutoff rate means worse move ordering and a
+ * higher effective branching factor means a bigger tree for the same depth.
+ */
+public final class SearchStats {
+
+    private final Move bestMove;
+    private final int depth;
+    private final int selDepth;
+    private final long nodes;
+    private final long qNodes;
+    private final long timeMillis;
+    private final long expandedNodes;
+    private final long betaCutoffs;
+    private final long firstMoveCutoffs;
+    private final long hashProbes;
+    private final long hashHits;
+    private final long hashStores;
+    private final long pawnHashProbes;
+    private final long pawnHashHits;
+    private final long evalCacheProbes;
+    private final long evalCacheHits;
+    private final List<Iteration> iterations;
+
+    /**
+     * Constructor that copies the values of a builder
+     * @param builder the builder holding the statistics
+     */
+    private SearchStats(final Builder builder) {
+        this.bestMove = builder.bestMove;
+        this.depth = builder.depth;
+        this.selDepth = builder.selDepth;
+        this.nodes = builder.nodes;
+        this.qNodes = builder.qNodes;
+        this.timeMillis = builder.timeMillis;
+        this.expandedNodes = builder.expandedNodes;
+        this.betaCutoffs = builder.betaCutoffs;
+        this.firstMoveCutoffs = builder.firstMoveCutoffs;
+        this.hashProbes = builder.hashProbes;
+        this.hashHits = builder.hashHits;
+        this.hashStores = builder.hashStores;
+        this.pawnHashProbes = builder.pawnHashProbes;
+        this.pawnHashHits = builder.pawnHashHits;
+        this.evalCacheProbes = builder.evalCacheProbes;
+        this.evalCacheHits = builder.evalCacheHits;
+        this.iterations = Collections.unmodifiableList(new ArrayList<>(builder.iterations));
+    }
+
+    /**
+     * Gets the move the search returned
+     * @return the best move or null if there was no legal move
+     */
+    public Move getBestMove() {
+        return this.bestMove;
+    }
+
+    /**
+     * Gets the depth of the last iteration that finished
+     * @return the completed depth
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Gets the deepest ply any line reached, including quiescence
+     * @return the selective depth
+     */
+    public int getSelDepth() {
+        return this.selDepth;
+    }
+
+    /**
+     * Gets the number of moves made by every search thread
+     * @return the number of nodes
+     */
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Gets the number of moves made in quiescence search by the main search thread
+     * @return the number of quiescence nodes
+     */
+    public long getQNodes() {
+        return this.qNodes;
+    }
+
+    /**
+     * Gets how long the search took
+     * @return the time of the whole search in milliseconds
+     */
+    public long getTimeMillis() {
+        return this.timeMillis;
+    }
+
+    /**
+     * Gets the search speed
+     * @return the number of nodes per second
+     */
+    public long getNodesPerSecond() {
+        return this.nodes * 1000 / Math.max(1, this.timeMillis);
+    }
+
+    /**
+     * Gets the number of full width nodes whose moves were searched
+     * @return the number of expanded nodes
+     */
+    public long getExpandedNodes() {
+        return this.expandedNodes;
+    }
+
+    /**
+     * Gets the number of expanded nodes that ended in a beta cutoff
+     * @return the number of beta cutoffs
+     */
+    public long getBetaCutoffs() {
+        return this.betaCutoffs;
+    }
+
+    /**
+     * Gets the share of expanded nodes that ended in a beta cutoff
+     * @return the beta cutoff rate between 0 and 1
+     */
+    public double getBetaCutoffRate() {
+        return this.expandedNodes == 0 ? 0.0 : (double) this.betaCutoffs / this.expandedNodes;
+    }
+
+    /**
+     * Gets the share of beta cutoffs caused by the first move searched, the usual measure of
+     * move ordering
+     * @return the first move cutoff rate between 0 and 1
+     */
+    public double getFirstMoveCutoffRate() {
+        return this.betaCutoffs == 0 ? 0.0 : (double) this.firstMoveCutoffs / this.betaCutoffs;
+    }
+
+    /**
+     * Gets the number of transposition table lookups
+     * @return the number of probes
+     */
+    public long getHashProbes() {
+        return this.hashProbes;
+    }
+
+    /**
+     * Gets the number of transposition table lookups that found the position
+     * @return the number of hits
+     */
+    public long getHashHits() {
+        return this.hashHits;
+    }
+
+    /**
+     * Gets the number of results written to the transposition table
+     * @return the number of stores
+     */
+    public long getHashStores() {
+        return this.hashStores;
+    }
+
+    /**
+     * Gets the number of pawn hash table lookups made by the evaluation
+     * @return the number of probes
+     */
+    public long getPawnHashProbes() {
+        return this.pawnHashProbes;
+    }
+
+    /**
+     * Gets the number of pawn hash table lookups that found the pawn structure
+     * @return the number of hits
+     */
+    public long getPawnHashHits() {
+        return this.pawnHashHits;
+    }
+
+    /**
+     * Gets the share of pawn hash table lookups that found the pawn structure
+     * @return the hits divided by the probes, or 0 if there were no probes
+     */
+    public double getPawnHashHitRate() {
+        return this.pawnHashProbes == 0 ? 0.0 : (double) this.pawnHashHits / this.pawnHashProbes;
+    }
+
+    /**
+     * Gets the number of evaluation cache lookups
+     * @return the number of probes
+     */
+    public long getEvalCacheProbes() {
+        return this.evalCacheProbes;
+    }
+
+    /**
+     * Gets the number of evaluation cache lookups that found the position
+     * @return the number of hits
+     */
+    public long getEvalCacheHits() {
+        return this.evalCacheHits;
+    }
+
+    /**
+     * Gets the share of evaluation cache lookups that found the position
+     * @return the hits divided by the probes, or 0 if there were no probes
+     */
+    public double getEvalCacheHitRate() {
+        return this.evalCacheProbes == 0 ? 0.0 : (double) this.evalCacheHits / this.evalCacheProbes;
+    }
+
+    /**
+     * Gets the factor the tree grew by in the last iteration
+     * @return the nodes of the last iteration divided by those of the one before, or 0 if
+     *         fewer than two iterations finished
+     */
+    public double getEffectiveBranchingFactor() {
+        final int size = this.iterations.size();
+        if (size < 2 || this.iterations.get(size - 2).getNodes() == 0) {
+            return 0.0;
+        }
+        return (double) this.iterations.get(size - 1).getNodes() / this.iterations.get(size - 2).getNodes();
+    }
+
+    /**
+     * Gets the iterations that finished, shallowest first
+     * @return the finished iterations
+     */
+    public List<Iteration> getIterations() {
+        return this.iterations;
+    }
+
+    /**
+     * Converts the statistics to a single key=value log line
+     * @return the log line
+     */
+    @Override
+    public String toString() {
+        return String.format("search move=%s depth=%d seldepth=%d nodes=%d qnodes=%d nps=%d time=%d " +
+                "cutoffrate=%.3f firstcutoffrate=%.3f hashprobes=%d hashhits=%d hashstores=%d " +
+                "pawnhashrate=%.3f evalcacherate=%.3f ebf=%.2f",
+                this.bestMove, this.depth, this.selDepth, this.nodes, this.qNodes, getNodesPerSecond(),
+                this.timeMillis, getBetaCutoffRate(), getFirstMoveCutoffRate(), this.hashProbes,
+                this.hashHits, this.hashStores, getPawnHashHitRate(), getEvalCacheHitRate(),
+                getEffectiveBranchingFactor());
+    }
+
+    /**
+     * The result of one finished iteration of an iterative deepening search
+     */
+    public static final class Iteration {
+        private final int depth;
+        private final int selDepth;
+        private final long nodes;
+        private final long timeMillis;
+        private final int score;
+        private final int[] principalVariation;
+
+        /**
+         * Constructor for an iteration
+         * @param depth the depth of the iteration
+         * @param selDepth the deepest ply reached so far
+         * @param nodes the nodes searched in this iteration alone
+         * @param timeMillis the time this iteration alone took in milliseconds
+         * @param score the score of the best move, positive when white is better
+         * @param principalVariation the packed moves of the expected line, best move first
+         */
+        public Iteration(final int depth, final int selDepth, final long nodes, final long timeMillis,
+                         final int score, final int[] principalVariation) {
+            this.depth = depth;
+            this.selDepth = selDepth;
+            this.nodes = nodes;
+            this.timeMillis = timeMillis;
+            this.score = score;
+            this.principalVariation = principalVariation.clone();
+        }
+
+        /**
+         * Gets the depth of the iteration
+         * @return the depth of the iteration
+         */
+        public int getDepth() {
+            return this.depth;
+        }
+
+        /**
+         * Gets the deepest ply reached so far
+         * @return the deepest ply reached so far
+         */
+        public int getSelDepth() {
+            return this.selDepth;
+        }
+
+        /**
+         * Gets the nodes searched in this iteration alone
+         * @return the nodes searched in this iteration alone
+         */
+        public long getNodes() {
+            return this.nodes;
+        }
+
+        /**
+         * Gets the time this iteration alone took in milliseconds
+         * @return the time this iteration alone took in milliseconds
+         */
+        public long getTimeMillis() {
+            return this.timeMillis;
+        }
+
+        /**
+         * Gets the score of the best move
+         * @return the score, positive when white is better
+         */
+        public int getScore() {
+            return this.score;
+        }
+
+        /**
+         * Gets the line the search expects to be played
+         * @return the packed moves of the principal variation, best move first
+         */
+        public int[] getPrincipalVariation() {
+            return this.principalVariation.clone();
+        }
+
+        /**
+         * Converts the principal variation to coordinate notation
+         * @return the moves of the principal variation separated by spaces
+         */
+        public String getPrincipalVariationText() {
+            final StringBuilder builder = new StringBuilder();
+            for (final int move : this.principalVariation) {
+                if (builder.length() > 0) {
+                    builder.append(' ');
+                }
+                builder.append(PackedMove.toString(move));
+            }
+            return builder.toString();
+        }
+
+        /**
+         * Converts the iteration to a single key=value log line
+         * @return the log line
+         */
+        @Override
+        public String toString() {
+            return String.format("iteration depth=%d seldepth=%d nodes=%d time=%d score=%d pv=%s",
+                    this.depth, this.selDepth, this.nodes, this.timeMillis, this.score,
+                    getPrincipalVariationText().replace(' ', ','));
+        }
+    }
+
+    /**
+     * Builder class for collecting the statistics of a search
+     */
+    public static class Builder {
+        Move bestMove;
+        int depth;
+        int selDepth;
+        long nodes;
+        long qNodes;
+        long timeMillis;
+        long expandedNodes;
+        long betaCutoffs;
+        long firstMoveCutoffs;
+        long hashProbes;
+        long hashHits;
+        long hashStores;
+        long pawnHashProbes;
+        long pawnHashHits;
+        long evalCacheProbes;
+        long evalCacheHits;
+        final List<Iteration> iterations = new ArrayList<>();
+
+        /**
+         * Sets the move the search returned.
+         * 
+         * @param bestMove the best move or null
+         * @return the updated Builder instance
+         */
+        public Builder setBestMove(final Move bestMove) {
+            this.bestMove = bestMove;
+            return this;
+        }
+
+        /**
+         * Sets the depth of the last finished iteration.
+         * 
+         * @param depth the completed depth
+         * @return the updated Builder instance
+         */
+        public Builder setDepth(final int depth) {
+            this.depth = depth;
+            return this;
+        }
+
+        /**
+         * Sets the deepest ply reached.
+         * 
+         * @param selDepth the selective depth
+         * @return the updated Builder instance
+         */
+        public Builder setSelDepth(final int selDepth) {
+            this.selDepth = selDepth;
+            return this;
+        }
+
+        /**
+         * Sets the number of moves made by every search thread.
+         * 
+         * @param nodes the number of nodes
+         * @return the updated Builder instance
+         */
+        public Builder setNodes(final long nodes) {
+            this.nodes = nodes;
+            return this;
+        }
+
+        /**
+         * Sets the number of moves made in quiescence search.
+         * 
+         * @param qNodes the number of quiescence nodes
+         * @return the updated Builder instance
+         */
+        public Builder setQNodes(final long qNodes) {
+            this.qNodes = qNodes;
+            return this;
+        }
+
+        /**
+         * Sets how long the search took.
+         * 
+         * @param timeMillis the time in milliseconds
+         * @return the updated Builder instance
+         */
+        public Builder setTimeMillis(final long timeMillis) {
+            this.timeMillis = timeMillis;
+            return this;
+        }
+
+        /**
+         * Sets the cutoff counts
+         * @param expandedNodes the number of full width nodes whose moves were searched
+         * @param betaCutoffs the number of those that ended in a beta cutoff
+         * @param firstMoveCutoffs the number of cutoffs caused by the first move searched
+         * @return the updated Builder instance
+         */
+        public Builder setCutoffs(final long expandedNodes, final long betaCutoffs, final long firstMoveCutoffs) {
+            this.expandedNodes = expandedNodes;
+            this.betaCutoffs = betaCutoffs;
+            this.firstMoveCutoffs = firstMoveCutoffs;
+            return this;
+        }
+
+        /**
+         * Sets the transposition table counts
+         * @param hashProbes the number of lookups
+         * @param hashHits the number of lookups that found the position
+         * @param hashStores the number of results written
+         * @return the updated Builder instance
+         */
+        public Builder setHashUsage(final long hashProbes, final long hashHits, final long hashStores) {
+            this.hashProbes = hashProbes;
+            this.hashHits = hashHits;
+            this.hashStores = hashStores;
+            return this;
+        }
+
+        /**
+         * Sets the pawn hash table counts
+         * @param pawnHashProbes the number of lookups
+         * @param pawnHashHits the number of lookups that found the pawn structure
+         * @return the updated Builder instance
+         */
+        public Builder setPawnHashUsage(final long pawnHashProbes, final long pawnHashHits) {
+            this.pawnHashProbes = pawnHashProbes;
+            this.pawnHashHits = pawnHashHits;
+            return this;
+        }
+
+        /**
+         * Sets the evaluation cache counts
+         * @param evalCacheProbes the number of lookups
+         * @param evalCacheHits the number of lookups that found the position
+         * @return the updated Builder instance
+         */
+        public Builder setEvalCacheUsage(final long evalCacheProbes, final long evalCacheHits) {
+            this.evalCacheProbes = evalCacheProbes;
+            this.evalCacheHits = evalCacheHits;
+            return this;
+        }
+
+        /**
+         * Adds a finished iteration.
+         * 
+         * @param iteration the iteration, deeper than those added before
+         * @return the updated Builder instance
+         */
+        public Builder addIteration(final Iteration iteration) {
+            this.iterations.add(iteration);
+            return this;
+        }
+
+        /**
+         * Builds and returns the statistics
+         * @return a new SearchStats instance configured by this Builder
+         */
+        public SearchStats build() {
+            return new SearchStats(this);
+        }
+    }
+}
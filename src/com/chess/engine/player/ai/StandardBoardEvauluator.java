@@ -1,86 +1,167 @@
 package com.chess.engine.player.ai;
 
-import com.chess.engine.board.Board;
-import com.chess.engine.pieces.Piece;
-import com.chess.engine.player.Player;
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitboardUtils;
+import com.chess.engine.board.Position;
+import com.chess.engine.pieces.Piece.PieceType;
 
 public final class StandardBoardEvauluator implements BoardEvaluator {
     private static final int CHECK_BONUS = 50;
     private static final int CHECKMATE_BONUS = 10000;
     private static final int DEPTH_BONUS = 100;
     private static final int CASTLE_BONUS = 60;
+    // a mate found at a leaf scores the bonus plus the leaf's evaluation, which is never this far behind
+    private static final int MATE_THRESHOLD = CHECKMATE_BONUS - 2000;
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    // indexed by piece type
+    private static final int[] MOBILITY_WEIGHTS = { 0, 4, 5, 2, 1, 0 };
+
+    private final BoardEvaluator pawnStructureEvaluator;
+
+    /**
+     * Checks whether a search score comes from a checkmate
+     * @param score the score of a search, from either side's point of view
+     * @return true if the score is a mate for either side
+     */
+    public static boolean isMateScore(final int score) {
+        return Math.abs((long) score) >= MATE_THRESHOLD;
+    }
+
+    /**
+     * Works out how many plies from the root a mate score's checkmate is. The bonus grows by
+     * CHECKMATE_BONUS * DEPTH_BONUS for every ply of depth left when the mate was found, and a
+     * mate found at a leaf, with no depth left, gets CHECKMATE_BONUS.
+     * @param score a mate score, see isMateScore
+     * @param searchDepth the depth of the iteration the score comes from
+     * @return the plies to the checkmate, 0 if the side to move is already mated
+     */
+    public static int calcMatePlies(final int score, final int searchDepth) {
+        final long unit = (long) CHECKMATE_BONUS * DEPTH_BONUS;
+        final long depthLeft = (Math.abs((long) score) + unit / 2) / unit;
+        return (int) Math.max(0, searchDepth - depthLeft);
+    }
+
+    /**
+     * Constructor for an evaluator with a pawn hash table of its own
+     */
+    public StandardBoardEvauluator() {
+        this(new PawnHashTable(PawnHashTable.DEFAULT_SIZE_MB));
+    }
+
+    /**
+     * Constructor for an evaluator
+     * @param pawnHashTable the table pawn structure scores are cached in, which may be kept
+     *        between searches
+     */
+    public StandardBoardEvauluator(final PawnHashTable pawnHashTable) {
+        this.pawnStructureEvaluator = new PawnStructureEvaluator(pawnHashTable);
+    }
 
      /**
      * Evaluates the board position by comparing the material strength of White and Black.
      * The score is calculated as:
-     *      (White's position score) - (Black's position score)
+     *      (static score) + (depth-dependent score)
      *
-     * @param board The current board state.
+     * @param position The current board state.
      * @param depth The remaining search depth 
      * @return A numerical score representing the evaluation of the board.
      */
     @Override
-    public int evaluate(final Board board, final int depth) {
-        return scorePlayer(board, board.getWhitePlayer(), depth) - 
-                scorePlayer(board, board.getBlackPlayer(), depth);
+    public int evaluate(final Position position, final int depth) {
+        return evaluateStatic(position) + evaluateDynamic(position, depth);
     }
 
     /**
-     * Computes the total score for a given player based on the value of their pieces.
-     * 
-     * @param board The current board state.
-     * @param player The player whose board position is being evaluated.
+     * Scores everything but checkmate, the only term that depends on the search depth.
+     * The score is calculated as:
+     *      (tapered material and piece-square score) + (pawn structure score) +
+     *      (White's position score) - (Black's position score)
+     * The search position keeps the tapered score up to date as moves are made, so that term
+     * costs nothing to read.
+     *
+     * @param position The current board state.
+     * @return the static score, positive when white is better
+     */
+    @Override
+    public int evaluateStatic(final Position position) {
+        return position.getPieceSquareScore() +
+                this.pawnStructureEvaluator.evaluate(position, 0) +
+                scorePlayer(position, Alliance.WHITE) -
+                scorePlayer(position, Alliance.BLACK);
+    }
+
+    /**
+     * Scores a checkmate, which is worth more the sooner it happens
+     *
+     * @param position The current board state.
      * @param depth The remaining search depth
+     * @return the checkmate bonus of the winner, positive when white is better
+     */
+    @Override
+    public int evaluateDynamic(final Position position, final int depth) {
+        return checkmate(position, Alliance.WHITE, depth) - checkmate(position, Alliance.BLACK, depth);
+    }
+
+    /**
+     * Computes the score for a given player from the terms the piece-square tables leave out.
+     * 
+     * @param position The current board state.
+     * @param alliance The alliance whose board position is being evaluated.
      * @return The difference in score of the white vs black player
      */
-    private int scorePlayer(final Board board, final Player player, final int depth) {
-        return pieceValueScore(player) +
-                mobilityScore(player) +
-                check(player) +
-                checkmate(player, depth) + 
-                castled(player);
+    private int scorePlayer(final Position position, final Alliance alliance) {
+        return mobilityScore(position, alliance) +
+                check(position, alliance) +
+                castled(position, alliance);
         }
                 
         
     /**
-     * Calculates the total material value of a player's active pieces.
-     *
-     * @param player The player whose piece values are being summed.
-     * @return The total material value of all the player's active pieces.
+     * Scores the passed player based on how many safe tiles their pieces can move to. The tiles
+     * come from the attack bitboards, so no move list is generated, and tiles held by their own
+     * pieces or attacked by enemy pawns are left out. Each tile counts the mobility weight of the
+     * piece: minor pieces gain the most from every extra tile, the queen the least, and pawns and
+     * the king are not scored.
+     * @param position The current board state.
+     * @param alliance the alliance being scored
+     * @return the weighted number of safe tiles the player's pieces attack
      */
-    private static int pieceValueScore(final Player player) {
-        int totalPieceScore = 0;
-        for (final Piece piece : player.getActivePieces()) {
-            totalPieceScore += piece.getValue();
+    private static int mobilityScore(final Position position, final Alliance alliance) {
+        final long own = position.getOccupancy(alliance);
+        final long all = own | position.getOccupancy(alliance.getOpposite());
+        final long safe = ~own & ~BitboardUtils.pawnAttackSet(alliance.getOpposite(),
+                position.getPieces(alliance.getOpposite(), PieceType.PAWN));
+        int mobility = 0;
+        for (int i = PieceType.KNIGHT.ordinal(); i < PieceType.KING.ordinal(); i++) {
+            long pieces = position.getPieces(alliance, PIECE_TYPES[i]);
+            while (pieces != 0L) {
+                final int coord = Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                mobility += Long.bitCount(BitboardUtils.pieceAttacks(PIECE_TYPES[i], coord, all) & safe) * MOBILITY_WEIGHTS[i];
+            }
         }
-        return totalPieceScore;
-    }
-    
-    /**
-     * Scores the passed player based on how many moves they have
-     * @param player the player being scored
-     * @return the number of legal moves a player has
-     */
-    private static int mobilityScore(final Player player) {
-        return player.getLegalMoves().size();
+        return mobility;
     }
 
     /**
      * Scores the player based on if they have their opponent in check
-     * @param player the player being scored
+     * @param position The current board state.
+     * @param alliance the alliance being scored
      * @return a check bonus if their opponent is in check otherwise 0
      */
-    private static int check(final Player player) {
-        return player.getOpponent().isInCheck() ? CHECK_BONUS : 0;
+    private static int check(final Position position, final Alliance alliance) {
+        return position.isInCheck(alliance.getOpposite()) ? CHECK_BONUS : 0;
     }
 
     /**
      * Scores the player based on if they their opponent is checkmated
-     * @param player the player being scored
+     * @param position The current board state.
+     * @param alliance the alliance being scored
+     * @param depth The remaining search depth
      * @return a checkmate bonus if their opponent is checkmated otherwise 0
      */
-    private int checkmate(final Player player, final int depth) {
-        return player.getOpponent().isInCheckmate() ? CHECKMATE_BONUS * depthBonus(depth) : 0;    
+    private int checkmate(final Position position, final Alliance alliance, final int depth) {
+        return position.getCurrPlayerAlliance() != alliance && position.isCheckmate() ? CHECKMATE_BONUS * depthBonus(depth) : 0;    
     }
 
     /**
@@ -95,11 +176,12 @@ public final class StandardBoardEvauluator implements BoardEvaluator {
     
     /**
      * Scores the player based on if they have castled or not
-     * @param player the player being scored
+     * @param position The current board state.
+     * @param alliance the alliance being scored
      * @return a castle bonus if they have castled otherwise 0
      */
-    private static int castled(final Player player) {
-        return player.hasCastled() ? CASTLE_BONUS : 0;
+    private static int castled(final Position position, final Alliance alliance) {
+        return position.hasCastled(alliance) ? CASTLE_BONUS : 0;
     }
 
 }
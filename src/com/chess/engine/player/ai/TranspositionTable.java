@@ -0,0 +1,172 @@
+package com.chess.engine.player.ai;
+
+import java.util.Arrays;
+
+import com.chess.engine.board.PackedMove;
+
+/**
+ * A fixed-size transposition table that remembers the results of searched positions by their
+ * Zobrist key. Each entry is two longs in one primitive array: the data word and the key XORed
+ * with the data word. A reader only trusts an entry when the two words XOR back to its key, so
+ * threads can share the table without locks and a half written entry is simply a miss.
+ *
+ * The data word holds the best move in bits 0-15, the depth in bits 16-23, the bound type in
+ * bits 24-25, the search generation in bits 26-31 and the score in the upper 32 bits.
+ */
+public final class TranspositionTable {
+
+    public static final int DEFAULT_SIZE_MB = 16;
+    public static final long NO_ENTRY = 0L;
+
+    // bound types start at 1 so that a stored data word is never NO_ENTRY
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+    private static final int DEPTH_SHIFT = 16;
+    private static final int BOUND_SHIFT = 24;
+    private static final int GENERATION_SHIFT = 26;
+    private static final int SCORE_SHIFT = 32;
+    private static final int MOVE_MASK = 0xFFFF;
+    private static final int DEPTH_MASK = 0xFF;
+    private static final int BOUND_MASK = 0x3;
+    private static final int GENERATION_MASK = 0x3F;
+
+    private final int sizeMB;
+    private final long[] entries;
+    private final int indexMask;
+    private volatile int generation;
+
+    /**
+     * Constructor for a transposition table. The number of entries is rounded down to a power
+     * of two so a key is mapped to its slot with a mask.
+     * @param sizeMB the memory the table may use in megabytes
+     */
+    public TranspositionTable(final int sizeMB) {
+        if (sizeMB < 1) {
+            throw new RuntimeException("Transposition table size must be at least 1 MB!");
+        }
+        this.sizeMB = sizeMB;
+        final long maxEntries = (long) sizeMB * 1024 * 1024 / BYTES_PER_ENTRY;
+        // the two longs of every entry must fit in one array
+        final long numEntries = Long.highestOneBit(Math.min(maxEntries, Integer.MAX_VALUE / 2));
+        this.entries = new long[(int) numEntries * 2];
+        this.indexMask = (int) numEntries - 1;
+    }
+
+    /**
+     * Gets the size the table was created with
+     * @return the size of the table in megabytes
+     */
+    public int getSizeMB() {
+        return this.sizeMB;
+    }
+
+    /**
+     * Starts a new search. Entries left from earlier searches are replaced before deeper ones
+     * from the current search.
+     */
+    public void newSearch() {
+        this.generation = (this.generation + 1) & GENERATION_MASK;
+    }
+
+    /**
+     * Empties the table
+     */
+    public void clear() {
+        Arrays.fill(this.entries, 0L);
+    }
+
+    /**
+     * Looks up a position
+     * @param zobristKey the Zobrist key of the position
+     * @return the data word of the position's entry or NO_ENTRY if it is not stored
+     */
+    public long probe(final long zobristKey) {
+        final int index = indexOf(zobristKey);
+        final long data = this.entries[index + 1];
+        return (this.entries[index] ^ data) == zobristKey ? data : NO_ENTRY;
+    }
+
+    /**
+     * Stores the result of searching a position. An entry from the current search is only
+     * replaced by a search of the same position or one at least as deep.
+     * @param zobristKey the Zobrist key of the position
+     * @param depth the depth the position was searched to
+     * @param bound whether the score is EXACT, a LOWER_BOUND or an UPPER_BOUND
+     * @param score the score of the search
+     * @param bestMove the best packed move found or PackedMove.NO_MOVE
+     */
+    public void store(final long zobristKey, final int depth, final int bound, final int score, final int bestMove) {
+        final int index = indexOf(zobristKey);
+        final long oldData = this.entries[index + 1];
+        final boolean sameKey = (this.entries[index] ^ oldData) == zobristKey;
+        if (oldData != NO_ENTRY && !sameKey && getGeneration(oldData) == this.generation && depth < getDepth(oldData)) {
+            return;
+        }
+        // keep the old best move when this search did not find one
+        final int move = bestMove == PackedMove.NO_MOVE && sameKey ? getMove(oldData) : bestMove;
+        final long data = (move & MOVE_MASK) |
+                ((long) Math.min(depth, DEPTH_MASK) << DEPTH_SHIFT) |
+                ((long) bound << BOUND_SHIFT) |
+                ((long) this.generation << GENERATION_SHIFT) |
+                ((long) score << SCORE_SHIFT);
+        this.entries[index] = zobristKey ^ data;
+        this.entries[index + 1] = data;
+    }
+
+    /**
+     * Gets the array index of the first word of a key's entry
+     * @param zobristKey the Zobrist key of the position
+     * @return the index of the entry's key word
+     */
+    private int indexOf(final long zobristKey) {
+        return ((int) zobristKey & this.indexMask) << 1;
+    }
+
+    /**
+     * Gets the best move of an entry
+     * @param data the data word of the entry
+     * @return the best packed move or PackedMove.NO_MOVE
+     */
+    public static int getMove(final long data) {
+        return (int) data & MOVE_MASK;
+    }
+
+    /**
+     * Gets the depth of an entry
+     * @param data the data word of the entry
+     * @return the depth the position was searched to
+     */
+    public static int getDepth(final long data) {
+        return (int) (data >>> DEPTH_SHIFT) & DEPTH_MASK;
+    }
+
+    /**
+     * Gets the bound type of an entry
+     * @param data the data word of the entry
+     * @return EXACT, LOWER_BOUND or UPPER_BOUND
+     */
+    public static int getBound(final long data) {
+        return (int) (data >>> BOUND_SHIFT) & BOUND_MASK;
+    }
+
+    /**
+     * Gets the search generation an entry was stored in
+     * @param data the data word of the entry
+     * @return the generation of the entry
+     */
+    public static int getGeneration(final long data) {
+        return (int) (data >>> GENERATION_SHIFT) & GENERATION_MASK;
+    }
+
+    /**
+     * Gets the score of an entry
+     * @param data the data word of the entry
+     * @return the score of the search
+     */
+    public static int getScore(final long data) {
+        return (int) (data >> SCORE_SHIFT);
+    }
+}
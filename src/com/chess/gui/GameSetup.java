@@ -6,6 +6,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import javax.swing.ButtonGroup;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
@@ -17,6 +18,9 @@ import javax.swing.SpinnerNumberModel;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.player.Player;
+import com.chess.engine.player.ai.EvaluationCache;
+import com.chess.engine.player.ai.SearchLimits;
+import com.chess.engine.player.ai.TranspositionTable;
 import com.chess.gui.Table.PlayerType;
 
 class GameSetup extends JDialog {
@@ -24,6 +28,10 @@ class GameSetup extends JDialog {
     private PlayerType whitePlayerType;
     private PlayerType blackPlayerType;
     private JSpinner searchDepthSpinner;
+    private JSpinner searchThreadsSpinner;
+    private JSpinner hashSizeSpinner;
+    private JSpinner evalCacheSizeSpinner;
+    private JCheckBox ponderCheckBox;
 
     private static final String HUMAN_TEXT = "Human";
     private static final String COMPUTER_TEXT = "Computer";
@@ -56,7 +64,12 @@ class GameSetup extends JDialog {
         myPanel.add(blackComputerButton);
 
         myPanel.add(new JLabel("Search"));
-        this.searchDepthSpinner = addLabeledSpinner(myPanel, "Search Depth", new SpinnerNumberModel(6, 0, Integer.MAX_VALUE, 1));
+        this.searchDepthSpinner = addLabeledSpinner(myPanel, "Search Depth", new SpinnerNumberModel(6, 1, SearchLimits.MAX_DEPTH, 1));
+        this.searchThreadsSpinner = addLabeledSpinner(myPanel, "Search Threads", new SpinnerNumberModel(1, 1, 256, 1));
+        this.hashSizeSpinner = addLabeledSpinner(myPanel, "Hash Size (MB)", new SpinnerNumberModel(TranspositionTable.DEFAULT_SIZE_MB, 1, 4096, 1));
+        this.evalCacheSizeSpinner = addLabeledSpinner(myPanel, "Eval Cache Size (MB)", new SpinnerNumberModel(EvaluationCache.DEFAULT_SIZE_MB, 1, 1024, 1));
+        this.ponderCheckBox = new JCheckBox("Ponder on human's time");
+        myPanel.add(this.ponderCheckBox);
 
         final JButton cancelButton = new JButton("Cancel");
         final JButton okButton = new JButton("OK");
@@ -116,4 +129,32 @@ class GameSetup extends JDialog {
     int getSearchDepth() {
         return (Integer)this.searchDepthSpinner.getValue();
     }
+
+    int getSearchThreads() {
+        return (Integer)this.searchThreadsSpinner.getValue();
+    }
+
+    void setSearchThreads(final int searchThreads) {
+        this.searchThreadsSpinner.setValue(searchThreads);
+    }
+
+    int getHashSizeMB() {
+        return (Integer)this.hashSizeSpinner.getValue();
+    }
+
+    void setHashSizeMB(final int hashSizeMB) {
+        this.hashSizeSpinner.setValue(hashSizeMB);
+    }
+
+    int getEvalCacheSizeMB() {
+        return (Integer)this.evalCacheSizeSpinner.getValue();
+    }
+
+    void setEvalCacheSizeMB(final int evalCacheSizeMB) {
+        this.evalCacheSizeSpinner.setValue(evalCacheSizeMB);
+    }
+
+    boolean isPonderEnabled() {
+        return this.ponderCheckBox.isSelected();
+    }
 }
\ No newline at end of file
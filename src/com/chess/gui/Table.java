@@ -25,6 +25,9 @@ import com.chess.engine.board.Tile;
 import com.chess.engine.board.Move.MoveFactory;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.player.ai.MiniMax;
+import com.chess.engine.player.ai.Ponderer;
+import com.chess.engine.player.ai.SearchLimits;
+import com.chess.engine.player.ai.TranspositionTable;
 import com.chess.engine.player.ai.MoveStrategy;
 
 import java.awt.*;
@@ -53,6 +56,12 @@ public class Table extends Observable {
     private Board chessBoard;
     private final MoveLog moveLog;
     private final GameSetup gameSetup;
+    private TranspositionTable transpositionTable;
+    private Ponderer ponderer;
+    private int pondererDepth;
+    private int pondererThreads;
+    private int pondererEvalCacheSizeMB;
+    private TranspositionTable pondererTable;
 
     private Tile srcTile;
     private Tile destTile;
@@ -113,6 +122,85 @@ public class Table extends Observable {
         private GameSetup getGameSetup() {
             return this.gameSetup;
         }
+
+        /**
+         * Sets the number of threads the computer player searches with
+         * @param searchThreads the number of search threads
+         */
+        public void setSearchThreads(final int searchThreads) {
+            this.gameSetup.setSearchThreads(searchThreads);
+        }
+
+        /**
+         * Sets the size of the computer player's transposition table
+         * @param hashSizeMB the size of the table in megabytes
+         */
+        public void setHashSizeMB(final int hashSizeMB) {
+            this.gameSetup.setHashSizeMB(hashSizeMB);
+        }
+
+        /**
+         * Sets the size of the evaluation cache the computer player's search threads share
+         * @param evalCacheSizeMB the size of the cache in megabytes
+         */
+        public void setEvalCacheSizeMB(final int evalCacheSizeMB) {
+            this.gameSetup.setEvalCacheSizeMB(evalCacheSizeMB);
+        }
+
+        /**
+         * Gets the transposition table kept between the computer's moves, replacing it when the
+         * size chosen in the game setup has changed
+         * @return the transposition table of the computer player
+         */
+        private synchronized TranspositionTable getTranspositionTable() {
+            final int hashSizeMB = this.gameSetup.getHashSizeMB();
+            if (this.transpositionTable == null || this.transpositionTable.getSizeMB() != hashSizeMB) {
+                this.transpositionTable = new TranspositionTable(hashSizeMB);
+            }
+            return this.transpositionTable;
+        }
+    
+        /**
+         * Gets the search kept between the computer's moves so it can ponder on the human's time,
+         * replacing it when the depth, threads, hash or evaluation cache size chosen in the game
+         * setup have changed
+         * @return the search of the computer player
+         */
+        private synchronized Ponderer getPonderer() {
+            final int depth = this.gameSetup.getSearchDepth();
+            final int threads = this.gameSetup.getSearchThreads();
+            final int evalCacheSizeMB = this.gameSetup.getEvalCacheSizeMB();
+            final TranspositionTable table = getTranspositionTable();
+            if (this.ponderer == null || this.pondererDepth != depth || this.pondererThreads != threads ||
+                this.pondererEvalCacheSizeMB != evalCacheSizeMB || this.pondererTable != table) {
+                stopPondering();
+                this.ponderer = new Ponderer(new MiniMax(depth, table, threads, evalCacheSizeMB));
+                this.pondererDepth = depth;
+                this.pondererThreads = threads;
+                this.pondererEvalCacheSizeMB = evalCacheSizeMB;
+                this.pondererTable = table;
+            }
+            return this.ponderer;
+        }
+
+        /**
+         * Stops the computer player from searching on the human's time
+         */
+        private synchronized void stopPondering() {
+            if (this.ponderer != null) {
+                this.ponderer.stopPondering();
+            }
+        }
+
+        /**
+         * Lets the computer player search the reply it expects while the human thinks, if pondering
+         * is enabled and the human is to move
+         */
+        private void startPondering() {
+            if (this.gameSetup.isPonderEnabled() && isHumanPlayer()) {
+                getPonderer().startPondering(this.chessBoard, SearchLimits.depth(this.gameSetup.getSearchDepth()));
+            }
+        }
     
         private Board getGameBoard() {
             return this.chessBoard; 
@@ -213,6 +301,7 @@ public class Table extends Observable {
         }
         
         private void setupUpdate(final GameSetup gameSetup) {
+            stopPondering();
             setChanged();
             notifyObservers();
         }
@@ -294,7 +383,7 @@ public class Table extends Observable {
 
         @Override
         protected Move doInBackground() throws Exception {
-            final MoveStrategy miniMax = new MiniMax(Table.get().getGameSetup().getSearchDepth());
+            final MoveStrategy miniMax = Table.get().getPonderer();
             final Move bestMove = miniMax.execute(Table.get().getGameBoard());
 
             return bestMove;
@@ -310,6 +399,7 @@ public class Table extends Observable {
                 Table.get().getGameHistoryPanel().redo(Table.get().getGameBoard(), Table.get().getMoveLog());
                 Table.get().getTakenPiecesPanel().redo(Table.get().getMoveLog());
                 Table.get().getBoardPanel().drawBoard(Table.get().getGameBoard());
+                Table.get().startPondering();
                 Table.get().moveMadeUpdate(PlayerType.COMPUTER);
             } catch (InterruptedException e) {
                 e.printStackTrace();
@@ -4,6 +4,7 @@ import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Board.Builder;
+import com.chess.engine.board.Position;
 import com.chess.engine.pieces.Bishop;
 import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Knight;
@@ -19,7 +20,12 @@ public class FenUtils {
         throw new RuntimeException("Not instantiable");
     }
 
-    //TODO: complete this function for castling
+    /**
+     * Creates a board from the placement, side to move, castling and en passant fields of a fen
+     * string. The move counters are ignored.
+     * @param fenString the fen string describing the board
+     * @return the board described by the fen string
+     */
     public static Board createBoardFromFen(final String fenString) {
         final String[] fenPartitions = fenString.trim().split(" ");
         final Builder builder = new Builder();
@@ -42,7 +48,7 @@ public class FenUtils {
         while (i < boardTiles.length) {
             switch (boardTiles[i]) {
                 case 'r':
-                    boolean hasMoved = !(i == 0 && !blackQueenSideCastle) && !(i == 7 && !blackKingSideCastle);
+                    boolean hasMoved = !(i == 0 && blackQueenSideCastle) && !(i == 7 && blackKingSideCastle);
                     builder.setPiece(new Rook(Alliance.BLACK, i, hasMoved));
                     i++;
                     break;
@@ -60,7 +66,7 @@ public class FenUtils {
                     break;
                 case 'k':
                     hasMoved = !blackKingSideCastle && !blackQueenSideCastle;
-                    builder.setPiece(new King(Alliance.BLACK, i, hasMoved, hasMoved));
+                    builder.setPiece(new King(Alliance.BLACK, i, hasMoved, false));
                     i++;
                     break;
                 case 'p':
@@ -68,9 +74,8 @@ public class FenUtils {
                     i++;
                     break;
                 case 'R':
-                    hasMoved = (!(i == 56 && !whiteQueenSideCastle) && !(i == 63 && !whiteKingSideCastle)
-                            || (i != 56 && i != 63));
-                    builder.setPiece(new Rook(Alliance.WHITE, i));
+                    hasMoved = !(i == 56 && whiteQueenSideCastle) && !(i == 63 && whiteKingSideCastle);
+                    builder.setPiece(new Rook(Alliance.WHITE, i, hasMoved));
                     i++;
                     break;
                 case 'N':
@@ -86,8 +91,8 @@ public class FenUtils {
                     i++;
                     break;
                 case 'K':
-                    hasMoved = !blackKingSideCastle && !blackQueenSideCastle;
-                    builder.setPiece(new King(Alliance.WHITE, i, hasMoved, hasMoved));
+                    hasMoved = !whiteKingSideCastle && !whiteQueenSideCastle;
+                    builder.setPiece(new King(Alliance.WHITE, i, hasMoved, false));
                     i++;
                     break;
                 case 'P':
@@ -100,16 +105,30 @@ public class FenUtils {
                 default:
                     throw new RuntimeException("Invalid FEN String " + gameConfiguration);
             }
-        // set curr player
         }
-        if (fenPartitions[1] == "w") {
-            builder.setCurrPlayerAlliance(Alliance.WHITE);
+        // set curr player
+        final Alliance currPlayerAlliance;
+        if (fenPartitions[1].equals("w")) {
+            currPlayerAlliance = Alliance.WHITE;
         }
-        else if (fenPartitions[1] == "b") {
-            builder.setCurrPlayerAlliance(Alliance.BLACK);
+        else if (fenPartitions[1].equals("b")) {
+            currPlayerAlliance = Alliance.BLACK;
         }
         else {
-            throw new RuntimeException("Invalid FEN String " + gameConfiguration);
+            throw new RuntimeException("Invalid FEN String " + fenString);
+        }
+        builder.setCurrPlayerAlliance(currPlayerAlliance);
+        // the pawn that just jumped past the en passant tile
+        if (fenPartitions.length > 3 && !fenPartitions[3].equals("-")) {
+            final Alliance pawnAlliance = currPlayerAlliance.getOpposite();
+            final int pawnCoord = BoardUtils.getCoordFromPos(fenPartitions[3]) -
+                    (8 * pawnAlliance.getOppositePawnDirection());
+            if (boardTiles[pawnCoord] != (pawnAlliance.isWhite() ? 'P' : 'p')) {
+                throw new RuntimeException("Invalid FEN String " + fenString);
+            }
+            final Pawn enPassantPawn = new Pawn(pawnAlliance, pawnCoord, true);
+            builder.setPiece(enPassantPawn);
+            builder.setEnPassantPawn(enPassantPawn);
         }
         return builder.build();
     }
@@ -203,7 +222,7 @@ public class FenUtils {
      * @return "w" if it's White's turn, "b" if it's Black's turn
      */
     private static String calcCurrPlayerText(final Board board) {
-        return board.getCurrPlayer().getAlliance().toString().substring(0, 1).toLowerCase();
+        return board.getCurrPlayerAlliance().toString().substring(0, 1).toLowerCase();
     }
 
     /**
@@ -213,21 +232,22 @@ public class FenUtils {
      * @return the FEN castling notation 
      */
     private static String calcCastleText(final Board board) {
+        final int castlingRights = board.getCastlingRights();
         final StringBuilder builder = new StringBuilder();
-        if (board.getWhitePlayer().isKingSideCastleCapable()) {
+        if ((castlingRights & Position.WHITE_KING_SIDE_CASTLE) != 0) {
             builder.append("K");
         }
-        if (board.getWhitePlayer().isQueenSideCastleCapable()) {
+        if ((castlingRights & Position.WHITE_QUEEN_SIDE_CASTLE) != 0) {
             builder.append("Q");
         }
-        if (board.getBlackPlayer().isKingSideCastleCapable()) {
+        if ((castlingRights & Position.BLACK_KING_SIDE_CASTLE) != 0) {
             builder.append("k");
         }
-        if (board.getBlackPlayer().isQueenSideCastleCapable()) {
+        if ((castlingRights & Position.BLACK_QUEEN_SIDE_CASTLE) != 0) {
             builder.append("q");
         }
         final String res = builder.toString();
-        return res.isEmpty() ? " - ": res;
+        return res.isEmpty() ? "-" : res;
     }
 
 
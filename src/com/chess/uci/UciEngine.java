@@ -0,0 +1,491 @@
+package com.chess.uci;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.player.ai.EvaluationCache;
+import com.chess.engine.player.ai.MiniMax;
+import com.chess.engine.player.ai.SearchLimits;
+import com.chess.engine.player.ai.SearchListener;
+import com.chess.engine.player.ai.SearchStats;
+import com.chess.engine.player.ai.StandardBoardEvauluator;
+import com.chess.engine.player.ai.TranspositionTable;
+import com.chess.pgn.FenUtils;
+
+/**
+ * Runs the engine headless behind the Universal Chess Interface, reading commands from one
+ * stream and writing replies to another. Commands are read on the calling thread while each
+ * search runs on a thread of its own, so stop and ponderhit reach a running search within
+ * milliseconds. Unknown commands are ignored as the protocol asks, and commands that cannot be
+ * carried out are answered with an info string.
+ */
+public final class UciEngine {
+
+    public static final String NAME = "ChessEngine";
+    public static final String AUTHOR = "the ChessEngine developers";
+    public static final int MAX_HASH_SIZE_MB = 4096;
+    public static final int MAX_EVAL_CACHE_SIZE_MB = 1024;
+    public static final int MAX_THREADS = 256;
+
+    private final BufferedReader in;
+    private final PrintStream out;
+    private final Object lock = new Object();
+
+    private Board board = Board.createStandardBoard();
+    private int hashSizeMB = TranspositionTable.DEFAULT_SIZE_MB;
+    private int evalCacheSizeMB = EvaluationCache.DEFAULT_SIZE_MB;
+    private int threads = 1;
+    private boolean nullMovePruning = true;
+    private boolean lateMoveReductions = true;
+    private TranspositionTable transpositionTable;
+    private MiniMax miniMax;
+    private Thread searchThread;
+    // guarded by lock
+    private boolean stopIssued;
+    private boolean ponderHitIssued;
+
+    /**
+     * Constructor for a UCI engine
+     * @param in the stream commands are read from
+     * @param out the stream replies are written to
+     */
+    public UciEngine(final InputStream in, final PrintStream out) {
+        this.in = new BufferedReader(new InputStreamReader(in));
+        this.out = out;
+    }
+
+    /**
+     * Runs the engine on standard input and output
+     * @param args unused
+     */
+    public static void main(final String[] args) throws IOException {
+        new UciEngine(System.in, System.out).run();
+    }
+
+    /**
+     * Handles commands until quit is received or the input ends
+     */
+    public void run() throws IOException {
+        String line;
+        while ((line = this.in.readLine()) != null) {
+            if (!handleCommand(line)) {
+                return;
+            }
+        }
+        stopSearch();
+    }
+
+    /**
+     * Carries out a single command
+     * @param line the command line
+     * @return false if the command was quit and true otherwise
+     */
+    public boolean handleCommand(final String line) {
+        final String[] tokens = line.trim().split("\\s+");
+        try {
+            switch (tokens[0]) {
+                case "uci":
+                    send("id name " + NAME);
+                    send("id author " + AUTHOR);
+                    send("option name Hash type spin default " + TranspositionTable.DEFAULT_SIZE_MB +
+                            " min 1 max " + MAX_HASH_SIZE_MB);
+                    send("option name EvalCache type spin default " + EvaluationCache.DEFAULT_SIZE_MB +
+                            " min 1 max " + MAX_EVAL_CACHE_SIZE_MB);
+                    send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                    send("option name Ponder type check default false");
+                    send("option name NullMove type check default true");
+                    send("option name LateMoveReductions type check default true");
+                    send("uciok");
+                    break;
+                case "isready":
+                    send("readyok");
+                    break;
+                case "setoption":
+                    setOption(tokens);
+                    break;
+                case "ucinewgame":
+                    stopSearch();
+                    if (this.transpositionTable != null) {
+                        this.transpositionTable.clear();
+                    }
+                    this.board = Board.createStandardBoard();
+                    break;
+                case "position":
+                    this.board = parsePosition(tokens);
+                    break;
+                case "go":
+                    startSearch(parseLimits(tokens));
+                    break;
+                case "stop":
+                    requestStop();
+                    break;
+                case "ponderhit":
+                    requestPonderHit();
+                    break;
+                case "quit":
+                    stopSearch();
+                    return false;
+                default:
+                    break;
+            }
+        } catch (final RuntimeException e) {
+            send("info string " + (e.getMessage() != null ? e.getMessage() : "Invalid command " + line.trim()));
+        }
+        return true;
+    }
+
+    /**
+     * Writes a line to the GUI. Both the command and the search thread reply, so lines are
+     * written whole.
+     * @param line the line written
+     */
+    private synchronized void send(final String line) {
+        this.out.println(line);
+        this.out.flush();
+    }
+
+    /**
+     * Applies a setoption command, setoption name <name> value <value>
+     * @param tokens the words of the command
+     */
+    private void setOption(final String[] tokens) {
+        final int valueIndex = Arrays.asList(tokens).indexOf("value");
+        if (tokens.length < 3 || !tokens[1].equals("name")) {
+            throw new RuntimeException("Invalid setoption command");
+        }
+        final String name = String.join(" ", Arrays.copyOfRange(tokens, 2, valueIndex == -1 ? tokens.length : valueIndex));
+        final String value = valueIndex == -1 ? "" : String.join(" ", Arrays.copyOfRange(tokens, valueIndex + 1, tokens.length));
+        stopSearch();
+        if (name.equalsIgnoreCase("Hash")) {
+            this.hashSizeMB = Math.max(1, Math.min(Integer.parseInt(value), MAX_HASH_SIZE_MB));
+            this.transpositionTable = null;
+            this.miniMax = null;
+        } else if (name.equalsIgnoreCase("EvalCache")) {
+            this.evalCacheSizeMB = Math.max(1, Math.min(Integer.parseInt(value), MAX_EVAL_CACHE_SIZE_MB));
+            this.miniMax = null;
+        } else if (name.equalsIgnoreCase("Threads")) {
+            this.threads = Math.max(1, Math.min(Integer.parseInt(value), MAX_THREADS));
+            this.miniMax = null;
+        } else if (name.equalsIgnoreCase("NullMove")) {
+            this.nullMovePruning = Boolean.parseBoolean(value);
+            this.miniMax = null;
+        } else if (name.equalsIgnoreCase("LateMoveReductions")) {
+            this.lateMoveReductions = Boolean.parseBoolean(value);
+            this.miniMax = null;
+        } else if (!name.equalsIgnoreCase("Ponder")) {
+            throw new RuntimeException("Unknown option " + name);
+        }
+    }
+
+    /**
+     * Builds the board of a position command, position [startpos | fen <fen>] [moves <moves>]
+     * @param tokens the words of the command
+     * @return the board after the moves
+     */
+    private static Board parsePosition(final String[] tokens) {
+        if (tokens.length < 2) {
+            throw new RuntimeException("Invalid position command");
+        }
+        int i = 2;
+        Board board;
+        if (tokens[1].equals("startpos")) {
+            board = Board.createStandardBoard();
+        } else if (tokens[1].equals("fen")) {
+            while (i < tokens.length && !tokens[i].equals("moves")) {
+                i++;
+            }
+            board = FenUtils.createBoardFromFen(String.join(" ", Arrays.copyOfRange(tokens, 2, i)));
+        } else {
+            throw new RuntimeException("Invalid position command");
+        }
+        if (i < tokens.length && tokens[i].equals("moves")) {
+            for (i++; i < tokens.length; i++) {
+                board = makeMove(board, tokens[i]);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Plays a move given in coordinate notation. Boards only promote to queens, so an
+     * underpromotion is rejected rather than played as a queen, which would leave the engine on
+     * a different position from the GUI.
+     * @param board the board the move is played on
+     * @param notation the move, e.g. e2e4 or e7e8q
+     * @return the board after the move
+     */
+    private static Board makeMove(final Board board, final String notation) {
+        if (notation.length() < 4 || notation.length() > 5) {
+            throw new RuntimeException("Invalid move " + notation);
+        }
+        final Move move = MoveFactory.createMove(board, BoardUtils.getCoordFromPos(notation.substring(0, 2)),
+                BoardUtils.getCoordFromPos(notation.substring(2, 4)));
+        final boolean isPromotion = move instanceof Move.PawnMove.PawnPromotion;
+        if (isPromotion && notation.length() == 5 && notation.charAt(4) != 'q') {
+            throw new RuntimeException("Unsupported underpromotion " + notation);
+        }
+        final MoveTransition transition = board.getCurrPlayer().makeMove(move);
+        if (move == Move.NULL_MOVE || isPromotion != (notation.length() == 5) || !transition.getMoveStatus().isDone()) {
+            throw new RuntimeException("Illegal move " + notation);
+        }
+        return transition.getUpdatedBoard();
+    }
+
+    /**
+     * Converts a move to coordinate notation
+     * @param move the move
+     * @return the move in coordinate notation or 0000 for no move
+     */
+    private static String toNotation(final Move move) {
+        if (move == null || move == Move.NULL_MOVE) {
+            return "0000";
+        }
+        return BoardUtils.getPosFromCoord(move.getStartingCoord()) + BoardUtils.getPosFromCoord(move.getDestCoord()) +
+                (move instanceof Move.PawnMove.PawnPromotion ? "q" : "");
+    }
+
+    /**
+     * Checks whether a packed move can be played on a Board, which only promotes to queens
+     * @param move the packed move
+     * @return false for an underpromotion and true otherwise
+     */
+    private static boolean isPlayable(final int move) {
+        return !PackedMove.isPromotion(move) || PackedMove.getPromotionType(move) == PieceType.QUEEN;
+    }
+
+    /**
+     * Writes a score the way the info command expects it, in moves to mate for a checkmate and
+     * in centipawns otherwise
+     * @param score the score of the side to move
+     * @param depth the depth of the iteration the score comes from
+     * @return mate and the moves to mate, negative when the side to move is mated, or cp and the score
+     */
+    private static String calcScoreText(final int score, final int depth) {
+        if (!StandardBoardEvauluator.isMateScore(score)) {
+            return "cp " + score;
+        }
+        final int moves = (StandardBoardEvauluator.calcMatePlies(score, depth) + 1) / 2;
+        return "mate " + (score > 0 ? moves : -moves);
+    }
+
+    /**
+     * Builds the limits of a go command. searchmoves is not supported and its moves are
+     * skipped, and mate is searched as a fixed depth long enough to find the mate.
+     * @param tokens the words of the command
+     * @return the search limits
+     */
+    private static SearchLimits parseLimits(final String[] tokens) {
+        final SearchLimits.Builder builder = new SearchLimits.Builder();
+        for (int i = 1; i < tokens.length; i++) {
+            switch (tokens[i]) {
+                case "wtime":
+                    builder.setTime(Alliance.WHITE, Long.parseLong(tokens[++i]));
+                    break;
+                case "btime":
+                    builder.setTime(Alliance.BLACK, Long.parseLong(tokens[++i]));
+                    break;
+                case "winc":
+                    builder.setIncrement(Alliance.WHITE, Long.parseLong(tokens[++i]));
+                    break;
+                case "binc":
+                    builder.setIncrement(Alliance.BLACK, Long.parseLong(tokens[++i]));
+                    break;
+                case "movestogo":
+                    builder.setMovesToGo(Long.parseLong(tokens[++i]));
+                    break;
+                case "depth":
+                    builder.setDepth(clampDepth(Long.parseLong(tokens[++i])));
+                    break;
+                case "mate":
+                    builder.setDepth(clampDepth(2 * Long.parseLong(tokens[++i]) - 1));
+                    break;
+                case "nodes":
+                    builder.setNodes(Long.parseLong(tokens[++i]));
+                    break;
+                case "movetime":
+                    builder.setMoveTime(Long.parseLong(tokens[++i]));
+                    break;
+                case "infinite":
+                    builder.setInfinite(true);
+                    break;
+                case "ponder":
+                    builder.setPonder(true);
+                    break;
+                default:
+                    // the moves of searchmoves and anything unknown
+                    break;
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Keeps a requested depth within what a search can do
+     * @param depth the requested depth
+     * @return the depth searched
+     */
+    private static int clampDepth(final long depth) {
+        return (int) Math.max(1, Math.min(depth, SearchLimits.MAX_DEPTH));
+    }
+
+    /**
+     * Gets the search, creating it and its transposition table after an option changed them.
+     * The search builds the evaluation cache its threads share.
+     * @return the search
+     */
+    private MiniMax getMiniMax() {
+        if (this.transpositionTable == null) {
+            this.transpositionTable = new TranspositionTable(this.hashSizeMB);
+        }
+        if (this.miniMax == null) {
+            this.miniMax = new MiniMax(SearchLimits.MAX_DEPTH, this.transpositionTable, this.threads, this.evalCacheSizeMB);
+            this.miniMax.setNullMovePruning(this.nullMovePruning);
+            this.miniMax.setLateMoveReductions(this.lateMoveReductions);
+        }
+        return this.miniMax;
+    }
+
+    /**
+     * Starts searching the current board on a new search thread, stopping any running search
+     * first
+     * @param limits the limits of the search
+     */
+    private void startSearch(final SearchLimits limits) {
+        stopSearch();
+        synchronized (this.lock) {
+            this.stopIssued = false;
+            this.ponderHitIssued = false;
+        }
+        final Board searchBoard = this.board;
+        final MiniMax search = getMiniMax();
+        final long startNanos = System.nanoTime();
+        search.setSearchListener(new InfoListener(search, searchBoard.getCurrPlayerAlliance(), startNanos));
+        this.searchThread = new Thread(() -> {
+            final Move bestMove = search.execute(searchBoard, limits);
+            // in infinite and ponder mode the best move may only be sent once the GUI asks
+            if (limits.isInfinite() || limits.isPonder()) {
+                awaitStopOrPonderHit(limits.isPonder());
+            }
+            final SearchStats stats = search.getSearchStats();
+            final int[] principalVariation = stats.getIterations().isEmpty() ? new int[0] :
+                    stats.getIterations().get(stats.getIterations().size() - 1).getPrincipalVariation();
+            send("bestmove " + toNotation(bestMove) +
+                    (principalVariation.length > 1 && isPlayable(principalVariation[1]) ?
+                            " ponder " + PackedMove.toString(principalVariation[1]) : ""));
+        }, "UCI search");
+        this.searchThread.start();
+    }
+
+    /**
+     * Waits on the search thread until the GUI sends stop, or ponderhit for a ponder search
+     * @param isPonder whether the search was pondering
+     */
+    private void awaitStopOrPonderHit(final boolean isPonder) {
+        synchronized (this.lock) {
+            while (!this.stopIssued && !(isPonder && this.ponderHitIssued)) {
+                try {
+                    this.lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Asks the running search to stop and send its best move
+     */
+    private void requestStop() {
+        synchronized (this.lock) {
+            this.stopIssued = true;
+            this.lock.notifyAll();
+        }
+        if (this.miniMax != null) {
+            this.miniMax.stop();
+        }
+    }
+
+    /**
+     * Turns the running ponder search into a normal search
+     */
+    private void requestPonderHit() {
+        synchronized (this.lock) {
+            this.ponderHitIssued = true;
+            this.lock.notifyAll();
+        }
+        if (this.miniMax != null) {
+            this.miniMax.ponderHit();
+        }
+    }
+
+    /**
+     * Stops the running search, if any, and waits until it has sent its best move
+     */
+    private void stopSearch() {
+        if (this.searchThread == null) {
+            return;
+        }
+        requestStop();
+        try {
+            this.searchThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.searchThread = null;
+    }
+
+    /**
+     * This class streams an info line for every finished iteration. Since a stop or ponderhit
+     * may arrive before the search has started and be forgotten when it does, they are passed
+     * on again after each iteration.
+     */
+    private final class InfoListener implements SearchListener {
+        private final MiniMax search;
+        private final Alliance alliance;
+        private final long startNanos;
+        private long nodes;
+
+        /**
+         * Constructor for an info listener
+         * @param search the search reporting
+         * @param alliance the alliance to move, whose point of view scores are given from
+         * @param startNanos when the go command was received
+         */
+        private InfoListener(final MiniMax search, final Alliance alliance, final long startNanos) {
+            this.search = search;
+            this.alliance = alliance;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void iterationFinished(final SearchStats.Iteration iteration) {
+            this.nodes += iteration.getNodes();
+            final long timeMillis = (System.nanoTime() - this.startNanos) / 1_000_000;
+            final int score = this.alliance.isWhite() ? iteration.getScore() : -iteration.getScore();
+            send(String.format("info depth %d seldepth %d score %s nodes %d nps %d time %d pv %s",
+                    iteration.getDepth(), iteration.getSelDepth(), calcScoreText(score, iteration.getDepth()), this.nodes,
+                    this.nodes * 1000 / Math.max(1, timeMillis), timeMillis, iteration.getPrincipalVariationText()));
+            synchronized (UciEngine.this.lock) {
+                if (UciEngine.this.stopIssued) {
+                    this.search.stop();
+                }
+                if (UciEngine.this.ponderHitIssued && this.search.isPondering()) {
+                    this.search.ponderHit();
+                }
+            }
+        }
+    }
+}
@@ -13,13 +13,16 @@ import com.chess.engine.board.Board.Builder;
 import com.chess.engine.board.Move.MoveFactory;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveStatus;
 import com.chess.engine.board.MoveTransition;
 import com.chess.engine.pieces.Bishop;
 import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Knight;
 import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.chess.engine.pieces.Queen;
 import com.chess.engine.pieces.Rook;
+import com.chess.engine.player.Player;
 
 public class TestBoard {
     
@@ -132,4 +135,98 @@ public class TestBoard {
         assertNotEquals(t1_2.getUpdatedBoard(), board1);
         assertNotEquals(t1_2.getUpdatedBoard(), board2);
     }
+
+    @Test
+    public void testStartingBoardBitboards() {
+        final Board board = Board.createStandardBoard();
+        assertEquals(0xFFFFL, board.getOccupancy(Alliance.BLACK));
+        assertEquals(0xFFFFL << 48, board.getOccupancy(Alliance.WHITE));
+        assertEquals(8, Long.bitCount(board.getPieces(Alliance.WHITE, PieceType.PAWN)));
+        assertEquals(1L << 60, board.getPieces(Alliance.WHITE, PieceType.KING));
+        assertEquals((1L << 0) | (1L << 7), board.getPieces(Alliance.BLACK, PieceType.ROOK));
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            assertEquals((board.getOccupancy() & (1L << i)) != 0L, board.getTile(i).isOccupied());
+            assertEquals(board.getPiece(i), board.getTile(i).getPiece());
+        }
+    }
+
+    @Test
+    public void testTileAttacked() {
+        final Builder builder = new Builder();
+        builder.setPiece(new King(Alliance.WHITE, 60));
+        builder.setPiece(new King(Alliance.BLACK, 4));
+        builder.setPiece(new Rook(Alliance.BLACK, 0));
+        builder.setPiece(new Pawn(Alliance.WHITE, 32));
+        builder.setCurrPlayerAlliance(Alliance.WHITE);
+        final Board board = builder.build();
+        // rook attacks along the 8th rank and down the a file until the pawn
+        assertTrue(board.isTileAttacked(BoardUtils.getCoordFromPos("d8"), Alliance.BLACK));
+        assertTrue(board.isTileAttacked(BoardUtils.getCoordFromPos("a4"), Alliance.BLACK));
+        assertFalse(board.isTileAttacked(BoardUtils.getCoordFromPos("a3"), Alliance.BLACK));
+        // white pawn on a4 attacks b5 without wrapping onto the h file
+        assertTrue(board.isTileAttacked(BoardUtils.getCoordFromPos("b5"), Alliance.WHITE));
+        assertFalse(board.isTileAttacked(BoardUtils.getCoordFromPos("a5"), Alliance.WHITE));
+        assertFalse(board.isTileAttacked(BoardUtils.getCoordFromPos("h6"), Alliance.WHITE));
+        assertFalse(board.getCurrPlayer().isInCheck());
+    }
+
+    @Test
+    public void testPinnedPieceMoves() {
+        final Builder builder = new Builder();
+        builder.setPiece(new King(Alliance.WHITE, BoardUtils.getCoordFromPos("e1")));
+        final Bishop pinnedBishop = new Bishop(Alliance.WHITE, BoardUtils.getCoordFromPos("e2"));
+        builder.setPiece(pinnedBishop);
+        final Rook pinnedRook = new Rook(Alliance.WHITE, BoardUtils.getCoordFromPos("d2"));
+        builder.setPiece(pinnedRook);
+        builder.setPiece(new King(Alliance.BLACK, BoardUtils.getCoordFromPos("a8")));
+        builder.setPiece(new Rook(Alliance.BLACK, BoardUtils.getCoordFromPos("e8")));
+        builder.setPiece(new Bishop(Alliance.BLACK, BoardUtils.getCoordFromPos("b4")));
+        builder.setCurrPlayerAlliance(Alliance.WHITE);
+        final Board board = builder.build();
+        // the bishop cannot leave the e file and the rook cannot leave the diagonal
+        assertEquals(0, pinnedBishop.calcLegalMoves(board).size());
+        final Move leaveTheDiagonal = MoveFactory.createMove(board, BoardUtils.getCoordFromPos("d2"),
+                BoardUtils.getCoordFromPos("d4"));
+        assertEquals(MoveStatus.LEAVES_PLAYER_IN_CHECK, board.getCurrPlayer().makeMove(leaveTheDiagonal).getMoveStatus());
+        assertEquals(0, pinnedRook.calcLegalMoves(board).size());
+    }
+
+    @Test
+    public void testEnPassantExposingKing() {
+        final Builder builder = new Builder();
+        builder.setPiece(new King(Alliance.WHITE, BoardUtils.getCoordFromPos("a5")));
+        builder.setPiece(new Pawn(Alliance.WHITE, BoardUtils.getCoordFromPos("b5")));
+        builder.setPiece(new King(Alliance.BLACK, BoardUtils.getCoordFromPos("e8")));
+        builder.setPiece(new Pawn(Alliance.BLACK, BoardUtils.getCoordFromPos("c7")));
+        builder.setPiece(new Rook(Alliance.BLACK, BoardUtils.getCoordFromPos("h5")));
+        builder.setCurrPlayerAlliance(Alliance.BLACK);
+        final Board board = builder.build();
+        final Board jumped = board.getCurrPlayer().makeMove(MoveFactory.createMove(board,
+                BoardUtils.getCoordFromPos("c7"), BoardUtils.getCoordFromPos("c5"))).getUpdatedBoard();
+
+        // taking en passant would clear the fifth rank between the rook and the king
+        final Move enPassant = MoveFactory.createMove(jumped, BoardUtils.getCoordFromPos("b5"),
+                BoardUtils.getCoordFromPos("c6"));
+        assertTrue(enPassant.isAttackingMove());
+        assertFalse(jumped.getCurrPlayer().getLegalMoves().contains(enPassant));
+        assertEquals(MoveStatus.LEAVES_PLAYER_IN_CHECK, jumped.getCurrPlayer().makeMove(enPassant).getMoveStatus());
+    }
+
+    @Test
+    public void testPlayersBuiltOnce() throws InterruptedException {
+        final Board board = Board.createStandardBoard();
+        final Player[] seen = new Player[8];
+        final Thread[] threads = new Thread[seen.length];
+        for (int i = 0; i < threads.length; i++) {
+            final int index = i;
+            threads[i] = new Thread(() -> seen[index] = board.getCurrPlayer());
+            threads[i].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        for (final Player player : seen) {
+            assertSame(board.getWhitePlayer(), player);
+        }
+    }
 }
@@ -10,7 +10,18 @@ import org.junit.runners.Suite;
         TestCastling.class,
         TestCheckmate.class,
         TestStalemate.class,
-        TestFen.class 
+        TestFen.class,
+        TestSliderAttacks.class,
+        TestSearchPosition.class,
+        TestZobrist.class,
+        TestTranspositionTable.class,
+        TestSearch.class,
+        TestMoveOrderer.class,
+        TestStaticExchange.class,
+        TestPawnStructure.class,
+        TestEvaluationCache.class,
+        TestPerft.class,
+        TestUci.class
 })
 
 public class TestChessEngineSuite {
@@ -0,0 +1,42 @@
+package com.tests.chess.engine;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.SearchPosition;
+import com.chess.engine.player.ai.EvaluationCache;
+import com.chess.engine.player.ai.StandardBoardEvauluator;
+import com.chess.pgn.FenUtils;
+
+public class TestEvaluationCache {
+
+    private final StandardBoardEvauluator evaluator = new StandardBoardEvauluator();
+    private final EvaluationCache evaluationCache = new EvaluationCache(new StandardBoardEvauluator(), 1);
+
+    @Test
+    public void testCachedScoresMatchEvaluator() {
+        final SearchPosition position = new SearchPosition(FenUtils.createBoardFromFen(
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"));
+        final int score = this.evaluator.evaluate(position, 0);
+        assertEquals(score, this.evaluationCache.evaluate(position, 0));
+        assertEquals(score, this.evaluationCache.evaluate(position, 0));
+        assertEquals(2, this.evaluationCache.getProbes());
+        assertEquals(1, this.evaluationCache.getHits());
+        assertEquals(0.5, this.evaluationCache.getHitRate(), 1e-9);
+        this.evaluationCache.clear();
+        assertEquals(0, this.evaluationCache.getProbes());
+    }
+
+    @Test
+    public void testCheckmateBonusIsNotCached() {
+        // fool's mate, the bonus grows with the depth left when the mate is found
+        final Board board = FenUtils.createBoardFromFen("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+        final int shallow = this.evaluationCache.evaluate(board, 0);
+        final int deep = this.evaluationCache.evaluate(board, 3);
+        assertEquals(this.evaluator.evaluate(board, 0), shallow);
+        assertEquals(this.evaluator.evaluate(board, 3), deep);
+        assertTrue(deep < shallow);
+        assertEquals(1, this.evaluationCache.getHits());
+    }
+}
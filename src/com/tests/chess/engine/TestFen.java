@@ -40,4 +40,30 @@ public class TestFen {
         assertEquals(fenString2, "rnbqkbnr/pp1ppppp/8/2p5/4P3/8/PPPP1PPP/RNBQKBNR w KQkq c6 0 1");
 
     }
+
+    @Test
+    public void testReadFenRoundTrip() {
+        final String[] fenStrings = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 0 1",
+            "4k3/8/8/8/4Pp2/8/8/4K3 b - e3 0 1",
+        };
+        for (final String fenString : fenStrings) {
+            assertEquals(fenString, FenUtils.writeFenFromBoard(FenUtils.createBoardFromFen(fenString)));
+        }
+    }
+
+    @Test
+    public void testNoCastlingRightsRoundTrip() {
+        // kings and rooks on their starting tiles but marked as moved
+        final String fenString = "r3k2r/8/8/8/8/8/8/R3K2R w - - 0 1";
+        final Board board = FenUtils.createBoardFromFen(fenString);
+        assertEquals(fenString, FenUtils.writeFenFromBoard(board));
+
+        // once the white king has moved only black may still castle
+        final Board kingMoved = FenUtils.createBoardFromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        final Board stepped = kingMoved.getCurrPlayer().makeMove(Move.MoveFactory.createMove(kingMoved,
+                BoardUtils.getCoordFromPos("e1"), BoardUtils.getCoordFromPos("f1"))).getUpdatedBoard();
+        assertEquals("r3k2r/8/8/8/8/8/8/R4K1R b kq - 0 1", FenUtils.writeFenFromBoard(stepped));
+    }
 }
@@ -0,0 +1,77 @@
+package com.tests.chess.engine;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.SearchPosition;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Knight;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Rook;
+import com.chess.engine.player.ai.MoveOrderer;
+
+public class TestMoveOrderer {
+
+    @Test
+    public void testOrderingStages() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(new King(Alliance.WHITE, BoardUtils.getCoordFromPos("g1")));
+        builder.setPiece(new Rook(Alliance.WHITE, BoardUtils.getCoordFromPos("a1")));
+        builder.setPiece(new Pawn(Alliance.WHITE, BoardUtils.getCoordFromPos("e4")));
+        builder.setPiece(new King(Alliance.BLACK, BoardUtils.getCoordFromPos("g8")));
+        builder.setPiece(new Pawn(Alliance.BLACK, BoardUtils.getCoordFromPos("d5")));
+        builder.setPiece(new Knight(Alliance.BLACK, BoardUtils.getCoordFromPos("a5")));
+        // defends the knight, so taking it with the rook loses the exchange
+        builder.setPiece(new Pawn(Alliance.BLACK, BoardUtils.getCoordFromPos("b6")));
+        builder.setCurrPlayerAlliance(Alliance.WHITE);
+        final SearchPosition position = new SearchPosition(builder.build());
+        final MoveOrderer moveOrderer = new MoveOrderer();
+
+        final int hashMove = move(position, "g1", "f1");
+        final int winningCapture = move(position, "e4", "d5");
+        final int losingCapture = move(position, "a1", "a5");
+        final int firstKiller = move(position, "a1", "c1");
+        final int secondKiller = move(position, "a1", "b1");
+        final int historyMove = move(position, "g1", "h1");
+
+        moveOrderer.recordCutoff(position, historyMove, 2);
+        moveOrderer.recordCutoff(position, secondKiller, 1);
+        moveOrderer.recordCutoff(position, firstKiller, 1);
+        // captures are never killers
+        moveOrderer.recordCutoff(position, losingCapture, 5);
+
+        final MoveList moves = position.generateMoves();
+        moveOrderer.orderMoves(position, moves, hashMove);
+        assertEquals(hashMove, moves.get(0));
+        assertEquals(winningCapture, moves.get(1));
+        assertEquals(firstKiller, moves.get(2));
+        assertEquals(secondKiller, moves.get(3));
+        assertEquals(losingCapture, moves.get(4));
+        assertEquals(historyMove, moves.get(5));
+    }
+
+    @Test
+    public void testCounterMove() {
+        final SearchPosition position = new SearchPosition(Board.createStandardBoard());
+        final int e4 = move(position, "e2", "e4");
+        assertTrue(position.doMove(e4));
+        final int nc6 = move(position, "b8", "c6");
+        final MoveOrderer moveOrderer = new MoveOrderer();
+        moveOrderer.recordCutoff(position, nc6, 1);
+        moveOrderer.newSearch();
+
+        // the killer is cleared by the new search but Nc6 is still the answer to e4
+        final MoveList moves = position.generateMoves();
+        moveOrderer.orderMoves(position, moves, PackedMove.NO_MOVE);
+        assertEquals(nc6, moves.get(0));
+    }
+
+    private static int move(final SearchPosition position, final String from, final String to) {
+        return position.findMove(BoardUtils.getCoordFromPos(from), BoardUtils.getCoordFromPos(to));
+    }
+}
@@ -0,0 +1,65 @@
+package com.tests.chess.engine;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.SearchPosition;
+import com.chess.engine.board.Zobrist;
+import com.chess.engine.player.ai.PawnHashTable;
+import com.chess.engine.player.ai.PawnStructureEvaluator;
+import com.chess.pgn.FenUtils;
+
+public class TestPawnStructure {
+
+    private final PawnHashTable pawnHashTable = new PawnHashTable(1);
+    private final PawnStructureEvaluator evaluator = new PawnStructureEvaluator(this.pawnHashTable);
+
+    @Test
+    public void testPawnKeyOnlyChangesWithPawns() {
+        final SearchPosition position = new SearchPosition(FenUtils.createBoardFromFen(
+                "rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 2"));
+        final long startingKey = position.getPawnKey();
+        assertEquals(Zobrist.calcPawnKey(position), startingKey);
+        assertTrue(position.doMove(position.findMove(BoardUtils.getCoordFromPos("g1"), BoardUtils.getCoordFromPos("f3"))));
+        assertEquals(startingKey, position.getPawnKey());
+        position.undoMove();
+        assertTrue(position.doMove(position.findMove(BoardUtils.getCoordFromPos("e4"), BoardUtils.getCoordFromPos("d5"))));
+        assertEquals(Zobrist.calcPawnKey(position), position.getPawnKey());
+        position.undoMove();
+        assertEquals(startingKey, position.getPawnKey());
+    }
+
+    @Test
+    public void testPassedIsolatedAndDoubledPawns() {
+        // without pieces the endgame values count: a passed isolated pawn on the fifth rank
+        assertEquals(35 - 15, evaluate("4k3/8/8/3P4/8/8/8/4K3 w - - 0 1"));
+        assertEquals(-(35 - 15), evaluate("4k3/8/8/8/3p4/8/8/4K3 b - - 0 1"));
+        // the rear pawn is doubled, the front one passed, both are isolated
+        assertEquals(-20 + 10 - 15 - 15, evaluate("4k3/8/8/8/8/2P5/2P5/4K3 w - - 0 1"));
+        // the same structure on both sides scores nothing
+        assertEquals(0, evaluate(FenUtils.createBoardFromFen(
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1")));
+    }
+
+    @Test
+    public void testPawnHashTableHits() {
+        final Board board = FenUtils.createBoardFromFen("4k3/8/8/3P4/8/8/8/4K3 w - - 0 1");
+        final int score = this.evaluator.evaluate(board, 0);
+        assertEquals(score, this.evaluator.evaluate(new SearchPosition(board), 0));
+        assertEquals(2, this.pawnHashTable.getProbes());
+        assertEquals(1, this.pawnHashTable.getHits());
+        assertEquals(0.5, this.pawnHashTable.getHitRate(), 1e-9);
+        this.pawnHashTable.clear();
+        assertEquals(PawnHashTable.NO_ENTRY, this.pawnHashTable.probe(board.getPawnKey()));
+    }
+
+    private int evaluate(final String fen) {
+        return evaluate(FenUtils.createBoardFromFen(fen));
+    }
+
+    private int evaluate(final Board board) {
+        return this.evaluator.evaluate(board, 0);
+    }
+}
@@ -0,0 +1,77 @@
+package com.tests.chess.engine;
+
+import java.util.Map;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Perft;
+import com.chess.pgn.FenUtils;
+
+/**
+ * Checks move generation against the published perft counts of the standard test positions
+ */
+public class TestPerft {
+
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String POSITION_3 = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    private static final String POSITION_4 = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+    private static final String POSITION_5 = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+    private static final String POSITION_6 = "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+
+    @Test
+    public void testStartPosition() {
+        assertCounts(Perft.START_FEN, 20, 400, 8902, 197281);
+    }
+
+    @Test
+    public void testKiwipete() {
+        assertCounts(KIWIPETE, 48, 2039, 97862);
+    }
+
+    @Test
+    public void testEndgamePins() {
+        assertCounts(POSITION_3, 14, 191, 2812, 43238, 674624);
+    }
+
+    @Test
+    public void testPromotionsAndCastling() {
+        assertCounts(POSITION_4, 6, 264, 9467, 422333);
+    }
+
+    @Test
+    public void testPosition5() {
+        assertCounts(POSITION_5, 44, 1486, 62379);
+    }
+
+    @Test
+    public void testPosition6() {
+        assertCounts(POSITION_6, 46, 2079, 89890);
+    }
+
+    @Test
+    public void testParallelAndHashedCounts() {
+        final Board board = FenUtils.createBoardFromFen(KIWIPETE);
+        assertEquals(4085603, new Perft(4, 0).count(board, 4));
+        assertEquals(4085603, new Perft(1, 16).count(board, 4));
+        assertEquals(4085603, new Perft(4, 16).count(board, 4));
+    }
+
+    @Test
+    public void testDivide() {
+        final Map<String, Long> divide = new Perft(2, 0).divide(Board.createStandardBoard(), 3);
+        assertEquals(20, divide.size());
+        assertEquals(Long.valueOf(600), divide.get("e2e4"));
+        assertEquals(Long.valueOf(380), divide.get("a2a3"));
+        assertEquals(8902, divide.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    private static void assertCounts(final String fen, final long... expected) {
+        final Board board = FenUtils.createBoardFromFen(fen);
+        final Perft perft = new Perft();
+        for (int depth = 1; depth <= expected.length; depth++) {
+            assertEquals("depth " + depth, expected[depth - 1], perft.count(board, depth));
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.tests.chess.engine;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Queen;
+import com.chess.engine.player.ai.MiniMax;
+import com.chess.engine.player.ai.ParallelMiniMax;
+import com.chess.engine.player.ai.Ponderer;
+import com.chess.engine.player.ai.SearchLimits;
+import com.chess.engine.player.ai.SearchStats;
+import com.chess.engine.player.ai.TranspositionTable;
+import com.chess.pgn.FenUtils;
+
+public class TestSearch {
+
+    @Test
+    public void testDepthLimit() {
+        final Board board = Board.createStandardBoard();
+        final MiniMax miniMax = new MiniMax(3);
+        final Move move = miniMax.execute(board);
+        assertNotNull(move);
+        assertEquals(3, miniMax.getCompletedDepth());
+    }
+
+    @Test
+    public void testMoveTimeLimit() {
+        final Board board = Board.createStandardBoard();
+        final MiniMax miniMax = new MiniMax(1);
+        final long startTime = System.currentTimeMillis();
+        final Move move = miniMax.execute(board, SearchLimits.moveTime(200));
+        final long executionTime = System.currentTimeMillis() - startTime;
+        assertTrue(board.getCurrPlayer().getLegalMoves().contains(move));
+        assertTrue(miniMax.getCompletedDepth() >= 1);
+        assertTrue(miniMax.getCompletedDepth() < SearchLimits.MAX_DEPTH);
+        assertTrue("search took " + executionTime + "ms", executionTime < 1000);
+    }
+
+    @Test
+    public void testNodeLimit() {
+        final Board board = Board.createStandardBoard();
+        final MiniMax miniMax = new MiniMax(1);
+        final Move move = miniMax.execute(board, new SearchLimits.Builder().setNodes(5000).build());
+        assertTrue(board.getCurrPlayer().getLegalMoves().contains(move));
+        assertTrue(miniMax.getCompletedDepth() >= 1);
+        assertTrue(miniMax.getCompletedDepth() < SearchLimits.MAX_DEPTH);
+        // the node limit only applies once the first iteration has finished
+        assertTrue(miniMax.getNodes() <= 5000 || miniMax.getCompletedDepth() == 1);
+    }
+
+    @Test
+    public void testQuiescenceSeesRecapture() {
+        // at depth 1 Qxd5 wins a pawn unless the recapture exd5 is searched
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(new King(Alliance.WHITE, BoardUtils.getCoordFromPos("g1")));
+        builder.setPiece(new Queen(Alliance.WHITE, BoardUtils.getCoordFromPos("d1")));
+        builder.setPiece(new King(Alliance.BLACK, BoardUtils.getCoordFromPos("g8")));
+        builder.setPiece(new Pawn(Alliance.BLACK, BoardUtils.getCoordFromPos("d5")));
+        builder.setPiece(new Pawn(Alliance.BLACK, BoardUtils.getCoordFromPos("e6")));
+        builder.setCurrPlayerAlliance(Alliance.WHITE);
+        final Board board = builder.build();
+
+        final Move move = new MiniMax(1).execute(board);
+        assertNotEquals(MoveFactory.createMove(board, BoardUtils.getCoordFromPos("d1"), BoardUtils.getCoordFromPos("d5")), move);
+    }
+
+    @Test
+    public void testSearchStats() {
+        final Board board = Board.createStandardBoard();
+        final MiniMax miniMax = new MiniMax(4);
+        final Move move = miniMax.execute(board);
+        final SearchStats stats = miniMax.getSearchStats();
+        assertEquals(move, stats.getBestMove());
+        assertEquals(4, stats.getDepth());
+        assertEquals(4, stats.getIterations().size());
+        assertEquals(miniMax.getNodes(), stats.getNodes());
+        long iterationNodes = 0;
+        for (final SearchStats.Iteration iteration : stats.getIterations()) {
+            iterationNodes += iteration.getNodes();
+        }
+        assertEquals(stats.getNodes(), iterationNodes);
+        assertTrue(stats.getQNodes() > 0 && stats.getQNodes() < stats.getNodes());
+        // quiescence searches past the nominal depth
+        assertTrue(stats.getSelDepth() > 4);
+        assertTrue(stats.getBetaCutoffs() > 0 && stats.getBetaCutoffs() <= stats.getExpandedNodes());
+        assertTrue(stats.getFirstMoveCutoffRate() > 0.5 && stats.getFirstMoveCutoffRate() <= 1.0);
+        assertTrue(stats.getHashHits() <= stats.getHashProbes());
+        assertTrue(stats.getHashStores() > 0);
+        assertTrue(stats.getEffectiveBranchingFactor() > 1.0);
+        assertTrue(stats.toString().startsWith("search move=" + move + " depth=4 "));
+    }
+
+    @Test
+    public void testPruningReachesDepthWithFewerNodes() {
+        final Board board = FenUtils.createBoardFromFen("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10");
+        final MiniMax fullWidth = new MiniMax(5);
+        fullWidth.setNullMovePruning(false);
+        fullWidth.setLateMoveReductions(false);
+        final Move fullWidthMove = fullWidth.execute(board);
+        final MiniMax pruned = new MiniMax(5);
+        final Move prunedMove = pruned.execute(board);
+        assertTrue(board.getCurrPlayer().getLegalMoves().contains(prunedMove));
+        assertEquals(5, pruned.getCompletedDepth());
+        assertTrue(pruned.getNodes() < fullWidth.getNodes());
+        assertNotNull(fullWidthMove);
+    }
+
+    @Test
+    public void testLazySmpSearch() {
+        final Board board = Board.createStandardBoard();
+        // all four threads evaluate through one small evaluation cache
+        final MiniMax miniMax = new MiniMax(4, new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB), 4, 1);
+        final Move move = miniMax.execute(board);
+        assertTrue(board.getCurrPlayer().getLegalMoves().contains(move));
+        assertEquals(4, miniMax.getCompletedDepth());
+        // the helpers are stopped and joined, so a second search can reuse them
+        assertTrue(board.getCurrPlayer().getLegalMoves().contains(miniMax.execute(board, SearchLimits.moveTime(100))));
+    }
+
+    @Test
+    public void testParallelSearchIsDeterministic() {
+        final Board board = Board.createStandardBoard();
+        try (final ParallelMiniMax serial = new ParallelMiniMax(5, 1)) {
+            final Move move = serial.execute(board);
+            assertTrue(board.getCurrPlayer().getLegalMoves().contains(move));
+            assertEquals(5, serial.getCompletedDepth());
+            // siblings finishing in any order must not change the choice
+            for (int run = 0; run < 3; run++) {
+                try (final ParallelMiniMax parallel = new ParallelMiniMax(5, 4)) {
+                    assertEquals(move, parallel.execute(board));
+                }
+            }
+            assertEquals(move, serial.execute(board));
+        }
+    }
+
+    @Test
+    public void testParallelSearchLimits() {
+        try (final ParallelMiniMax parallelMiniMax = new ParallelMiniMax(SearchLimits.MAX_DEPTH, 2)) {
+            final Board board = Board.createStandardBoard();
+            final long start = System.currentTimeMillis();
+            final Move move = parallelMiniMax.execute(board, SearchLimits.moveTime(200));
+            assertTrue(System.currentTimeMillis() - start < 2000);
+            assertTrue(board.getCurrPlayer().getLegalMoves().contains(move));
+            assertTrue(parallelMiniMax.getCompletedDepth() >= 1);
+        }
+    }
+
+    @Test
+    public void testParallelSearchIgnoresEarlierStop() {
+        try (final ParallelMiniMax parallelMiniMax = new ParallelMiniMax(3, 2)) {
+            // a stop sent while no search is running must not cut the next one short
+            parallelMiniMax.stop();
+            assertNotNull(parallelMiniMax.execute(Board.createStandardBoard()));
+            assertEquals(3, parallelMiniMax.getCompletedDepth());
+        }
+    }
+
+    @Test
+    public void testPondering() {
+        final Ponderer ponderer = new Ponderer(new MiniMax(3));
+        final Board board = Board.createStandardBoard();
+        final Board afterMove = board.getCurrPlayer().makeMove(ponderer.execute(board)).getUpdatedBoard();
+        final SearchStats stats = ponderer.getMiniMax().getSearchStats();
+        final int[] principalVariation = stats.getIterations().get(stats.getIterations().size() - 1).getPrincipalVariation();
+        final Move expectedReply = MoveFactory.createMove(afterMove, principalVariation[1]);
+
+        // a ponder hit turns the ponder search into the real one, whose clock starts at the hit
+        assertTrue(ponderer.startPondering(afterMove, SearchLimits.moveTime(200)));
+        assertTrue(ponderer.isPondering());
+        final Board hitBoard = afterMove.getCurrPlayer().makeMove(expectedReply).getUpdatedBoard();
+        final long hitStart = System.currentTimeMillis();
+        final Move hitMove = ponderer.execute(hitBoard, SearchLimits.depth(1));
+        assertTrue(System.currentTimeMillis() - hitStart < 2000);
+        assertTrue(hitBoard.getCurrPlayer().getLegalMoves().contains(hitMove));
+        assertFalse(ponderer.isPondering());
+
+        // any other reply stops the ponder search and searches the real position instead
+        ponderer.execute(board);
+        assertTrue(ponderer.startPondering(afterMove, SearchLimits.moveTime(200)));
+        Move otherReply = null;
+        for (final Move move : afterMove.getCurrPlayer().getLegalMoves()) {
+            if (!move.equals(expectedReply)) {
+                otherReply = move;
+                break;
+            }
+        }
+        final Board missBoard = afterMove.getCurrPlayer().makeMove(otherReply).getUpdatedBoard();
+        final Move missMove = ponderer.execute(missBoard, SearchLimits.depth(2));
+        assertTrue(missBoard.getCurrPlayer().getLegalMoves().contains(missMove));
+        assertEquals(2, ponderer.getMiniMax().getCompletedDepth());
+        assertFalse(ponderer.isPondering());
+    }
+
+    @Test
+    public void testClockTimeBudget() {
+        final SearchLimits limits = new SearchLimits.Builder()
+                .setTime(Alliance.WHITE, 60000).setIncrement(Alliance.WHITE, 1000)
+                .setTime(Alliance.BLACK, 100)
+                .build();
+        assertEquals(60000 / 30 + 750, limits.calcTimeBudget(Alliance.WHITE));
+        assertTrue(limits.usesClock(Alliance.WHITE));
+        // never plan to use more than what is left on the clock
+        assertTrue(limits.calcTimeBudget(Alliance.BLACK) <= 100);
+        // two moves to the time control leaves half the clock for this one
+        assertEquals(30000, new SearchLimits.Builder().setTime(Alliance.WHITE, 60000).setMovesToGo(1).build()
+                .calcTimeBudget(Alliance.WHITE));
+        assertEquals(0, SearchLimits.depth(4).calcTimeBudget(Alliance.WHITE));
+        assertEquals(0, new SearchLimits.Builder().setInfinite(true).setMoveTime(10).build().calcTimeBudget(Alliance.WHITE));
+    }
+}
@@ -0,0 +1,221 @@
+package com.tests.chess.engine;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.board.PieceSquareTables;
+import com.chess.engine.board.Position;
+import com.chess.engine.board.SearchPosition;
+import com.chess.engine.board.Zobrist;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.pieces.Rook;
+import com.chess.pgn.FenUtils;
+
+public class TestSearchPosition {
+
+    @Test
+    public void testStartingMoveCounts() {
+        final SearchPosition position = new SearchPosition(Board.createStandardBoard());
+        assertEquals(20, countLegalMoves(position, 1));
+        assertEquals(400, countLegalMoves(position, 2));
+        assertEquals(8902, countLegalMoves(position, 3));
+    }
+
+    @Test
+    public void testDoUndoRestoresPosition() {
+        final Board board = Board.createStandardBoard();
+        final SearchPosition position = new SearchPosition(board);
+        final MoveList moves = position.generateMoves();
+        assertEquals(20, moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            assertTrue(position.doMove(moves.get(i)));
+            assertEquals(Alliance.BLACK, position.getCurrPlayerAlliance());
+            position.undoMove();
+            assertSamePosition(board, position);
+        }
+        assertEquals(0, position.getPly());
+    }
+
+    @Test
+    public void testCastleAndUndo() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(new King(Alliance.WHITE, 60));
+        builder.setPiece(new Rook(Alliance.WHITE, 63));
+        builder.setPiece(new King(Alliance.BLACK, 4));
+        builder.setCurrPlayerAlliance(Alliance.WHITE);
+        final Board board = builder.build();
+        final SearchPosition position = new SearchPosition(board);
+
+        final int castle = position.findMove(BoardUtils.getCoordFromPos("e1"), BoardUtils.getCoordFromPos("g1"));
+        assertEquals(PackedMove.KING_SIDE_CASTLE, PackedMove.getFlag(castle));
+        assertTrue(position.doMove(castle));
+        assertEquals(1L << BoardUtils.getCoordFromPos("f1"), position.getPieces(Alliance.WHITE, PieceType.ROOK));
+        assertTrue(position.hasCastled(Alliance.WHITE));
+        assertEquals(0, position.getCastlingRights());
+        position.undoMove();
+        assertSamePosition(board, position);
+    }
+
+    @Test
+    public void testEnPassantAndUndo() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(new King(Alliance.WHITE, 60));
+        builder.setPiece(new Pawn(Alliance.WHITE, BoardUtils.getCoordFromPos("e2")));
+        builder.setPiece(new King(Alliance.BLACK, 4));
+        builder.setPiece(new Pawn(Alliance.BLACK, BoardUtils.getCoordFromPos("d4")));
+        builder.setCurrPlayerAlliance(Alliance.WHITE);
+        final Board board = builder.build();
+        final Board jumped = board.getCurrPlayer().makeMove(MoveFactory.createMove(board,
+                BoardUtils.getCoordFromPos("e2"), BoardUtils.getCoordFromPos("e4"))).getUpdatedBoard();
+        final SearchPosition position = new SearchPosition(jumped);
+        assertEquals(BoardUtils.getCoordFromPos("e3"), position.getEnPassantCoord());
+
+        final int enPassant = position.findMove(BoardUtils.getCoordFromPos("d4"), BoardUtils.getCoordFromPos("e3"));
+        assertEquals(PackedMove.EN_PASSANT, PackedMove.getFlag(enPassant));
+        assertTrue(position.doMove(enPassant));
+        assertEquals(0L, position.getPieces(Alliance.WHITE, PieceType.PAWN));
+        position.undoMove();
+        assertSamePosition(jumped, position);
+    }
+
+    @Test
+    public void testNullMoveAndUndo() {
+        final Board board = Board.createStandardBoard();
+        final Board jumped = board.getCurrPlayer().makeMove(MoveFactory.createMove(board,
+                BoardUtils.getCoordFromPos("e2"), BoardUtils.getCoordFromPos("e4"))).getUpdatedBoard();
+        final SearchPosition position = new SearchPosition(jumped);
+        position.doNullMove();
+        assertEquals(Alliance.WHITE, position.getCurrPlayerAlliance());
+        assertEquals(Position.NO_EN_PASSANT, position.getEnPassantCoord());
+        assertEquals(PackedMove.NO_MOVE, position.getLastMove());
+        assertEquals(Zobrist.calcKey(position), position.getZobristKey());
+        position.undoNullMove();
+        assertSamePosition(jumped, position);
+        assertEquals(0, position.getPly());
+        assertTrue(position.hasNonPawnMaterial(Alliance.BLACK));
+    }
+
+    @Test
+    public void testPieceSquareScoreIsIncremental() {
+        assertEquals(0, new SearchPosition(Board.createStandardBoard()).getPieceSquareScore());
+        // castling, en passant and promotions in reach, so every kind of move is made
+        final SearchPosition position = new SearchPosition(FenUtils.createBoardFromFen(
+                "r3k2r/pPppqpb1/bn2pnp1/3PN3/Pp2P3/2N2Q1p/1PPBBPPP/R3K2R b KQkq a3 0 1"));
+        final int startingScore = position.getPieceSquareScore();
+        assertEquals(PieceSquareTables.calcScore(position), startingScore);
+        final MoveList moves = position.generateMoves();
+        for (int i = 0; i < moves.size(); i++) {
+            if (position.doMove(moves.get(i))) {
+                assertEquals(PieceSquareTables.calcScore(position), position.getPieceSquareScore());
+                final MoveList replies = position.generateMoves();
+                for (int j = 0; j < replies.size(); j++) {
+                    if (position.doMove(replies.get(j))) {
+                        assertEquals(PieceSquareTables.calcScore(position), position.getPieceSquareScore());
+                        position.undoMove();
+                    }
+                }
+                position.undoMove();
+            }
+        }
+        assertEquals(startingScore, position.getPieceSquareScore());
+    }
+
+    @Test
+    public void testIllegalMoveIsRejected() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(new King(Alliance.WHITE, 60));
+        builder.setPiece(new King(Alliance.BLACK, 4));
+        builder.setPiece(new Rook(Alliance.BLACK, BoardUtils.getCoordFromPos("d8")));
+        builder.setCurrPlayerAlliance(Alliance.WHITE);
+        final Board board = builder.build();
+        final SearchPosition position = new SearchPosition(board);
+
+        final int intoCheck = position.findMove(60, BoardUtils.getCoordFromPos("d1"));
+        assertFalse(position.doMove(intoCheck));
+        assertSamePosition(board, position);
+        assertEquals(3, countLegalMoves(position, 1));
+    }
+
+    @Test
+    public void testGenerateCaptures() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(new King(Alliance.WHITE, 60));
+        builder.setPiece(new Rook(Alliance.WHITE, BoardUtils.getCoordFromPos("a1")));
+        builder.setPiece(new Pawn(Alliance.WHITE, BoardUtils.getCoordFromPos("b7")));
+        builder.setPiece(new King(Alliance.BLACK, BoardUtils.getCoordFromPos("h8")));
+        builder.setPiece(new Rook(Alliance.BLACK, BoardUtils.getCoordFromPos("a8")));
+        builder.setPiece(new Pawn(Alliance.BLACK, BoardUtils.getCoordFromPos("a5")));
+        builder.setCurrPlayerAlliance(Alliance.WHITE);
+        final SearchPosition position = new SearchPosition(builder.build());
+
+        // Rxa5, bxa8=Q and b8=Q, underpromotions and quiet moves are left out
+        final MoveList captures = position.generateCaptures();
+        assertEquals("a1a5 b7a8q b7b8q", sorted(captures));
+        for (int i = 0; i < captures.size(); i++) {
+            final int move = captures.get(i);
+            assertTrue(PackedMove.isCapture(move) || PackedMove.getPromotionType(move) == PieceType.QUEEN);
+        }
+        assertEquals(PieceType.PAWN, position.getPieceType(BoardUtils.getCoordFromPos("a5")));
+        assertNull(position.getPieceType(BoardUtils.getCoordFromPos("a4")));
+    }
+
+    private static String sorted(final MoveList moves) {
+        final String[] notations = moves.toString().split(" ");
+        Arrays.sort(notations);
+        return String.join(" ", notations);
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree to a fixed depth
+     */
+    private static long countLegalMoves(final SearchPosition position, final int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        final MoveList moves = position.generateMoves();
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            if (position.doMove(moves.get(i))) {
+                nodes += countLegalMoves(position, depth - 1);
+                position.undoMove();
+            }
+        }
+        return nodes;
+    }
+
+    private static void assertSamePosition(final Position expected, final Position actual) {
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType pieceType : PieceType.values()) {
+                assertEquals(expected.getPieces(alliance, pieceType), actual.getPieces(alliance, pieceType));
+            }
+            assertEquals(expected.hasCastled(alliance), actual.hasCastled(alliance));
+        }
+        assertEquals(expected.getCurrPlayerAlliance(), actual.getCurrPlayerAlliance());
+        assertEquals(expected.getCastlingRights(), actual.getCastlingRights());
+        assertEquals(expected.getEnPassantCoord(), actual.getEnPassantCoord());
+    }
+
+    @Test
+    public void testMaterializeMove() {
+        final Board board = Board.createStandardBoard();
+        final SearchPosition position = new SearchPosition(board);
+        final int jump = position.findMove(BoardUtils.getCoordFromPos("e2"), BoardUtils.getCoordFromPos("e4"));
+        assertEquals(PackedMove.DOUBLE_PAWN_PUSH, PackedMove.getFlag(jump));
+        assertEquals("e2e4", PackedMove.toString(jump));
+        final Move move = MoveFactory.createMove(board, jump);
+        assertEquals(MoveFactory.createMove(board, BoardUtils.getCoordFromPos("e2"), BoardUtils.getCoordFromPos("e4")), move);
+        assertEquals(Move.NULL_MOVE, MoveFactory.createMove(board, PackedMove.create(BoardUtils.getCoordFromPos("e2"),
+                BoardUtils.getCoordFromPos("e5"), PackedMove.QUIET)));
+    }
+}
@@ -0,0 +1,82 @@
+package com.tests.chess.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitboardUtils;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.KoggeStoneSliderAttacks;
+import com.chess.engine.board.MagicSliderAttacks;
+import com.chess.engine.board.PextSliderAttacks;
+import com.chess.engine.board.SliderAttacks;
+import com.chess.engine.board.SliderAttacksBenchmark;
+
+public class TestSliderAttacks {
+
+    @Test
+    public void testImplementationsAgree() {
+        final SliderAttacks magic = new MagicSliderAttacks();
+        final SliderAttacks pext = new PextSliderAttacks();
+        final SliderAttacks koggeStone = new KoggeStoneSliderAttacks();
+        final Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            final int coord = random.nextInt(BoardUtils.NUM_TILES);
+            final long occupancy = random.nextLong() & random.nextLong();
+            final long rookAttacks = magic.rookAttacks(coord, occupancy);
+            final long bishopAttacks = magic.bishopAttacks(coord, occupancy);
+            assertEquals(rookAttacks, pext.rookAttacks(coord, occupancy));
+            assertEquals(rookAttacks, koggeStone.rookAttacks(coord, occupancy));
+            assertEquals(bishopAttacks, pext.bishopAttacks(coord, occupancy));
+            assertEquals(bishopAttacks, koggeStone.bishopAttacks(coord, occupancy));
+        }
+    }
+
+    @Test
+    public void testPawnAttackSetMatchesSinglePawns() {
+        final Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            // pawns never stand on the first or last rank
+            final long pawns = random.nextLong() & ~BitboardUtils.RANK_8 & ~BitboardUtils.RANK_1;
+            for (final Alliance alliance : Alliance.values()) {
+                long expected = 0L;
+                for (long rest = pawns; rest != 0L; rest &= rest - 1) {
+                    expected |= BitboardUtils.pawnAttacks(alliance, Long.numberOfTrailingZeros(rest));
+                }
+                assertEquals(expected, BitboardUtils.pawnAttackSet(alliance, pawns));
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyBoardAttacks() {
+        for (final SliderAttacks sliders : SliderAttacksBenchmark.createAll()) {
+            for (int coord = 0; coord < BoardUtils.NUM_TILES; coord++) {
+                assertEquals(14, Long.bitCount(sliders.rookAttacks(coord, 0L)));
+            }
+            // a1 sees the long diagonal, d4 sees 13 tiles
+            assertEquals(7, Long.bitCount(sliders.bishopAttacks(BoardUtils.getCoordFromPos("a1"), 0L)));
+            assertEquals(13, Long.bitCount(sliders.bishopAttacks(BoardUtils.getCoordFromPos("d4"), 0L)));
+        }
+    }
+
+    @Test
+    public void testBlockedAttacks() {
+        final int d4 = BoardUtils.getCoordFromPos("d4");
+        final long blockers = (1L << BoardUtils.getCoordFromPos("d6")) | (1L << BoardUtils.getCoordFromPos("f4"))
+                | (1L << BoardUtils.getCoordFromPos("b2")) | (1L << BoardUtils.getCoordFromPos("e5"));
+        for (final SliderAttacks sliders : SliderAttacksBenchmark.createAll()) {
+            final long rookAttacks = sliders.rookAttacks(d4, blockers);
+            // d5, d6 up; d3 d2 d1 down; c4 b4 a4 left; e4 f4 right
+            assertEquals(10, Long.bitCount(rookAttacks));
+            assertEquals(0L, rookAttacks & (1L << BoardUtils.getCoordFromPos("d7")));
+            final long bishopAttacks = sliders.bishopAttacks(d4, blockers);
+            // e5 up-right; c5 b6 a7 up-left; c3 b2 down-left; e3 f2 g1 down-right
+            assertEquals(9, Long.bitCount(bishopAttacks));
+            assertEquals(0L, bishopAttacks & (1L << BoardUtils.getCoordFromPos("f6")));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.tests.chess.engine;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.SearchPosition;
+import com.chess.engine.board.StaticExchange;
+import com.chess.pgn.FenUtils;
+
+public class TestStaticExchange {
+
+    private final StaticExchange staticExchange = new StaticExchange();
+
+    @Test
+    public void testUndefendedAndDefendedVictims() {
+        // the rook takes a free pawn, the queen takes a pawn defended by a pawn
+        assertEquals(100, evaluate("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1", "e1", "e5"));
+        assertEquals(-800, evaluate("4k3/8/3p4/4p3/8/8/8/4QK2 w - - 0 1", "e1", "e5"));
+    }
+
+    @Test
+    public void testXRayAttackers() {
+        // the queens behind the rook and the bishop join in once those have captured, and black
+        // keeps the last word, so the knight is lost for the pawn
+        assertEquals(-200, evaluate("1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1", "d3", "e5"));
+        // the rook behind recaptures through the tile the first rook left
+        assertEquals(500, evaluate("3r3k/3r4/8/8/8/8/3R4/3R3K w - - 0 1", "d2", "d7"));
+    }
+
+    @Test
+    public void testKingOnlyRecapturesUndefendedPieces() {
+        // the king cannot take back on e7 while the rook behind defends it
+        assertEquals(900, evaluate("4k3/4q3/8/8/8/8/4R3/4RK2 w - - 0 1", "e2", "e7"));
+        final SearchPosition position = new SearchPosition(FenUtils.createBoardFromFen("4k3/4q3/8/8/8/8/4R3/4RK2 w - - 0 1"));
+        assertFalse(this.staticExchange.isLosing(position,
+                position.findMove(BoardUtils.getCoordFromPos("e2"), BoardUtils.getCoordFromPos("e7"))));
+    }
+
+    /**
+     * Evaluates the exchange started by a move
+     * @param fen the position
+     * @param from the tile the capturing piece starts on
+     * @param to the tile of the victim
+     * @return the static exchange evaluation of the move
+     */
+    private int evaluate(final String fen, final String from, final String to) {
+        final Board board = FenUtils.createBoardFromFen(fen);
+        final SearchPosition position = new SearchPosition(board);
+        final int move = position.findMove(BoardUtils.getCoordFromPos(from), BoardUtils.getCoordFromPos(to));
+        // the board and the search position give the same result
+        assertEquals(this.staticExchange.evaluate(position, move), this.staticExchange.evaluate(board, move));
+        return this.staticExchange.evaluate(position, move);
+    }
+}
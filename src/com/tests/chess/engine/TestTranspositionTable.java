@@ -0,0 +1,60 @@
+package com.tests.chess.engine;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.chess.engine.board.PackedMove;
+import com.chess.engine.player.ai.TranspositionTable;
+
+public class TestTranspositionTable {
+
+    @Test
+    public void testStoreAndProbe() {
+        final TranspositionTable table = new TranspositionTable(1);
+        final long key = 0x123456789ABCDEFL;
+        final int move = PackedMove.create(52, 36, PackedMove.DOUBLE_PAWN_PUSH);
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(key));
+
+        table.store(key, 5, TranspositionTable.LOWER_BOUND, -1234, move);
+        final long entry = table.probe(key);
+        assertEquals(5, TranspositionTable.getDepth(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.getBound(entry));
+        assertEquals(-1234, TranspositionTable.getScore(entry));
+        assertEquals(move, TranspositionTable.getMove(entry));
+
+        // same slot, different key
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(key ^ (1L << 40)));
+        table.clear();
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(key));
+    }
+
+    @Test
+    public void testDepthPreferredReplacement() {
+        final TranspositionTable table = new TranspositionTable(1);
+        final long key = 42L;
+        final long otherKey = key ^ (1L << 50);
+        table.store(key, 6, TranspositionTable.EXACT, 10, PackedMove.NO_MOVE);
+
+        // a shallower search of another position does not replace a deeper entry
+        table.store(otherKey, 3, TranspositionTable.EXACT, 20, PackedMove.NO_MOVE);
+        assertEquals(10, TranspositionTable.getScore(table.probe(key)));
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(otherKey));
+
+        // unless the deeper entry is from an earlier search
+        table.newSearch();
+        table.store(otherKey, 3, TranspositionTable.EXACT, 20, PackedMove.NO_MOVE);
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(key));
+        assertEquals(20, TranspositionTable.getScore(table.probe(otherKey)));
+    }
+
+    @Test
+    public void testBestMoveKeptWhenNoneFound() {
+        final TranspositionTable table = new TranspositionTable(1);
+        final int move = PackedMove.create(62, 45, PackedMove.QUIET);
+        table.store(7L, 2, TranspositionTable.LOWER_BOUND, 50, move);
+        table.store(7L, 3, TranspositionTable.UPPER_BOUND, 40, PackedMove.NO_MOVE);
+        final long entry = table.probe(7L);
+        assertEquals(3, TranspositionTable.getDepth(entry));
+        assertEquals(move, TranspositionTable.getMove(entry));
+    }
+}
@@ -0,0 +1,111 @@
+package com.tests.chess.engine;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.chess.uci.UciEngine;
+
+public class TestUci {
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final UciEngine engine = new UciEngine(new ByteArrayInputStream(new byte[0]), new PrintStream(this.output, true));
+
+    @Test
+    public void testHandshake() {
+        this.engine.handleCommand("uci");
+        this.engine.handleCommand("isready");
+        final String output = this.output.toString();
+        assertTrue(output.contains("option name Hash type spin"));
+        assertTrue(output.contains("option name EvalCache type spin"));
+        assertTrue(output.contains("option name Threads type spin"));
+        assertTrue(output.contains("option name NullMove type check"));
+        assertTrue(output.contains("uciok"));
+        assertTrue(output.endsWith("readyok" + System.lineSeparator()));
+    }
+
+    @Test
+    public void testGoDepth() throws InterruptedException {
+        this.engine.handleCommand("setoption name Hash value 1");
+        this.engine.handleCommand("setoption name NullMove value false");
+        this.engine.handleCommand("position startpos moves e2e4 e7e5 g1f3");
+        this.engine.handleCommand("go depth 3");
+        final String bestMove = awaitBestMove(10000);
+        assertTrue(this.output.toString().contains("info depth 3 "));
+        // black is to move, so its pieces start on the seventh or eighth rank
+        assertTrue(bestMove, bestMove.matches("bestmove [a-h][5-8][a-h][1-8]( ponder [a-h][1-8][a-h][1-8])?"));
+        assertTrue(this.engine.handleCommand("quit") == false);
+    }
+
+    @Test
+    public void testStopInfiniteSearch() throws InterruptedException {
+        this.engine.handleCommand("position fen r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        this.engine.handleCommand("go infinite");
+        Thread.sleep(200);
+        assertFalse(this.output.toString().contains("bestmove"));
+        final long start = System.currentTimeMillis();
+        this.engine.handleCommand("stop");
+        awaitBestMove(2000);
+        assertTrue(System.currentTimeMillis() - start < 2000);
+        this.engine.handleCommand("quit");
+    }
+
+    @Test
+    public void testPonderHit() throws InterruptedException {
+        this.engine.handleCommand("position startpos");
+        this.engine.handleCommand("go ponder movetime 100");
+        // a ponder search ignores its clock until the ponder hit
+        Thread.sleep(300);
+        assertFalse(this.output.toString().contains("bestmove"));
+        this.engine.handleCommand("ponderhit");
+        awaitBestMove(5000);
+        this.engine.handleCommand("quit");
+    }
+
+    @Test
+    public void testMateScore() throws InterruptedException {
+        this.engine.handleCommand("setoption name Hash value 1");
+        this.engine.handleCommand("position fen 6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        this.engine.handleCommand("go depth 3");
+        final String bestMove = awaitBestMove(10000);
+        final String output = this.output.toString();
+        assertTrue(output, output.contains("info depth 3 seldepth") && output.contains("score mate 1 "));
+        assertFalse(output, output.contains("score cp 2000"));
+        assertTrue(bestMove, bestMove.startsWith("bestmove a1a8"));
+        this.engine.handleCommand("quit");
+    }
+
+    @Test
+    public void testIllegalMove() {
+        this.engine.handleCommand("position startpos moves e2e5");
+        assertTrue(this.output.toString().contains("info string Illegal move e2e5"));
+    }
+
+    @Test
+    public void testUnderpromotion() {
+        this.engine.handleCommand("position fen 8/4P1k1/8/8/8/8/8/4K3 w - - 0 1 moves e7e8q");
+        assertFalse(this.output.toString().contains("info string"));
+        this.engine.handleCommand("position fen 8/4P1k1/8/8/8/8/8/4K3 w - - 0 1 moves e7e8n");
+        assertTrue(this.output.toString().contains("info string Unsupported underpromotion e7e8n"));
+    }
+
+    /**
+     * Waits until the engine has sent its best move
+     */
+    private String awaitBestMove(final long timeoutMillis) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (System.currentTimeMillis() < deadline) {
+            for (final String line : this.output.toString().split(System.lineSeparator())) {
+                if (line.startsWith("bestmove")) {
+                    return line;
+                }
+            }
+            Thread.sleep(10);
+        }
+        fail("No best move within " + timeoutMillis + " ms");
+        return null;
+    }
+}
@@ -0,0 +1,115 @@
+package com.tests.chess.engine;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.SearchPosition;
+import com.chess.engine.board.Zobrist;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Rook;
+
+public class TestZobrist {
+
+    @Test
+    public void testStartingBoardKey() {
+        final Board board = Board.createStandardBoard();
+        assertEquals(Zobrist.calcKey(board), board.getZobristKey());
+        assertEquals(board.getZobristKey(), Zobrist.calcKey(new SearchPosition(board)));
+        assertIncrementalKeys(board, 3);
+    }
+
+    @Test
+    public void testSpecialMoveKeys() {
+        assertIncrementalKeys(createSpecialMovesBoard(), 3);
+    }
+
+    @Test
+    public void testSearchPositionKeys() {
+        final SearchPosition position = new SearchPosition(Board.createStandardBoard());
+        assertSearchPositionKeys(position, 4);
+        assertEquals(Board.createStandardBoard().getZobristKey(), position.getZobristKey());
+        assertSearchPositionKeys(new SearchPosition(createSpecialMovesBoard()), 3);
+    }
+
+    @Test
+    public void testTranspositionsShareKey() {
+        final Board board = Board.createStandardBoard();
+        final Board transposed = play(board, "g1", "f3", "b8", "c6", "f3", "g1", "c6", "b8");
+        assertEquals(board.getZobristKey(), transposed.getZobristKey());
+        assertEquals(board.hashCode(), transposed.hashCode());
+        assertEquals(board, transposed);
+
+        final Board knightOut = play(board, "g1", "f3");
+        assertNotEquals(board.getZobristKey(), knightOut.getZobristKey());
+        assertNotEquals(board, knightOut);
+    }
+
+    /**
+     * Creates a board where castles, a promotion that captures a castling rook and an en passant capture are all one or two plies away
+     */
+    private static Board createSpecialMovesBoard() {
+        final Board.Builder builder = new Board.Builder();
+        builder.setPiece(new King(Alliance.WHITE, 60));
+        builder.setPiece(new Rook(Alliance.WHITE, 63));
+        builder.setPiece(new Rook(Alliance.WHITE, 56));
+        builder.setPiece(new Pawn(Alliance.WHITE, BoardUtils.getCoordFromPos("b7")));
+        builder.setPiece(new Pawn(Alliance.WHITE, BoardUtils.getCoordFromPos("e2")));
+        builder.setPiece(new King(Alliance.BLACK, 4));
+        builder.setPiece(new Rook(Alliance.BLACK, 0));
+        builder.setPiece(new Pawn(Alliance.BLACK, BoardUtils.getCoordFromPos("d4")));
+        builder.setCurrPlayerAlliance(Alliance.WHITE);
+        return builder.build();
+    }
+
+    /**
+     * Plays every legal move to a fixed depth and checks each new board's key against hashing it from scratch
+     */
+    private static void assertIncrementalKeys(final Board board, final int depth) {
+        if (depth == 0) {
+            return;
+        }
+        for (final Move move : board.getCurrPlayer().getLegalMoves()) {
+            final Board next = move.execute();
+            assertEquals(move.toString(), Zobrist.calcKey(next), next.getZobristKey());
+            assertIncrementalKeys(next, depth - 1);
+        }
+    }
+
+    /**
+     * Walks the legal move tree with doMove and undoMove, checking the incremental key against hashing from scratch
+     */
+    private static void assertSearchPositionKeys(final SearchPosition position, final int depth) {
+        assertEquals(Zobrist.calcKey(position), position.getZobristKey());
+        if (depth == 0) {
+            return;
+        }
+        final MoveList moves = position.generateMoves();
+        for (int i = 0; i < moves.size(); i++) {
+            if (position.doMove(moves.get(i))) {
+                assertSearchPositionKeys(position, depth - 1);
+                position.undoMove();
+            }
+        }
+    }
+
+    /**
+     * Plays moves given as pairs of starting and destination positions
+     */
+    private static Board play(Board board, final String... positions) {
+        for (int i = 0; i < positions.length; i += 2) {
+            final MoveTransition transition = board.getCurrPlayer().makeMove(MoveFactory.createMove(board,
+                    BoardUtils.getCoordFromPos(positions[i]), BoardUtils.getCoordFromPos(positions[i + 1])));
+            assertTrue(transition.getMoveStatus().isDone());
+            board = transition.getUpdatedBoard();
+        }
+        return board;
+    }
+}